@@ -0,0 +1,33 @@
+package peaksoft.archive;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A cheque as kept in the cold archive: its header with the stored totals and its lines.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public record ArchivedCheque(
+        Long id,
+        Long waiterId,
+        String firstName,
+        String lastName,
+        Integer service,
+        LocalDate createdAd,
+        BigDecimal subtotal,
+        BigDecimal serviceCharge,
+        BigDecimal grandTotal,
+        List<Line> lines
+) {
+    public record Line(
+            Long menuItemId,
+            String name,
+            Integer quantity,
+            BigDecimal unitPrice,
+            BigDecimal lineTotal
+    ) {
+    }
+}
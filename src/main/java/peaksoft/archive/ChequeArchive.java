@@ -0,0 +1,85 @@
+package peaksoft.archive;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The cold cheque archive on local disk: {@code <dir>/<restaurant id>/<yyyy-MM>.chq}, one
+ * {@link ChequeArchiveFile} per restaurant and month.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Component
+public class ChequeArchive {
+    private static final String SUFFIX = ".chq";
+
+    private final Path directory;
+
+    public ChequeArchive(@Value("${spring.cheques.archive.dir:archive/cheques}") String directory) {
+        this.directory = Path.of(directory);
+    }
+
+    public Path file(Long restId, YearMonth month) {
+        return directory.resolve(restId.toString()).resolve(month + SUFFIX);
+    }
+
+    public List<ArchivedCheque> month(Long restId, YearMonth month) {
+        Path file = file(restId, month);
+        if (!Files.exists(file)) {
+            return List.of();
+        }
+        try {
+            return ChequeArchiveFile.readAll(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Looks the cheque up in every archive file; files whose id range can't contain it are skipped
+     * after reading their header.
+     */
+    public Optional<ArchivedCheque> find(Long chequeId) {
+        if (!Files.isDirectory(directory)) {
+            return Optional.empty();
+        }
+        try (Stream<Path> files = Files.walk(directory, 2)) {
+            for (Path file : files.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).toList()) {
+                Optional<ArchivedCheque> cheque = ChequeArchiveFile.find(file, chequeId);
+                if (cheque.isPresent()) {
+                    return cheque;
+                }
+            }
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Adds cheques to the month's file, replacing archived cheques with the same id.
+     */
+    public synchronized void append(Long restId, YearMonth month, List<ArchivedCheque> cheques) throws IOException {
+        Path file = file(restId, month);
+        Files.createDirectories(file.getParent());
+        List<ArchivedCheque> merged = cheques;
+        if (Files.exists(file)) {
+            Set<Long> ids = cheques.stream().map(ArchivedCheque::id).collect(Collectors.toSet());
+            merged = Stream.concat(ChequeArchiveFile.readAll(file).stream().filter(cheque -> !ids.contains(cheque.id())),
+                    cheques.stream()).toList();
+        }
+        ChequeArchiveFile.write(file, merged);
+    }
+}
@@ -0,0 +1,241 @@
+package peaksoft.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Reads and writes one archive file: the cheques of one restaurant and month.
+ * <p>
+ * After a fixed header (magic, cheque and line count, smallest and largest cheque id) the file
+ * holds one deflated block per column, each prefixed with its raw and compressed length. Cheques
+ * are sorted by id. Money is stored as a long number of cents. Files are written sequentially to
+ * a temporary file and moved into place, and read through a memory-mapped buffer; looking up a
+ * cheque id only inflates the id column unless the id is present.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public final class ChequeArchiveFile {
+    private static final int MAGIC = 0x43485131; // "CHQ1"
+    private static final int HEADER_BYTES = 4 + 4 + 4 + 8 + 8;
+    private static final int COLUMNS = 14;
+    private static final int MONEY_SCALE = 2;
+
+    private ChequeArchiveFile() {
+    }
+
+    public static void write(Path file, List<ArchivedCheque> cheques) throws IOException {
+        List<ArchivedCheque> sorted = cheques.stream().sorted(Comparator.comparing(ArchivedCheque::id)).toList();
+        Column[] columns = new Column[COLUMNS];
+        for (int i = 0; i < COLUMNS; i++) {
+            columns[i] = new Column();
+        }
+        int lineCount = 0;
+        for (ArchivedCheque cheque : sorted) {
+            columns[0].out.writeLong(cheque.id());
+            columns[1].out.writeLong(cheque.createdAd() == null ? Long.MIN_VALUE : cheque.createdAd().toEpochDay());
+            columns[2].out.writeLong(cheque.waiterId() == null ? -1 : cheque.waiterId());
+            writeString(columns[3].out, cheque.firstName());
+            writeString(columns[3].out, cheque.lastName());
+            columns[4].out.writeInt(cheque.service() == null ? -1 : cheque.service());
+            columns[5].out.writeLong(cents(cheque.subtotal()));
+            columns[6].out.writeLong(cents(cheque.serviceCharge()));
+            columns[7].out.writeLong(cents(cheque.grandTotal()));
+            columns[8].out.writeInt(cheque.lines().size());
+            for (ArchivedCheque.Line line : cheque.lines()) {
+                columns[9].out.writeLong(line.menuItemId());
+                writeString(columns[10].out, line.name());
+                columns[11].out.writeInt(line.quantity() == null ? 0 : line.quantity());
+                columns[12].out.writeLong(cents(line.unitPrice()));
+                columns[13].out.writeLong(cents(line.lineTotal()));
+            }
+            lineCount += cheque.lines().size();
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp);
+             DataOutputStream data = new DataOutputStream(out)) {
+            data.writeInt(MAGIC);
+            data.writeInt(sorted.size());
+            data.writeInt(lineCount);
+            data.writeLong(sorted.isEmpty() ? 0 : sorted.get(0).id());
+            data.writeLong(sorted.isEmpty() ? -1 : sorted.get(sorted.size() - 1).id());
+            for (Column column : columns) {
+                byte[] raw = column.bytes.toByteArray();
+                byte[] compressed = deflate(raw);
+                data.writeInt(raw.length);
+                data.writeInt(compressed.length);
+                data.write(compressed);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static List<ArchivedCheque> readAll(Path file) throws IOException {
+        MappedByteBuffer buffer = map(file);
+        Header header = header(buffer);
+        ByteBuffer[] columns = new ByteBuffer[COLUMNS];
+        for (int i = 0; i < COLUMNS; i++) {
+            columns[i] = inflate(column(buffer, i));
+        }
+        List<ArchivedCheque> cheques = new ArrayList<>(header.count());
+        for (int i = 0; i < header.count(); i++) {
+            long id = columns[0].getLong();
+            long epochDay = columns[1].getLong();
+            long waiterId = columns[2].getLong();
+            String firstName = readString(columns[3]);
+            String lastName = readString(columns[3]);
+            int service = columns[4].getInt();
+            BigDecimal subtotal = money(columns[5].getLong());
+            BigDecimal serviceCharge = money(columns[6].getLong());
+            BigDecimal grandTotal = money(columns[7].getLong());
+            int lines = columns[8].getInt();
+            List<ArchivedCheque.Line> chequeLines = new ArrayList<>(lines);
+            for (int j = 0; j < lines; j++) {
+                chequeLines.add(new ArchivedCheque.Line(columns[9].getLong(), readString(columns[10]),
+                        columns[11].getInt(), money(columns[12].getLong()), money(columns[13].getLong())));
+            }
+            cheques.add(new ArchivedCheque(id, waiterId < 0 ? null : waiterId, firstName, lastName,
+                    service < 0 ? null : service, epochDay == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(epochDay),
+                    subtotal, serviceCharge, grandTotal, List.copyOf(chequeLines)));
+        }
+        return cheques;
+    }
+
+    public static Optional<ArchivedCheque> find(Path file, long chequeId) throws IOException {
+        MappedByteBuffer buffer = map(file);
+        Header header = header(buffer);
+        if (chequeId < header.minId() || chequeId > header.maxId()) {
+            return Optional.empty();
+        }
+        ByteBuffer ids = inflate(column(buffer, 0));
+        long[] sortedIds = new long[header.count()];
+        for (int i = 0; i < sortedIds.length; i++) {
+            sortedIds[i] = ids.getLong();
+        }
+        if (Arrays.binarySearch(sortedIds, chequeId) < 0) {
+            return Optional.empty();
+        }
+        return readAll(file).stream().filter(cheque -> cheque.id() == chequeId).findFirst();
+    }
+
+    private static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static Header header(ByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a cheque archive file");
+        }
+        return new Header(buffer.getInt(4), buffer.getInt(8), buffer.getLong(12), buffer.getLong(20));
+    }
+
+    /**
+     * @return the compressed bytes of the column, with its raw length as the first int
+     */
+    private static ByteBuffer column(ByteBuffer buffer, int index) {
+        int position = HEADER_BYTES;
+        for (int i = 0; i < index; i++) {
+            position += 8 + buffer.getInt(position + 4);
+        }
+        return buffer.slice(position, 8 + buffer.getInt(position + 4));
+    }
+
+    private static ByteBuffer inflate(ByteBuffer column) throws IOException {
+        int rawLength = column.getInt(0);
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(column.slice(8, column.capacity() - 8));
+            ByteBuffer raw = ByteBuffer.allocate(rawLength);
+            while (raw.hasRemaining() && !inflater.finished()) {
+                if (inflater.inflate(raw) == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+            }
+            if (raw.hasRemaining()) {
+                throw new IOException("Truncated cheque archive column");
+            }
+            return raw.flip();
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt cheque archive column", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(MONEY_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal money(long cents) {
+        return BigDecimal.valueOf(cents, MONEY_SCALE);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private record Header(int count, int lineCount, long minId, long maxId) {
+    }
+
+    private static final class Column {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+    }
+}
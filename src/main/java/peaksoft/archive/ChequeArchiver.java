@@ -0,0 +1,175 @@
+package peaksoft.archive;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import peaksoft.event.ChequesChangedEvent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Daily job moving cheques older than {@code spring.cheques.archive.horizon_months} whole months
+ * (0, the default, turns it off)
+ * out of PostgreSQL into the {@link ChequeArchive}, one restaurant and month at a time. A month is
+ * locked, written to its file and deleted from the tables in one transaction, so a crash or
+ * failed commit leaves the cheques in both places and the next run simply rewrites the file.
+ * Daily revenue totals stay in {@code daily_revenues}.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Component
+public class ChequeArchiver {
+    private static final Logger log = LoggerFactory.getLogger(ChequeArchiver.class);
+    private static final int DELETE_CHUNK = 1000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ChequeArchive chequeArchive;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int horizonMonths;
+    private final ScheduledExecutorService job = Executors.newSingleThreadScheduledExecutor(daemonThread());
+
+    public ChequeArchiver(NamedParameterJdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                          ChequeArchive chequeArchive, ApplicationEventPublisher eventPublisher,
+                          @Value("${spring.cheques.archive.horizon_months:0}") int horizonMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chequeArchive = chequeArchive;
+        this.eventPublisher = eventPublisher;
+        this.horizonMonths = horizonMonths;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (horizonMonths > 0) {
+            job.scheduleAtFixedRate(this::archiveQuietly, 1, TimeUnit.DAYS.toMinutes(1), TimeUnit.MINUTES);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        job.shutdownNow();
+    }
+
+    /**
+     * Archives every restaurant month that ended before the horizon.
+     */
+    public void archive() throws IOException {
+        LocalDate cutoff = YearMonth.now().minusMonths(horizonMonths).atDay(1);
+        List<Map<String, Object>> months = jdbcTemplate.queryForList("""
+                select distinct u.restaurant_id as rest_id, cast(date_trunc('month', cast(c.created_ad as timestamp)) as date) as month
+                from cheques c
+                join users u on u.id = c.user_id
+                where c.created_ad < :cutoff
+                order by 2, 1""", new MapSqlParameterSource("cutoff", Date.valueOf(cutoff)));
+        for (Map<String, Object> month : months) {
+            archive(((Number) month.get("rest_id")).longValue(), YearMonth.from(((Date) month.get("month")).toLocalDate()));
+        }
+    }
+
+    private void archive(Long restId, YearMonth month) throws IOException {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("restId", restId)
+                .addValue("from", Date.valueOf(month.atDay(1)))
+                .addValue("to", Date.valueOf(month.plusMonths(1).atDay(1)));
+        Integer archived;
+        try {
+            archived = transactionTemplate.execute(status -> archive(restId, month, params));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (archived != null && archived > 0) {
+            eventPublisher.publishEvent(new ChequesChangedEvent(restId, null));
+            log.info("Archived {} cheques of restaurant {} for {}", archived, restId, month);
+        }
+    }
+
+    /**
+     * Reads, writes and deletes the month in one transaction. The cheques are locked before they
+     * are read, so an edit or delete can't slip in between reading a cheque and deleting it; it
+     * either commits before the read or waits and then finds the cheque gone.
+     */
+    private int archive(Long restId, YearMonth month, MapSqlParameterSource params) {
+        List<Long> chequeIds = jdbcTemplate.queryForList("""
+                select c.id
+                from cheques c
+                join users u on u.id = c.user_id
+                where u.restaurant_id = :restId and c.created_ad >= :from and c.created_ad < :to
+                for update of c""", params, Long.class);
+        if (chequeIds.isEmpty()) {
+            return 0;
+        }
+        Map<Long, List<ArchivedCheque.Line>> lines = new HashMap<>();
+        jdbcTemplate.query("""
+                select l.cheque_id, l.menu_item_id, m.name, l.quantity, l.unit_price, l.line_total
+                from cheque_lines l
+                join cheques c on c.id = l.cheque_id
+                join users u on u.id = c.user_id
+                left join menu_items m on m.id = l.menu_item_id
+                where u.restaurant_id = :restId and c.created_ad >= :from and c.created_ad < :to
+                order by l.id""", params, rs -> {
+            lines.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>()).add(new ArchivedCheque.Line(
+                    rs.getLong(2), rs.getString(3), rs.getInt(4), rs.getBigDecimal(5), rs.getBigDecimal(6)));
+        });
+        List<ArchivedCheque> cheques = jdbcTemplate.query("""
+                select c.id, u.id, u.first_name, u.last_name, r.service, c.created_ad,
+                       c.price_average, c.service_charge, c.grand_total
+                from cheques c
+                join users u on u.id = c.user_id
+                left join restaurant r on r.id = u.restaurant_id
+                where u.restaurant_id = :restId and c.created_ad >= :from and c.created_ad < :to""", params,
+                (rs, rowNum) -> new ArchivedCheque(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getString(4),
+                        rs.getObject(5, Integer.class), rs.getObject(6, LocalDate.class), rs.getBigDecimal(7),
+                        rs.getBigDecimal(8), rs.getBigDecimal(9), lines.getOrDefault(rs.getLong(1), List.of())));
+        try {
+            chequeArchive.append(restId, month, cheques);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        // chunked to stay well below the driver's bind parameter limit
+        for (int from = 0; from < chequeIds.size(); from += DELETE_CHUNK) {
+            MapSqlParameterSource ids = new MapSqlParameterSource("ids",
+                    chequeIds.subList(from, Math.min(chequeIds.size(), from + DELETE_CHUNK)));
+            jdbcTemplate.update("delete from kitchen_tickets where cheque_id in (:ids)", ids);
+            jdbcTemplate.update("delete from cheque_lines where cheque_id in (:ids)", ids);
+            jdbcTemplate.update("delete from cheques where id in (:ids)", ids);
+        }
+        return cheques.size();
+    }
+
+    private void archiveQuietly() {
+        try {
+            archive();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Cheque archiving failed: {}", e.getMessage());
+        }
+    }
+
+    private static CustomizableThreadFactory daemonThread() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("cheque-archiver-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+}
@@ -0,0 +1,20 @@
+package peaksoft.cache;
+
+import java.math.BigDecimal;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public record CatalogItemRow(
+        Long id,
+        Long restaurantId,
+        Long subCategoryId,
+        String name,
+        String image,
+        BigDecimal price,
+        String description,
+        Boolean isVegetarian,
+        Long activeStopLists
+) {
+}
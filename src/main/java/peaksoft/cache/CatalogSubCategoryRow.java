@@ -0,0 +1,12 @@
+package peaksoft.cache;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public record CatalogSubCategoryRow(
+        Long id,
+        Long categoryId,
+        String name
+) {
+}
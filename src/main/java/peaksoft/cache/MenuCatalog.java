@@ -0,0 +1,146 @@
+package peaksoft.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import peaksoft.dto.responses.MenuCatalogMetricsResponse;
+import peaksoft.event.MenuChangedEvent;
+import peaksoft.repositories.CategoryRepository;
+import peaksoft.repositories.MenuItemRepository;
+import peaksoft.repositories.SubCategoryRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Holds the current {@link MenuCatalogSnapshot}. Menu, category, sub-category and stop-list
+ * writes publish a {@link MenuChangedEvent}; after commit the affected part is rebuilt and a new
+ * snapshot swapped in atomically. A change to one restaurant's menu reloads only that
+ * restaurant's items, so other restaurants keep reading the snapshot they had; only a change
+ * without a restaurant (categories and sub-categories are shared) reloads everything. Stop lists
+ * starting or ending on their own publish the same event from {@code StopListScheduler}, so the
+ * flags follow the clock.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Component
+public class MenuCatalog {
+    private static final Logger log = LoggerFactory.getLogger(MenuCatalog.class);
+
+    private final CategoryRepository categoryRepository;
+    private final SubCategoryRepository subCategoryRepository;
+    private final MenuItemRepository menuItemRepository;
+
+    // bumped by changes to the shared part, which rebuild everything
+    private final AtomicLong generation = new AtomicLong();
+    private final Map<Long, Long> restaurantGenerations = new ConcurrentHashMap<>();
+    // bumped by every change, after the generation it affects
+    private final AtomicLong changes = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+    private volatile long lastRebuildMillis;
+    private volatile LocalDateTime lastRebuildAt;
+    private volatile MenuCatalogSnapshot snapshot;
+
+    public MenuCatalog(CategoryRepository categoryRepository, SubCategoryRepository subCategoryRepository,
+                       MenuItemRepository menuItemRepository) {
+        this.categoryRepository = categoryRepository;
+        this.subCategoryRepository = subCategoryRepository;
+        this.menuItemRepository = menuItemRepository;
+    }
+
+    public MenuCatalogSnapshot current() {
+        MenuCatalogSnapshot current = snapshot;
+        if (isFresh(current)) {
+            hits.increment();
+            return current;
+        }
+        misses.increment();
+        return rebuild();
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        if (event.restaurantId() == null) {
+            generation.incrementAndGet();
+        } else {
+            restaurantGenerations.merge(event.restaurantId(), 1L, Long::sum);
+        }
+        changes.incrementAndGet();
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // the stale generation makes the next read retry the rebuild
+            log.warn("Menu catalog rebuild failed: {}", e.getMessage());
+        }
+    }
+
+    public MenuCatalogMetricsResponse metrics() {
+        return MenuCatalogMetricsResponse.builder()
+                .hits(hits.sum())
+                .misses(misses.sum())
+                .rebuilds(rebuilds.sum())
+                .lastRebuildMillis(lastRebuildMillis)
+                .lastRebuildAt(lastRebuildAt)
+                .build();
+    }
+
+    /**
+     * Cuts one page out of an already sorted snapshot list.
+     */
+    public static <T> Page<T> page(List<T> rows, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), rows.size());
+        int to = Math.min(from + pageable.getPageSize(), rows.size());
+        return new PageImpl<>(rows.subList(from, to), pageable, rows.size());
+    }
+
+    private synchronized MenuCatalogSnapshot rebuild() {
+        MenuCatalogSnapshot current = snapshot;
+        if (isFresh(current)) {
+            return current;
+        }
+        long started = System.nanoTime();
+        // read before the generations: a change racing with this rebuild leaves the snapshot stale
+        long seen = changes.get();
+        long target = generation.get();
+        MenuCatalogSnapshot built;
+        if (current == null || current.generation() != target) {
+            Map<Long, Long> restaurantTargets = Map.copyOf(restaurantGenerations);
+            built = MenuCatalogSnapshot.build(target, seen, restaurantTargets,
+                    categoryRepository.findAllCategories(),
+                    subCategoryRepository.findCatalogRows(),
+                    menuItemRepository.findCatalogRows(LocalDateTime.now()));
+        } else {
+            built = current.withChanges(seen);
+            for (Map.Entry<Long, Long> entry : restaurantGenerations.entrySet()) {
+                long restaurantTarget = entry.getValue();
+                if (built.restaurantGeneration(entry.getKey()) != restaurantTarget) {
+                    built = built.withRestaurant(entry.getKey(), restaurantTarget,
+                            menuItemRepository.findCatalogRowsByRestaurant(entry.getKey(), LocalDateTime.now()));
+                }
+            }
+        }
+        snapshot = built;
+        rebuilds.increment();
+        lastRebuildMillis = (System.nanoTime() - started) / 1_000_000;
+        lastRebuildAt = LocalDateTime.now();
+        return built;
+    }
+
+    private boolean isFresh(MenuCatalogSnapshot current) {
+        return current != null && current.changes() == changes.get();
+    }
+}
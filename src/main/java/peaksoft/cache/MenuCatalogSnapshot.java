@@ -0,0 +1,282 @@
+package peaksoft.cache;
+
+import peaksoft.dto.responses.*;
+import peaksoft.pagination.PageCursor;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable view of every category and sub-category, shared by all restaurants, and of each
+ * restaurant's menu items. Built by {@link MenuCatalog} and replaced as a whole, so a reader
+ * never sees a half-applied write; a change to one restaurant's menu replaces only that
+ * restaurant's part and keeps the others as they are. Stop-list flags are the ones active when
+ * the restaurant's part was built.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public final class MenuCatalogSnapshot {
+    private static final Comparator<String> BY_NAME = Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER);
+
+    /**
+     * Order of the sub-category and menu item lists: name, then id. Keyset cursors over those
+     * lists must use the same order.
+     */
+    public static final Comparator<PageCursor> NAME_ORDER =
+            Comparator.comparing(PageCursor::key, BY_NAME).thenComparingLong(PageCursor::id);
+
+    private static final Comparator<ManuResponse> MENU_NAME_ORDER =
+            Comparator.comparing(ManuResponse::name, BY_NAME).thenComparing(ManuResponse::id);
+
+    private final long generation;
+    private final long changes;
+    private final List<CategoryResponse> categories;
+    private final Map<Long, CategoryResponse> categoriesById;
+    private final Map<Long, SubCategoryResponse> subCategoriesById;
+    private final Map<Long, List<SubCategoryResponse>> subCategoriesByCategory;
+    private final Map<Long, RestaurantMenu> restaurants;
+
+    private MenuCatalogSnapshot(long generation, long changes, List<CategoryResponse> categories,
+                                Map<Long, CategoryResponse> categoriesById,
+                                Map<Long, SubCategoryResponse> subCategoriesById,
+                                Map<Long, List<SubCategoryResponse>> subCategoriesByCategory,
+                                Map<Long, RestaurantMenu> restaurants) {
+        this.generation = generation;
+        this.changes = changes;
+        this.categories = categories;
+        this.categoriesById = categoriesById;
+        this.subCategoriesById = subCategoriesById;
+        this.subCategoriesByCategory = subCategoriesByCategory;
+        this.restaurants = restaurants;
+    }
+
+    /**
+     * Builds the whole catalog. Items without a restaurant are not part of any menu and are left
+     * out.
+     *
+     * @param restaurantGenerations the generation each restaurant's part is built at
+     */
+    static MenuCatalogSnapshot build(long generation, long changes, Map<Long, Long> restaurantGenerations,
+                                     List<CategoryResponse> categories, List<CatalogSubCategoryRow> subCategories,
+                                     List<CatalogItemRow> items) {
+        List<CategoryResponse> sortedCategories = categories.stream()
+                .sorted(Comparator.comparing(CategoryResponse::name, BY_NAME)).toList();
+        List<CatalogSubCategoryRow> sortedSubCategories = subCategories.stream()
+                .sorted(Comparator.comparing(CatalogSubCategoryRow::name, BY_NAME).thenComparing(CatalogSubCategoryRow::id))
+                .toList();
+
+        Map<Long, CategoryResponse> categoriesById = new HashMap<>();
+        sortedCategories.forEach(c -> categoriesById.put(c.id(), c));
+
+        Map<Long, SubCategoryResponse> subCategoriesById = new HashMap<>();
+        Map<Long, List<SubCategoryResponse>> subCategoriesByCategory = new HashMap<>();
+        for (CatalogSubCategoryRow row : sortedSubCategories) {
+            SubCategoryResponse response = new SubCategoryResponse(row.id(), row.name());
+            subCategoriesById.put(row.id(), response);
+            subCategoriesByCategory.computeIfAbsent(row.categoryId(), id -> new ArrayList<>()).add(response);
+        }
+        Map<Long, List<SubCategoryResponse>> frozenSubCategories = freeze(subCategoriesByCategory);
+
+        Map<Long, List<CatalogItemRow>> itemsByRestaurant = items.stream()
+                .filter(item -> item.restaurantId() != null)
+                .collect(Collectors.groupingBy(CatalogItemRow::restaurantId));
+        Map<Long, RestaurantMenu> restaurants = new HashMap<>();
+        restaurantGenerations.forEach((restaurantId, restaurantGeneration) -> restaurants.put(restaurantId,
+                RestaurantMenu.build(restaurantGeneration, List.of(), sortedCategories, frozenSubCategories)));
+        itemsByRestaurant.forEach((restaurantId, restaurantItems) -> restaurants.put(restaurantId,
+                RestaurantMenu.build(restaurantGenerations.getOrDefault(restaurantId, 0L), restaurantItems,
+                        sortedCategories, frozenSubCategories)));
+
+        return new MenuCatalogSnapshot(generation, changes, sortedCategories,
+                Collections.unmodifiableMap(categoriesById),
+                Collections.unmodifiableMap(subCategoriesById),
+                frozenSubCategories,
+                Collections.unmodifiableMap(restaurants));
+    }
+
+    /**
+     * @return a copy with one restaurant's part rebuilt from {@code items}
+     */
+    MenuCatalogSnapshot withRestaurant(Long restaurantId, long restaurantGeneration, List<CatalogItemRow> items) {
+        Map<Long, RestaurantMenu> restaurants = new HashMap<>(this.restaurants);
+        restaurants.put(restaurantId, RestaurantMenu.build(restaurantGeneration, items, categories, subCategoriesByCategory));
+        return new MenuCatalogSnapshot(generation, changes, categories, categoriesById, subCategoriesById,
+                subCategoriesByCategory, Collections.unmodifiableMap(restaurants));
+    }
+
+    MenuCatalogSnapshot withChanges(long changes) {
+        return new MenuCatalogSnapshot(generation, changes, categories, categoriesById, subCategoriesById,
+                subCategoriesByCategory, restaurants);
+    }
+
+    long generation() {
+        return generation;
+    }
+
+    long changes() {
+        return changes;
+    }
+
+    long restaurantGeneration(Long restaurantId) {
+        RestaurantMenu menu = restaurants.get(restaurantId);
+        return menu == null ? 0 : menu.generation;
+    }
+
+    public List<ManuResponse> menus(Long restId, Boolean isVegetarian, boolean ascending) {
+        RestaurantMenu menu = restaurants.get(restId);
+        List<ManuResponse> menus = (menu == null ? List.<ManuResponse>of() : menu.menus).stream()
+                .filter(m -> isVegetarian != null && isVegetarian.equals(m.isVegetarian()))
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (!ascending) {
+            Collections.reverse(menus);
+        }
+        return menus;
+    }
+
+    public boolean hasRestaurant(Long restId) {
+        RestaurantMenu menu = restaurants.get(restId);
+        return menu != null && !menu.menus.isEmpty();
+    }
+
+    public Optional<ManuResponse> menu(Long menuId) {
+        return restaurants.values().stream()
+                .map(menu -> menu.menusById.get(menuId))
+                .filter(Objects::nonNull)
+                .findFirst();
+    }
+
+    /**
+     * @return the item with its current stop-list flag
+     */
+    public Optional<CatalogItemResponse> item(Long menuId) {
+        return restaurants.values().stream()
+                .map(menu -> menu.itemsById.get(menuId))
+                .filter(Objects::nonNull)
+                .findFirst();
+    }
+
+    /**
+     * Sub-categories are shared, so their items come from every restaurant's part.
+     */
+    public List<ManuResponse> menusOfSubCategory(Long subId) {
+        List<List<ManuResponse>> parts = restaurants.values().stream()
+                .map(menu -> menu.menusBySubCategory.get(subId))
+                .filter(Objects::nonNull)
+                .toList();
+        if (parts.size() <= 1) {
+            return parts.isEmpty() ? List.of() : parts.get(0);
+        }
+        return parts.stream().flatMap(List::stream).sorted(MENU_NAME_ORDER).toList();
+    }
+
+    public List<CategoryResponse> categories() {
+        return categories;
+    }
+
+    public Optional<CategoryResponse> category(Long categoryId) {
+        return Optional.ofNullable(categoriesById.get(categoryId));
+    }
+
+    public Optional<SubCategoryResponse> subCategory(Long subId) {
+        return Optional.ofNullable(subCategoriesById.get(subId));
+    }
+
+    public List<SubCategoryResponse> subCategoriesOf(Long categoryId) {
+        return subCategoriesByCategory.getOrDefault(categoryId, List.of());
+    }
+
+    public List<CatalogCategoryResponse> tree(Long restId) {
+        RestaurantMenu menu = restaurants.get(restId);
+        return menu == null ? List.of() : menu.tree;
+    }
+
+    private static <T> Map<Long, List<T>> freeze(Map<Long, List<T>> map) {
+        Map<Long, List<T>> frozen = new HashMap<>();
+        map.forEach((key, value) -> frozen.put(key, List.copyOf(value)));
+        return Collections.unmodifiableMap(frozen);
+    }
+
+    /**
+     * One restaurant's menu items, in the orders the reads need them.
+     */
+    private static final class RestaurantMenu {
+        private final long generation;
+        private final Map<Long, ManuResponse> menusById;
+        private final Map<Long, CatalogItemResponse> itemsById;
+        private final List<ManuResponse> menus;
+        private final Map<Long, List<ManuResponse>> menusBySubCategory;
+        private final List<CatalogCategoryResponse> tree;
+
+        private RestaurantMenu(long generation, Map<Long, ManuResponse> menusById, Map<Long, CatalogItemResponse> itemsById,
+                               List<ManuResponse> menus, Map<Long, List<ManuResponse>> menusBySubCategory,
+                               List<CatalogCategoryResponse> tree) {
+            this.generation = generation;
+            this.menusById = menusById;
+            this.itemsById = itemsById;
+            this.menus = menus;
+            this.menusBySubCategory = menusBySubCategory;
+            this.tree = tree;
+        }
+
+        private static RestaurantMenu build(long generation, List<CatalogItemRow> items, List<CategoryResponse> categories,
+                                            Map<Long, List<SubCategoryResponse>> subCategoriesByCategory) {
+            Map<Long, ManuResponse> menusById = new HashMap<>();
+            Map<Long, CatalogItemResponse> itemsById = new HashMap<>();
+            for (CatalogItemRow item : items) {
+                menusById.put(item.id(), toMenu(item));
+                itemsById.put(item.id(), toItem(item));
+            }
+            List<ManuResponse> menus = items.stream()
+                    .sorted(Comparator.comparing(CatalogItemRow::price, Comparator.nullsLast(Comparator.naturalOrder())))
+                    .map(item -> menusById.get(item.id()))
+                    .toList();
+            Map<Long, List<ManuResponse>> menusBySubCategory = items.stream()
+                    .filter(item -> item.subCategoryId() != null)
+                    .sorted(Comparator.comparing(CatalogItemRow::name, BY_NAME).thenComparing(CatalogItemRow::id))
+                    .collect(Collectors.groupingBy(CatalogItemRow::subCategoryId,
+                            Collectors.mapping(item -> menusById.get(item.id()), Collectors.toList())));
+            return new RestaurantMenu(generation,
+                    Collections.unmodifiableMap(menusById),
+                    Collections.unmodifiableMap(itemsById),
+                    menus,
+                    freeze(menusBySubCategory),
+                    tree(categories, subCategoriesByCategory, itemsById, items));
+        }
+    }
+
+    private static List<CatalogCategoryResponse> tree(List<CategoryResponse> categories,
+                                                      Map<Long, List<SubCategoryResponse>> subCategoriesByCategory,
+                                                      Map<Long, CatalogItemResponse> itemsById,
+                                                      List<CatalogItemRow> items) {
+        Map<Long, List<CatalogItemResponse>> itemsBySubCategory = items.stream()
+                .filter(item -> item.subCategoryId() != null)
+                .sorted(Comparator.comparing(CatalogItemRow::name, BY_NAME))
+                .collect(Collectors.groupingBy(CatalogItemRow::subCategoryId,
+                        Collectors.mapping(item -> itemsById.get(item.id()), Collectors.toList())));
+
+        List<CatalogCategoryResponse> tree = new ArrayList<>();
+        for (CategoryResponse category : categories) {
+            List<CatalogSubCategoryResponse> subCategories = new ArrayList<>();
+            for (SubCategoryResponse subCategory : subCategoriesByCategory.getOrDefault(category.id(), List.of())) {
+                List<CatalogItemResponse> subItems = itemsBySubCategory.get(subCategory.id());
+                if (subItems != null) {
+                    subCategories.add(new CatalogSubCategoryResponse(subCategory.id(), subCategory.name(), List.copyOf(subItems)));
+                }
+            }
+            if (!subCategories.isEmpty()) {
+                tree.add(new CatalogCategoryResponse(category.id(), category.name(), List.copyOf(subCategories)));
+            }
+        }
+        return List.copyOf(tree);
+    }
+
+    private static ManuResponse toMenu(CatalogItemRow item) {
+        return new ManuResponse(item.id(), item.name(), item.image(), item.price(), item.description(), item.isVegetarian());
+    }
+
+    private static CatalogItemResponse toItem(CatalogItemRow item) {
+        return new CatalogItemResponse(item.id(), item.name(), item.image(), item.price(), item.description(),
+                item.isVegetarian(), item.activeStopLists() > 0);
+    }
+}
@@ -0,0 +1,84 @@
+package peaksoft.cache;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import peaksoft.dto.responses.StopListResponse;
+import peaksoft.event.MenuChangedEvent;
+import peaksoft.repositories.StopListRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Stop lists of one restaurant overlapping one day, including windows that started the day before
+ * or end the day after, loaded with a single indexed query and kept grouped by
+ * menu item id, so both the day listing and the "is this item stopped" check cost the same however
+ * much history the table holds. Cheque creation and editing use the check to refuse stopped dishes.
+ * Entries of a restaurant are dropped on any change to its menu.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Component
+public class StopListIndex {
+    private static final int MAX_ENTRIES = 4096;
+
+    private final StopListRepository stopListRepository;
+    private final Map<Key, Map<Long, List<StopListResponse>>> days = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public StopListIndex(StopListRepository stopListRepository) {
+        this.stopListRepository = stopListRepository;
+    }
+
+    public List<StopListResponse> stopLists(Long restId, LocalDate date) {
+        return day(restId, date).values().stream().flatMap(List::stream).toList();
+    }
+
+    /**
+     * @return whether a stop list of the item covers {@code at}
+     */
+    public boolean isStopped(Long restId, Long menuItemId, LocalDateTime at) {
+        return day(restId, at.toLocalDate()).getOrDefault(menuItemId, List.of()).stream()
+                .anyMatch(stopList -> !stopList.startsAt().isAfter(at) && stopList.endsAt().isAfter(at));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        generation.incrementAndGet();
+        if (event.restaurantId() == null) {
+            days.clear();
+        } else {
+            days.keySet().removeIf(key -> key.restId().equals(event.restaurantId()));
+        }
+    }
+
+    private Map<Long, List<StopListResponse>> day(Long restId, LocalDate date) {
+        Key key = new Key(restId, date);
+        Map<Long, List<StopListResponse>> cached = days.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long loadedAt = generation.get();
+        Map<Long, List<StopListResponse>> loaded = Collections.unmodifiableMap(
+                stopListRepository.findAllByRestaurantOverlapping(restId, date.atStartOfDay(), date.plusDays(1).atStartOfDay()).stream()
+                        .collect(Collectors.groupingBy(StopListResponse::menuItemId)));
+        // a change committed while loading may not be in the result, so it is not kept
+        if (generation.get() == loadedAt) {
+            if (days.size() >= MAX_ENTRIES) {
+                days.clear();
+            }
+            days.putIfAbsent(key, loaded);
+        }
+        return loaded;
+    }
+
+    private record Key(Long restId, LocalDate date) {
+    }
+}
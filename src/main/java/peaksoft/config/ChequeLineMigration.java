@@ -0,0 +1,48 @@
+package peaksoft.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves rows of the old {@code cheques_menu_items} join table into {@code cheque_lines}.
+ * Repeated (cheque, menu item) rows become one line with a quantity; the unit price is
+ * taken from the current menu price because the old table never stored one.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Component
+public class ChequeLineMigration {
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // the factory is injected only so the migration runs after hibernate has created cheque_lines
+    public ChequeLineMigration(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                               EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void migrate() {
+        Boolean legacyTableExists = jdbcTemplate.queryForObject(
+                "select to_regclass('cheques_menu_items') is not null", Boolean.class);
+        if (!Boolean.TRUE.equals(legacyTableExists)) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("""
+                    insert into cheque_lines (id, cheque_id, menu_item_id, quantity, unit_price, line_total)
+                    select nextval('cheque_line_seq'), j.cheque_id, j.menu_items_id, j.quantity, m.price, m.price * j.quantity
+                    from (select cheque_id, menu_items_id, count(*) as quantity
+                          from cheques_menu_items
+                          group by cheque_id, menu_items_id) j
+                    join menu_items m on m.id = j.menu_items_id""");
+            jdbcTemplate.execute("drop table cheques_menu_items");
+        });
+    }
+}
@@ -0,0 +1,38 @@
+package peaksoft.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gives cheques saved before they were versioned a version, so optimistic locking can update them,
+ * and stores the service charge and grand total of cheques saved before totals were stored,
+ * rounded to cents like {@code ChequeServiceImpl} does.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Component
+public class ChequeMigration {
+    private final JdbcTemplate jdbcTemplate;
+
+    // the factory is injected only so the migration runs after hibernate has updated cheques
+    public ChequeMigration(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        jdbcTemplate.update("update cheques set version = 0 where version is null");
+        jdbcTemplate.update("""
+                update cheques c
+                set price_average = round(coalesce(c.price_average, 0), 2),
+                    service_charge = round(round(coalesce(c.price_average, 0), 2) * coalesce(r.service, 0) / 100.0, 2),
+                    grand_total = round(coalesce(c.price_average, 0), 2)
+                                  + round(round(coalesce(c.price_average, 0), 2) * coalesce(r.service, 0) / 100.0, 2)
+                from users u
+                join restaurant r on r.id = u.restaurant_id
+                where u.id = c.user_id and c.grand_total is null""");
+    }
+}
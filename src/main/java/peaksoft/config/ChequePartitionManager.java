@@ -0,0 +1,227 @@
+package peaksoft.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import peaksoft.event.ChequesChangedEvent;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps {@code cheques} range partitioned by month of {@code created_ad}, so date-scoped queries
+ * (the paged cheque listing, analytics) only touch the partitions of their period.
+ * <p>
+ * Enabled with {@code spring.cheques.partitioning.enabled=true}. The first run turns the existing
+ * table into the partition {@code cheques_legacy}, holding everything up to the end of the current
+ * month, under a new partitioned {@code cheques}. PostgreSQL requires the partition key in every
+ * unique constraint, so the primary key becomes {@code (id, created_ad)}, the client key is unique
+ * per waiter and day, and the foreign keys from {@code cheque_lines} and {@code kitchen_tickets}
+ * to {@code cheques} are dropped; {@link PartitionedChequesSchemaFilter} stops hibernate from
+ * adding them back. The foreign key from {@code cheques} to {@code users} is kept. What the
+ * constraints no longer guarantee is kept up by the code that writes the tables:
+ * <ul>
+ *     <li>lines and tickets are only deleted with their cheque: {@code ChequeServiceImpl.delete}
+ *     cascades to the lines and closes the ticket, {@code ChequeArchiver} deletes all three, and a
+ *     detached partition takes its lines along and drops its tickets;</li>
+ *     <li>a waiter's client keys stay unique across days because {@code ChequeServiceImpl} looks
+ *     them up and inserts under a per-waiter advisory lock.</li>
+ * </ul>
+ * <p>
+ * Afterwards a daily job creates the partitions of the next {@code months_ahead} months and, when
+ * {@code retain_years} is positive, detaches monthly partitions of years that closed longer ago
+ * than that and renames them to {@code cheques_archive_yYYYYmMM}, with their lines in
+ * {@code cheque_lines_archive_yYYYYmMM}.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Component
+@ConditionalOnProperty(name = "spring.cheques.partitioning.enabled", havingValue = "true")
+public class ChequePartitionManager {
+    private static final Logger log = LoggerFactory.getLogger(ChequePartitionManager.class);
+    private static final Pattern MONTHLY_PARTITION = Pattern.compile("cheques_y(\\d{4})m(\\d{2})");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int monthsAhead;
+    private final int retainYears;
+    private final ScheduledExecutorService maintenance = Executors.newSingleThreadScheduledExecutor(daemonThread());
+
+    // the factory is injected only so the partitioning runs after hibernate has updated cheques
+    public ChequePartitionManager(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                  EntityManagerFactory entityManagerFactory, ApplicationEventPublisher eventPublisher,
+                                  @Value("${spring.cheques.partitioning.months_ahead:3}") int monthsAhead,
+                                  @Value("${spring.cheques.partitioning.retain_years:0}") int retainYears) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.monthsAhead = monthsAhead;
+        this.retainYears = retainYears;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!isPartitioned()) {
+            transactionTemplate.executeWithoutResult(status -> partition());
+        }
+        addUserForeignKey();
+        maintain();
+        maintenance.scheduleAtFixedRate(this::maintainQuietly, 1, 1, TimeUnit.DAYS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        maintenance.shutdownNow();
+    }
+
+    /**
+     * Creates the partitions up to {@code months_ahead} months from now and detaches expired ones.
+     */
+    public void maintain() {
+        YearMonth month = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            createMonth(month.plusMonths(i));
+        }
+        if (retainYears > 0) {
+            int lastExpiredYear = LocalDate.now().getYear() - retainYears - 1;
+            for (String partition : partitions()) {
+                Matcher matcher = MONTHLY_PARTITION.matcher(partition);
+                if (matcher.matches() && Integer.parseInt(matcher.group(1)) <= lastExpiredYear) {
+                    transactionTemplate.executeWithoutResult(status -> detach(partition));
+                    eventPublisher.publishEvent(new ChequesChangedEvent(null, null));
+                    log.info("Detached cheque partition {}", partition);
+                }
+            }
+        }
+    }
+
+    /**
+     * Detaches an expired partition together with its lines, which no foreign key ties to it, and
+     * drops the kitchen tickets of its cheques.
+     */
+    private void detach(String partition) {
+        String archive = partition.replace("cheques_", "cheques_archive_");
+        String lines = partition.replace("cheques_", "cheque_lines_archive_");
+        jdbcTemplate.execute("create table " + lines + " as select l.* from cheque_lines l where l.cheque_id in (select id from " + partition + ")");
+        jdbcTemplate.execute("delete from cheque_lines where cheque_id in (select id from " + partition + ")");
+        jdbcTemplate.execute("delete from kitchen_tickets where cheque_id in (select id from " + partition + ")");
+        jdbcTemplate.execute("alter table cheques detach partition " + partition);
+        jdbcTemplate.execute("alter table " + partition + " rename to " + archive);
+    }
+
+    /**
+     * Partitioned tables can reference other tables, so unlike the keys pointing at {@code cheques}
+     * the one to {@code users} is added back; {@code not valid} skips checking the existing rows.
+     */
+    private void addUserForeignKey() {
+        Boolean exists = jdbcTemplate.queryForObject("""
+                select exists (select 1 from pg_constraint
+                               where conrelid = 'cheques'::regclass and contype = 'f' and confrelid = 'users'::regclass)""",
+                Boolean.class);
+        if (!Boolean.TRUE.equals(exists)) {
+            jdbcTemplate.execute("alter table cheques add constraint fk_cheques_user foreign key (user_id) references users (id) not valid");
+        }
+    }
+
+    private void maintainQuietly() {
+        try {
+            maintain();
+        } catch (RuntimeException e) {
+            log.warn("Cheque partition maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    private boolean isPartitioned() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "select relkind = 'p' from pg_class where oid = to_regclass('cheques')", Boolean.class));
+    }
+
+    private void partition() {
+        String legacyEnd = YearMonth.now().plusMonths(1).atDay(1).toString();
+        jdbcTemplate.execute("alter table cheques rename to cheques_legacy");
+        jdbcTemplate.queryForList("""
+                        select rel.relname || '|' || con.conname
+                        from pg_constraint con
+                        join pg_class rel on rel.oid = con.conrelid
+                        where con.contype = 'f' and con.confrelid = 'cheques_legacy'::regclass""", String.class)
+                .forEach(foreignKey -> {
+                    String[] parts = foreignKey.split("\\|", 2);
+                    jdbcTemplate.execute("alter table " + parts[0] + " drop constraint \"" + parts[1] + "\"");
+                });
+        jdbcTemplate.queryForList("""
+                        select conname from pg_constraint
+                        where conrelid = 'cheques_legacy'::regclass and contype in ('p', 'u')""", String.class)
+                .forEach(name -> jdbcTemplate.execute("alter table cheques_legacy drop constraint \"" + name + "\""));
+        jdbcTemplate.execute("drop index if exists idx_cheques_user_created_ad");
+
+        jdbcTemplate.execute("create table cheques (like cheques_legacy including defaults) partition by range (created_ad)");
+        jdbcTemplate.execute("alter table cheques add constraint cheques_pkey primary key (id, created_ad)");
+        jdbcTemplate.execute("alter table cheques add constraint uk_cheques_user_client_key unique (user_id, client_key, created_ad)");
+        jdbcTemplate.execute("create index idx_cheques_user_created_ad on cheques (user_id, created_ad, id)");
+        jdbcTemplate.execute("create table cheques_default partition of cheques default");
+
+        // rows without a date can't go into a range partition; the default partition keeps them
+        jdbcTemplate.update("insert into cheques_default select * from cheques_legacy where created_ad is null");
+        jdbcTemplate.update("delete from cheques_legacy where created_ad is null");
+        // a matching check constraint lets the attach skip its validation scan
+        jdbcTemplate.execute("alter table cheques_legacy add constraint cheques_legacy_range check "
+                             + "(created_ad is not null and created_ad < date '" + legacyEnd + "')");
+        jdbcTemplate.execute("alter table cheques attach partition cheques_legacy for values from (minvalue) to ('" + legacyEnd + "')");
+        jdbcTemplate.execute("alter table cheques_legacy drop constraint cheques_legacy_range");
+        log.info("Partitioned cheques by month, existing rows up to {} are in cheques_legacy", legacyEnd);
+    }
+
+    private void createMonth(YearMonth month) {
+        // the legacy partition already covers the month the table was partitioned in
+        if (month.atDay(1).isBefore(legacyEnd())) {
+            return;
+        }
+        String name = String.format("cheques_y%04dm%02d", month.getYear(), month.getMonthValue());
+        jdbcTemplate.execute("create table if not exists " + name + " partition of cheques for values from ('"
+                             + month.atDay(1) + "') to ('" + month.plusMonths(1).atDay(1) + "')");
+    }
+
+    private LocalDate legacyEnd() {
+        List<String> bounds = jdbcTemplate.queryForList("""
+                select pg_get_expr(c.relpartbound, c.oid)
+                from pg_class c
+                where c.oid = to_regclass('cheques_legacy') and c.relispartition""", String.class);
+        if (bounds.isEmpty()) {
+            return LocalDate.MIN;
+        }
+        Matcher matcher = Pattern.compile("TO \\('(\\d{4}-\\d{2}-\\d{2})'\\)").matcher(bounds.get(0));
+        return matcher.find() ? LocalDate.parse(matcher.group(1)) : LocalDate.MIN;
+    }
+
+    private List<String> partitions() {
+        return jdbcTemplate.queryForList("""
+                select c.relname
+                from pg_inherits i
+                join pg_class c on c.oid = i.inhrelid
+                where i.inhparent = 'cheques'::regclass""", String.class);
+    }
+
+    private static CustomizableThreadFactory daemonThread() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("cheque-partitions-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+}
@@ -0,0 +1,109 @@
+package peaksoft.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Lets at most {@code limit} connections be checked out at once; further callers wait in a fair
+ * queue for up to {@code timeoutMillis}. With virtual threads thousands of requests can reach the
+ * database layer at the same time, and queueing them here rather than inside the connection pool
+ * keeps the pool's own timeouts and statistics meaningful.
+ * <p>
+ * Only the {@code DataSource} handed to JPA and the JDBC templates is wrapped; the pool itself
+ * stays a {@link HikariDataSource} bean and is reachable through {@link #unwrap(Class)}.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public class ConcurrencyLimitingDataSource extends DelegatingDataSource {
+    private final Semaphore permits;
+    private final long timeoutMillis;
+
+    public ConcurrencyLimitingDataSource(DataSource target, int limit, long timeoutMillis) {
+        super(target);
+        this.permits = new Semaphore(limit, true);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Limits {@code pool} to {@code limit} connections, or to its pool size when {@code limit} is
+     * not positive.
+     */
+    public static ConcurrencyLimitingDataSource limit(HikariDataSource pool, int limit, long timeoutMillis) {
+        return new ConcurrencyLimitingDataSource(pool, limit > 0 ? limit : pool.getMaximumPoolSize(), timeoutMillis);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        return guarded(super::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        return guarded(() -> super.getConnection(username, password));
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    public int queueLength() {
+        return permits.getQueueLength();
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new CannotGetJdbcConnectionException(
+                        String.format("No database connection became available within %d ms", timeoutMillis));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+    }
+
+    private Connection guarded(ConnectionSupplier supplier) throws SQLException {
+        Connection connection;
+        try {
+            connection = supplier.get();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        } finally {
+                            permits.release();
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+}
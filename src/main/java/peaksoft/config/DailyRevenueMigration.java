@@ -0,0 +1,65 @@
+package peaksoft.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Fills {@code daily_revenues} from the stored grand totals of the existing cheques the first time
+ * the rollup table is introduced. After that the rollup is kept up to date by {@code ChequeServiceImpl}.
+ * <p>
+ * The first version of this backfill summed truncated subtotals and service charges, so once
+ * every day that still has its cheques is recomputed from their grand totals; the table comment
+ * records that this was done. Days whose cheques were archived keep their totals, and so do days
+ * a waiter has rows in two restaurants for, since cheques don't say which one they belong to.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Component
+public class DailyRevenueMigration {
+    private static final String REBUILT = "rebuilt from cheques.grand_total";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // the factory is injected only so the migration runs after hibernate has created daily_revenues,
+    // the cheque migration so that every cheque has its grand total stored
+    public DailyRevenueMigration(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                 EntityManagerFactory entityManagerFactory, ChequeMigration chequeMigration) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void migrate() {
+        jdbcTemplate.update("""
+                insert into daily_revenues (waiter_id, restaurant_id, day, cheque_count, revenue)
+                select u.id, u.restaurant_id, c.created_ad, count(*), sum(c.grand_total)
+                from cheques c
+                join users u on u.id = c.user_id
+                where u.restaurant_id is not null
+                  and not exists (select 1 from daily_revenues)
+                group by u.id, u.restaurant_id, c.created_ad""");
+        if (!REBUILT.equals(jdbcTemplate.queryForObject(
+                "select obj_description('daily_revenues'::regclass, 'pg_class')", String.class))) {
+            transactionTemplate.executeWithoutResult(status -> {
+                // cheque writes of other instances update the rollup too; hold them off until it is rebuilt
+                jdbcTemplate.execute("lock table cheques in share mode");
+                jdbcTemplate.update("""
+                        update daily_revenues d
+                        set cheque_count = t.cheque_count, revenue = t.revenue
+                        from (select c.user_id, c.created_ad, count(*) as cheque_count, sum(c.grand_total) as revenue
+                              from cheques c
+                              group by c.user_id, c.created_ad) t
+                        where d.waiter_id = t.user_id and d.day = t.created_ad
+                          and not exists (select 1 from daily_revenues o
+                                          where o.waiter_id = d.waiter_id and o.day = d.day and o.id <> d.id)""");
+                jdbcTemplate.execute("comment on table daily_revenues is '" + REBUILT + "'");
+            });
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package peaksoft.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+
+/**
+ * The single-pool setup while requests run on virtual threads: the Hikari pool stays a bean of
+ * its own type, and the {@code dataSource} that JPA and the JDBC templates use is a
+ * {@link ConcurrencyLimitingDataSource} in front of it. With a read replica the same happens per
+ * pool in {@link ReadReplicaConfig}.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Configuration
+@ConditionalOnExpression("${spring.web.virtual_threads:false} and '${spring.datasource.replica.url:}'.isEmpty()")
+public class DataSourceLimitConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource pool,
+                                 @Value("${spring.datasource.max_concurrency:0}") int limit,
+                                 @Value("${spring.datasource.max_concurrency_wait_ms:30000}") long timeoutMillis) {
+        return ConcurrencyLimitingDataSource.limit(pool, limit, timeoutMillis);
+    }
+}
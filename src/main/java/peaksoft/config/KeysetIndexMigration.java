@@ -0,0 +1,37 @@
+package peaksoft.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Indexes the keyset pages of chefs, waiters and categories on the key they are sorted by. Names
+ * may be null and the pages sort a missing name as an empty one, so the indexes are on
+ * {@code coalesce(name, '')}, which entity annotations can't express; the plain column indexes
+ * they replace are dropped.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Component
+public class KeysetIndexMigration {
+    private final JdbcTemplate jdbcTemplate;
+
+    // the factory is injected only so the migration runs after hibernate has created the tables
+    public KeysetIndexMigration(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        jdbcTemplate.execute("drop index if exists idx_users_role_first_name_id");
+        jdbcTemplate.execute("drop index if exists idx_categories_name_id");
+        jdbcTemplate.execute("""
+                create index if not exists idx_users_role_first_name_key_id
+                on users (role, coalesce(first_name, ''), id)""");
+        jdbcTemplate.execute("""
+                create index if not exists idx_categories_name_key_id
+                on categories (coalesce(name, ''), id)""");
+    }
+}
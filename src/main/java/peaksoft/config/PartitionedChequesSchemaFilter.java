@@ -0,0 +1,68 @@
+package peaksoft.config;
+
+import org.hibernate.boot.model.relational.Namespace;
+import org.hibernate.boot.model.relational.Sequence;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.mapping.Table;
+import org.hibernate.tool.schema.internal.DefaultSchemaFilterProvider;
+import org.hibernate.tool.schema.spi.SchemaFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps hibernate's {@code ddl-auto=update} away from {@code cheques}, {@code cheque_lines} and
+ * {@code kitchen_tickets} once {@link ChequePartitionManager} has partitioned {@code cheques}.
+ * Otherwise every start tries again to add the unique client key and the foreign keys to
+ * {@code cheques} that the partitioned table can't have. While partitioning is on, new columns of
+ * these three entities have to be added by a migration.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Component
+@ConditionalOnProperty(name = "spring.cheques.partitioning.enabled", havingValue = "true")
+public class PartitionedChequesSchemaFilter implements HibernatePropertiesCustomizer {
+    private static final Set<String> TABLES = Set.of("cheques", "cheque_lines", "kitchen_tickets");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PartitionedChequesSchemaFilter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        // on the start that partitions the table hibernate still updates it first
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "select coalesce(bool_or(relkind = 'p'), false) from pg_class where oid = to_regclass('cheques')", Boolean.class))) {
+            hibernateProperties.put(AvailableSettings.HBM2DDL_FILTER_PROVIDER, new FilterProvider());
+        }
+    }
+
+    private static final class FilterProvider extends DefaultSchemaFilterProvider {
+        @Override
+        public SchemaFilter getMigrateFilter() {
+            return new SchemaFilter() {
+                @Override
+                public boolean includeNamespace(Namespace namespace) {
+                    return true;
+                }
+
+                @Override
+                public boolean includeTable(Table table) {
+                    return !TABLES.contains(table.getName());
+                }
+
+                @Override
+                public boolean includeSequence(Sequence sequence) {
+                    return true;
+                }
+            };
+        }
+    }
+}
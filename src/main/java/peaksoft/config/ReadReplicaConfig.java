@@ -0,0 +1,76 @@
+package peaksoft.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+
+/**
+ * Opt-in ({@code spring.datasource.replica.url}) read replica. {@code @Transactional(readOnly = true)}
+ * service methods read from the replica, everything else runs on the {@code spring.datasource}
+ * primary; see {@link ReplicaRoutingDataSource}. The replica uses the primary's credentials unless
+ * {@code spring.datasource.replica.username}/{@code password} are set. While requests run on virtual
+ * threads each pool is routed to through its own {@link ConcurrencyLimitingDataSource}.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.datasource.replica.url")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${spring.datasource.replica.url}") String url,
+                                              @Value("${spring.datasource.replica.username:}") String username,
+                                              @Value("${spring.datasource.replica.password:}") String password,
+                                              @Value("${spring.datasource.replica.pool_size:10}") int poolSize) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class)
+                .url(url)
+                .username(StringUtils.hasText(username) ? username : properties.determineUsername())
+                .password(StringUtils.hasText(password) ? password : properties.determinePassword())
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setMaximumPoolSize(poolSize);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource routingDataSource(@Qualifier("primaryDataSource") HikariDataSource primary,
+                                                      @Qualifier("replicaDataSource") HikariDataSource replica,
+                                                      @Value("${spring.datasource.replica.max_lag_ms:1000}") long maxLagMillis,
+                                                      @Value("${spring.datasource.replica.sticky_ms:5000}") long stickyMillis,
+                                                      @Value("${spring.web.virtual_threads:false}") boolean virtualThreads,
+                                                      @Value("${spring.datasource.max_concurrency:0}") int limit,
+                                                      @Value("${spring.datasource.max_concurrency_wait_ms:30000}") long timeoutMillis) {
+        if (!virtualThreads) {
+            return new ReplicaRoutingDataSource(primary, replica, maxLagMillis, stickyMillis);
+        }
+        return new ReplicaRoutingDataSource(ConcurrencyLimitingDataSource.limit(primary, limit, timeoutMillis),
+                ConcurrencyLimitingDataSource.limit(replica, limit, timeoutMillis), maxLagMillis, stickyMillis);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -0,0 +1,123 @@
+package peaksoft.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary. The replica is
+ * skipped while its replay lag is above {@code maxLagMillis} or the last lag check failed, and for
+ * {@code stickyMillis} after a principal's last read-write transaction, so a user reads their own
+ * writes.
+ * <p>
+ * The read-only flag is only known once the transaction has started, so this data source has to
+ * sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    private static final long LAG_CHECK_MILLIS = 5_000;
+    private static final String LAG_QUERY = """
+            select case
+                       when not pg_is_in_recovery() or pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0
+                       else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+                   end""";
+
+    public enum Target {PRIMARY, REPLICA}
+
+    private final JdbcTemplate replica;
+    private final long maxLagMillis;
+    private final long stickyMillis;
+    private final Map<String, Long> stickyUntil = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService lagChecks = Executors.newSingleThreadScheduledExecutor(daemonThread());
+    private volatile boolean replicaUsable;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, long maxLagMillis, long stickyMillis) {
+        this.replica = new JdbcTemplate(replica);
+        this.maxLagMillis = maxLagMillis;
+        this.stickyMillis = stickyMillis;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        // the replica starts unused until the first check, which must not hold up startup
+        lagChecks.scheduleWithFixedDelay(this::checkLag, 0, LAG_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public void close() {
+        lagChecks.shutdownNow();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Target.PRIMARY;
+        }
+        String principal = principal();
+        long now = System.currentTimeMillis();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (principal != null) {
+                stickyUntil.put(principal, now + stickyMillis);
+            }
+            return Target.PRIMARY;
+        }
+        if (!replicaUsable) {
+            return Target.PRIMARY;
+        }
+        if (principal != null) {
+            Long until = stickyUntil.get(principal);
+            if (until != null && until > now) {
+                return Target.PRIMARY;
+            }
+        }
+        return Target.REPLICA;
+    }
+
+    private void checkLag() {
+        try {
+            Double lag = replica.queryForObject(LAG_QUERY, Double.class);
+            boolean usable = lag != null && lag <= maxLagMillis;
+            if (usable != replicaUsable) {
+                log.info("Replica {} (lag {} ms)", usable ? "in use" : "behind, reading from primary", lag);
+            }
+            replicaUsable = usable;
+        } catch (RuntimeException e) {
+            if (replicaUsable) {
+                log.warn("Replica lag check failed, reading from primary", e);
+            }
+            replicaUsable = false;
+        }
+        long now = System.currentTimeMillis();
+        stickyUntil.values().removeIf(until -> until <= now);
+    }
+
+    private static String principal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null || authentication instanceof AnonymousAuthenticationToken
+                ? null : authentication.getName();
+    }
+
+    private static CustomizableThreadFactory daemonThread() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("replica-lag-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+}
@@ -0,0 +1,56 @@
+package peaksoft.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops the unique constraint on {@code stop_lists.menu_item_id} left over from the time a menu
+ * item could have only one stop list entry, and the later one on menu item and date, and gives
+ * entries saved before stop lists had start and end times the whole of their day. A menu item
+ * may now have several windows a day as long as they don't overlap: the service checks that
+ * under a lock on the menu item, and the {@code excl_stop_lists_menu_item_window} exclusion
+ * constraint holds it for any writer that doesn't.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Component
+public class StopListMigration {
+    private final JdbcTemplate jdbcTemplate;
+
+    // the factory is injected only so the migration runs after hibernate has updated stop_lists
+    public StopListMigration(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        jdbcTemplate.queryForList("""
+                        select con.conname
+                        from pg_constraint con
+                        join pg_class rel on rel.oid = con.conrelid
+                        join pg_attribute att on att.attrelid = rel.oid and att.attnum = con.conkey[1]
+                        where rel.relname = 'stop_lists'
+                          and con.contype = 'u'
+                          and cardinality(con.conkey) = 1
+                          and att.attname = 'menu_item_id'""", String.class)
+                .forEach(name -> jdbcTemplate.execute("alter table stop_lists drop constraint \"" + name + "\""));
+        jdbcTemplate.execute("alter table stop_lists drop constraint if exists uk_stop_lists_menu_item_date");
+        jdbcTemplate.update("""
+                update stop_lists
+                set starts_at = cast(date as timestamp), ends_at = cast(date + 1 as timestamp)
+                where starts_at is null and date is not null""");
+        jdbcTemplate.execute("create extension if not exists btree_gist");
+        Boolean excluded = jdbcTemplate.queryForObject(
+                "select exists(select 1 from pg_constraint where conname = 'excl_stop_lists_menu_item_window')",
+                Boolean.class);
+        if (!Boolean.TRUE.equals(excluded)) {
+            jdbcTemplate.execute("""
+                    alter table stop_lists add constraint excl_stop_lists_menu_item_window
+                    exclude using gist (menu_item_id with =, tsrange(starts_at, ends_at) with &&)
+                    where (starts_at is not null and ends_at is not null)""");
+        }
+    }
+}
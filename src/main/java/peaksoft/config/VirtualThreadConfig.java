@@ -0,0 +1,58 @@
+package peaksoft.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Opt-in ({@code spring.web.virtual_threads=true}) execution of requests and of the application
+ * task executor (asynchronous MVC work, {@code @Async} methods) on virtual threads, so requests
+ * blocked on the database don't hold a platform thread each. The database itself stays bounded
+ * by {@link ConcurrencyLimitingDataSource}.
+ * <p>
+ * The project compiles for Java 17, so the virtual thread executor is looked up reflectively; on
+ * a runtime without virtual threads the application refuses to start rather than quietly running
+ * on platform threads behind a connection limit sized for virtual ones.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.web.virtual_threads", havingValue = "true")
+public class VirtualThreadConfig {
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    private final ExecutorService virtualThreads = newVirtualThreadPerTaskExecutor();
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreads);
+    }
+
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, "taskExecutor"})
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(virtualThreads);
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            log.info("Serving requests on virtual threads");
+            return executor;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(String.format(
+                    "spring.web.virtual_threads is set but Java %s has no virtual threads, it needs Java 21 or later",
+                    Runtime.version().feature()), e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package peaksoft.config.jwt;
+
+import peaksoft.enums.Role;
+
+/**
+ * What the JWT filter needs to authenticate a request: the user id, login, current role and the
+ * restaurant the user works at ({@code null} for the admin and for applicants).
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public record AuthenticatedPrincipal(
+        Long id,
+        String email,
+        Role role,
+        Long restaurantId
+) {
+}
@@ -8,14 +8,15 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.NonNull;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
-import peaksoft.entity.User;
 import peaksoft.repositories.UserRepository;
 
 import java.io.IOException;
+import java.util.List;
 
 /**
  * @author :ЛОКИ Kelsivbekov
@@ -27,9 +28,12 @@ public class JwtFilter extends OncePerRequestFilter {
 
     private final UserRepository userRepository;
 
-    public JwtFilter(JwtUtil jwtUtil, UserRepository userRepository) {
+    private final PrincipalCache principalCache;
+
+    public JwtFilter(JwtUtil jwtUtil, UserRepository userRepository, PrincipalCache principalCache) {
         this.jwtUtil = jwtUtil;
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -46,15 +50,16 @@ public class JwtFilter extends OncePerRequestFilter {
             }
             else {
                 try {
-                    String userName = jwtUtil.validateTokenAndRetrieveClaim(jwt);
-
-                    User user =userRepository.findByEmail(userName).orElseThrow(() -> new UsernameNotFoundException(userName + " is not found!"));
+                    TokenClaims claims = jwtUtil.validateTokenAndRetrieveClaims(jwt);
+                    AuthenticatedPrincipal principal = resolvePrincipal(claims);
 
                     UsernamePasswordAuthenticationToken authenticationToken =
                              new UsernamePasswordAuthenticationToken(
-                                     user.getEmail(),
-                                     user.getPassword(),
-                                     user.getAuthorities());
+                                     principal.email(),
+                                     null,
+                                     List.of(new SimpleGrantedAuthority(principal.role().name())));
+                    // the rate limiter keys requests by the principal's own restaurant
+                    authenticationToken.setDetails(principal);
 
                     if (SecurityContextHolder.getContext().getAuthentication() == null){
                         SecurityContextHolder.getContext().setAuthentication(authenticationToken);
@@ -67,4 +72,26 @@ public class JwtFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request,response);
     }
+
+    /**
+     * Tokens carrying a user id are resolved from the principal cache and only fall back to a
+     * single-row lookup on a miss; older tokens without the id claim are still resolved by email.
+     */
+    private AuthenticatedPrincipal resolvePrincipal(TokenClaims claims) {
+        if (claims.userId() == null) {
+            return userRepository.findPrincipalByEmail(claims.username())
+                    .orElseThrow(() -> new UsernameNotFoundException(claims.username() + " is not found!"));
+        }
+        AuthenticatedPrincipal principal = principalCache.get(claims.userId());
+        if (principal == null) {
+            long generation = principalCache.generation();
+            principal = userRepository.findPrincipalById(claims.userId())
+                    .orElseThrow(() -> new UsernameNotFoundException(claims.username() + " is not found!"));
+            principalCache.put(principal, generation);
+        }
+        if (!principal.email().equals(claims.username())) {
+            throw new UsernameNotFoundException(claims.username() + " is not found!");
+        }
+        return principal;
+    }
 }
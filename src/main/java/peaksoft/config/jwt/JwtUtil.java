@@ -1,12 +1,15 @@
 package peaksoft.config.jwt;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTCreator;
 import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import peaksoft.entity.User;
+import peaksoft.enums.Role;
 
 import java.time.ZonedDateTime;
 import java.util.Date;
@@ -23,8 +26,13 @@ public class JwtUtil {
     private String SECRET_KEY;
 
     public String generateToken(UserDetails userDetails){
-        return JWT.create()
-                .withClaim("username",userDetails.getUsername())
+        JWTCreator.Builder builder = JWT.create()
+                .withClaim("username",userDetails.getUsername());
+        if (userDetails instanceof User user) {
+            builder.withClaim("id", user.getId())
+                    .withClaim("role", user.getRole().name());
+        }
+        return builder
                 .withIssuedAt(new Date())
                 .withExpiresAt(Date.from(ZonedDateTime.now().plusMinutes(240000).toInstant()))
                 .sign(Algorithm.HMAC256(SECRET_KEY));
@@ -32,10 +40,18 @@ public class JwtUtil {
 
 
     public String validateTokenAndRetrieveClaim(String token){
+        return validateTokenAndRetrieveClaims(token).username();
+    }
+
+    public TokenClaims validateTokenAndRetrieveClaims(String token){
         JWTVerifier verifier = JWT
                 .require(Algorithm.HMAC256(SECRET_KEY))
                 .build();
         DecodedJWT jwt = verifier.verify(token);
-        return jwt.getClaim("username").asString();
+        String role = jwt.getClaim("role").asString();
+        return new TokenClaims(
+                jwt.getClaim("username").asString(),
+                jwt.getClaim("id").asLong(),
+                role == null ? null : Role.valueOf(role));
     }
 }
@@ -0,0 +1,104 @@
+package peaksoft.config.jwt;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Small LRU cache of authenticated principals keyed by user id, so that {@link JwtFilter}
+ * does not read the users table on every request. Entries expire after a TTL and are
+ * revoked explicitly when a user is deleted or their role changes.
+ * <p>
+ * Inside a transaction a revocation takes effect once it commits; before that, a request would
+ * still read the old row and cache it again. A lookup that started before a revocation doesn't
+ * cache its result either, see {@link #generation()}.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Component
+public class PrincipalCache {
+
+    private final long ttlMillis;
+    private final Map<Long, Entry> entries;
+    private long generation;
+
+    public PrincipalCache(@Value("${spring.jwt.principal_cache.ttl_seconds:300}") long ttlSeconds,
+                          @Value("${spring.jwt.principal_cache.max_size:10000}") int maxSize) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public synchronized AuthenticatedPrincipal get(Long userId) {
+        Entry entry = entries.get(userId);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() < System.currentTimeMillis()) {
+            entries.remove(userId);
+            return null;
+        }
+        return entry.principal();
+    }
+
+    /**
+     * Changes with every revocation; read it before looking a principal up in the database and
+     * pass it to {@link #put}.
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Caches the principal unless a revocation happened since {@code generation} was read, in which
+     * case it may have been read from a row that is gone by now.
+     */
+    public synchronized void put(AuthenticatedPrincipal principal, long generation) {
+        if (generation == this.generation) {
+            entries.put(principal.id(), new Entry(principal, System.currentTimeMillis() + ttlMillis));
+        }
+    }
+
+    public void revoke(Long userId) {
+        afterCommit(() -> evict(userId));
+    }
+
+    public void revokeAll() {
+        afterCommit(this::evictAll);
+    }
+
+    private synchronized void evict(Long userId) {
+        entries.remove(userId);
+        generation++;
+    }
+
+    private synchronized void evictAll() {
+        entries.clear();
+        generation++;
+    }
+
+    private static void afterCommit(Runnable revocation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    revocation.run();
+                }
+            });
+        } else {
+            revocation.run();
+        }
+    }
+
+    private record Entry(AuthenticatedPrincipal principal, long expiresAt) {
+    }
+}
@@ -0,0 +1,17 @@
+package peaksoft.config.jwt;
+
+import peaksoft.enums.Role;
+
+/**
+ * Claims carried by a verified token. {@code userId} and {@code role} are absent in tokens
+ * issued before they were added to {@link JwtUtil#generateToken}.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public record TokenClaims(
+        String username,
+        Long userId,
+        Role role
+) {
+}
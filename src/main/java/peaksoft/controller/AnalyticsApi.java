@@ -0,0 +1,35 @@
+package peaksoft.controller;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import peaksoft.dto.responses.SalesAnalyticsResponse;
+import peaksoft.enums.AnalyticsGranularity;
+import peaksoft.services.SalesAnalyticsService;
+
+import java.time.LocalDate;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsApi {
+
+    private final SalesAnalyticsService salesAnalyticsService;
+
+    public AnalyticsApi(SalesAnalyticsService salesAnalyticsService) {
+        this.salesAnalyticsService = salesAnalyticsService;
+    }
+
+    @GetMapping("/sales/{restId}")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public SalesAnalyticsResponse getSales(@PathVariable Long restId,
+                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                           @RequestParam(defaultValue = "DAY") AnalyticsGranularity granularity,
+                                           @RequestParam(defaultValue = "10") int top){
+        return salesAnalyticsService.getSales(restId, from, to, granularity, top);
+    }
+}
@@ -66,4 +66,11 @@ public class CategoryApi {
                                                       @RequestParam int size){
         return categoryService.getCategoryPage(page, size);
     }
+
+    @GetMapping("/cursor")
+    public CursorPageResponse<CategoryResponse> getCategoryCursorPage(@RequestParam(required = false) String cursor,
+                                                                      @RequestParam(defaultValue = "20") int size,
+                                                                      @RequestParam(defaultValue = "false") boolean withTotal){
+        return categoryService.getCategoryCursorPage(cursor, size, withTotal);
+    }
 }
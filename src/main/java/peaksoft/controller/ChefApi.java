@@ -5,6 +5,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import peaksoft.dto.requests.ChefRequest;
 import peaksoft.dto.responses.ChefResponse;
+import peaksoft.dto.responses.CursorPageResponse;
 import peaksoft.dto.responses.PaginationResponseChef;
 import peaksoft.dto.responses.SimpleResponse;
 import peaksoft.enums.Role;
@@ -67,4 +68,11 @@ public class ChefApi {
 
     }
 
+    @GetMapping("/cursor")
+    public CursorPageResponse<ChefResponse> getChefCursorPage(@RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = "20") int size,
+                                                              @RequestParam(defaultValue = "false") boolean withTotal){
+        return chefService.getChefCursorPage(cursor, size, withTotal);
+    }
+
 }
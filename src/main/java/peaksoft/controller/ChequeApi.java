@@ -1,15 +1,24 @@
 package peaksoft.controller;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import peaksoft.dto.requests.ChequeBatchRequest;
 import peaksoft.dto.requests.ChequeRequest;
+import peaksoft.dto.requests.ChequeUpdateRequest;
 import peaksoft.dto.requests.OneDayAvaragePriceRequest;
+import peaksoft.dto.responses.ChequeBatchResultResponse;
 import peaksoft.dto.responses.ChequeResponse;
 import peaksoft.dto.responses.PaginationResponseCheque;
 import peaksoft.dto.responses.SimpleResponse;
 import peaksoft.dto.responses.SimpleResponse1;
+import peaksoft.exeption.BadRequestException;
+import peaksoft.idempotency.IdempotencyGuard;
 import peaksoft.services.ChequeService;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 
@@ -22,17 +31,29 @@ import java.util.List;
 public class ChequeApi {
 
     private final ChequeService chequeService;
+    private final IdempotencyGuard idempotencyGuard;
 
-    public ChequeApi(ChequeService chequeService) {
+    public ChequeApi(ChequeService chequeService, IdempotencyGuard idempotencyGuard) {
         this.chequeService = chequeService;
+        this.idempotencyGuard = idempotencyGuard;
     }
 
     @PostMapping("/{restaurantId}/{waiterId}")
     @PreAuthorize("hasAnyAuthority('ADMIN', 'WAITER')")
     public SimpleResponse saveCheque(@PathVariable Long restaurantId,
                                      @PathVariable Long waiterId,
-                                     @RequestBody ChequeRequest request){
-        return chequeService.save(restaurantId,waiterId,request);
+                                     @RequestBody ChequeRequest request,
+                                     @RequestHeader(value = IdempotencyGuard.HEADER, required = false) String idempotencyKey){
+        return idempotencyGuard.execute(idempotencyKey, "cheque.save:" + restaurantId + "/" + waiterId, request,
+                SimpleResponse.class, () -> chequeService.save(restaurantId,waiterId,request));
+    }
+
+    @PostMapping("/batch/{restaurantId}/{waiterId}")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'WAITER')")
+    public List<ChequeBatchResultResponse> saveBatch(@PathVariable Long restaurantId,
+                                                     @PathVariable Long waiterId,
+                                                     @RequestBody ChequeBatchRequest request){
+        return chequeService.saveBatch(restaurantId, waiterId, request);
     }
 
     @GetMapping("/{waiterId}")
@@ -41,11 +62,50 @@ public class ChequeApi {
         return chequeService.findAll(waiterId);
     }
 
+    @GetMapping("/details/{chequeId}")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'WAITER')")
+    public ChequeResponse getById(@PathVariable Long chequeId){
+        return chequeService.getById(chequeId);
+    }
+
+    @GetMapping("/archive/{restaurantId}")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public List<ChequeResponse> getArchivedMonth(@PathVariable Long restaurantId,
+                                                 @RequestParam String month){
+        try {
+            return chequeService.getArchivedMonth(restaurantId, YearMonth.parse(month));
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Month must look like 2024-01");
+        }
+    }
+
+    @GetMapping("/page/{waiterId}")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'WAITER')")
+    public PaginationResponseCheque getChequePage(@PathVariable Long waiterId,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                  @RequestParam(defaultValue = "1") int page,
+                                                  @RequestParam(defaultValue = "20") int size,
+                                                  @RequestParam(defaultValue = "false") boolean withLines){
+        return chequeService.getChequePage(waiterId, from, to, page, size, withLines);
+    }
+
     @PutMapping("/{chequeId}")
     @PreAuthorize("hasAnyAuthority('ADMIN', 'WAITER')")
     public SimpleResponse update(@PathVariable Long chequeId,
-                                 @RequestBody ChequeRequest chequeRequest){
-        return chequeService.update(chequeId, chequeRequest);
+                                 @RequestBody ChequeRequest chequeRequest,
+                                 @RequestHeader(value = IdempotencyGuard.HEADER, required = false) String idempotencyKey){
+        return idempotencyGuard.execute(idempotencyKey, "cheque.update:" + chequeId, chequeRequest,
+                SimpleResponse.class, () -> chequeService.update(chequeId, chequeRequest));
+    }
+
+    @PatchMapping("/{chequeId}")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'WAITER')")
+    public SimpleResponse edit(@PathVariable Long chequeId,
+                               @RequestBody ChequeUpdateRequest request,
+                               @RequestHeader(value = IdempotencyGuard.HEADER, required = false) String idempotencyKey){
+        return idempotencyGuard.execute(idempotencyKey, "cheque.edit:" + chequeId, request,
+                SimpleResponse.class, () -> chequeService.edit(chequeId, request));
     }
 
     @DeleteMapping("/{waiterId}/{chequeId}")
@@ -60,4 +120,12 @@ public class ChequeApi {
     public SimpleResponse1 oneDayAveragePrice(@RequestBody OneDayAvaragePriceRequest oneDayAvaragePriceRequest){
         return chequeService.oneDayAveragePrice(oneDayAvaragePriceRequest);
     }
+
+    @GetMapping("/revenue/{waiterId}")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'WAITER')")
+    public SimpleResponse1 revenue(@PathVariable Long waiterId,
+                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to){
+        return chequeService.revenue(waiterId, from, to);
+    }
 }
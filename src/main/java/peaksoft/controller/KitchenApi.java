@@ -0,0 +1,53 @@
+package peaksoft.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import peaksoft.dto.responses.KitchenMetricsResponse;
+import peaksoft.dto.responses.KitchenTicketResponse;
+import peaksoft.dto.responses.SimpleResponse;
+import peaksoft.enums.TicketStatus;
+import peaksoft.services.KitchenTicketService;
+
+import java.util.List;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@RestController
+@RequestMapping("/api/kitchen")
+public class KitchenApi {
+
+    private final KitchenTicketService kitchenTicketService;
+
+    public KitchenApi(KitchenTicketService kitchenTicketService) {
+        this.kitchenTicketService = kitchenTicketService;
+    }
+
+    @GetMapping("/tickets/{restId}")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'CHEF')")
+    public List<KitchenTicketResponse> findOpen(@PathVariable Long restId){
+        return kitchenTicketService.findOpen(restId);
+    }
+
+    @GetMapping(value = "/stream/{restId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'CHEF')")
+    public SseEmitter stream(@PathVariable Long restId){
+        return kitchenTicketService.stream(restId);
+    }
+
+    @PutMapping("/tickets/{ticketId}/status")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'CHEF')")
+    public SimpleResponse changeStatus(@PathVariable Long ticketId,
+                                       @RequestParam TicketStatus status){
+        return kitchenTicketService.changeStatus(ticketId, status);
+    }
+
+    @GetMapping("/metrics")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public KitchenMetricsResponse metrics(){
+        return kitchenTicketService.metrics();
+    }
+}
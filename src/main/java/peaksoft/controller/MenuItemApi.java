@@ -1,14 +1,27 @@
 package peaksoft.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import peaksoft.dto.requests.MenuRequest;
+import peaksoft.dto.responses.CatalogCategoryResponse;
+import peaksoft.dto.responses.CursorPageResponse;
 import peaksoft.dto.responses.ManuResponse;
+import peaksoft.dto.responses.MenuCatalogMetricsResponse;
+import peaksoft.dto.responses.MenuImportResponse;
 import peaksoft.dto.responses.MenuItemResponseSearch;
 import peaksoft.dto.responses.PaginationResponseMenu;
 import peaksoft.dto.responses.SimpleResponse;
+import peaksoft.enums.MenuTransferFormat;
+import peaksoft.idempotency.IdempotencyGuard;
 import peaksoft.services.MenuItemService;
+import peaksoft.services.MenuTransferService;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 /**
@@ -19,18 +32,27 @@ import java.util.List;
 @RequestMapping("/api/menu")
 public class MenuItemApi {
 
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
     private final MenuItemService menuItemService;
+    private final MenuTransferService menuTransferService;
+    private final IdempotencyGuard idempotencyGuard;
 
-    public MenuItemApi(MenuItemService menuItemService) {
+    public MenuItemApi(MenuItemService menuItemService, MenuTransferService menuTransferService,
+                       IdempotencyGuard idempotencyGuard) {
         this.menuItemService = menuItemService;
+        this.menuTransferService = menuTransferService;
+        this.idempotencyGuard = idempotencyGuard;
     }
 
     @PostMapping("/{restId}/{subId}")
     @PreAuthorize("hasAnyAuthority('ADMIN', 'CHEF')")
     public SimpleResponse saveManu(@PathVariable Long restId,
                                    @RequestBody MenuRequest menuRequest,
-                                   @PathVariable Long subId){
-        return menuItemService.saveManu(restId,subId, menuRequest);
+                                   @PathVariable Long subId,
+                                   @RequestHeader(value = IdempotencyGuard.HEADER, required = false) String idempotencyKey){
+        return idempotencyGuard.execute(idempotencyKey, "menu.save:" + restId + "/" + subId, menuRequest,
+                SimpleResponse.class, () -> menuItemService.saveManu(restId,subId, menuRequest));
     }
 
     @GetMapping("/findAll/{restId}")
@@ -69,8 +91,57 @@ public class MenuItemApi {
         return menuItemService.getMenuPage(subId, page, size);
     }
 
+    @GetMapping("/cursor/{subId}")
+    public CursorPageResponse<ManuResponse> getMenuCursorPage(@PathVariable Long subId,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = "20") int size,
+                                                              @RequestParam(defaultValue = "false") boolean withTotal){
+        return menuItemService.getMenuCursorPage(subId, cursor, size, withTotal);
+    }
+
     @GetMapping("/search")
-    public List<MenuItemResponseSearch> search (@RequestParam String keyWord){
-        return menuItemService.search(keyWord);
+    public List<MenuItemResponseSearch> search (@RequestParam String keyWord,
+                                                @RequestParam(required = false) Long restId,
+                                                @RequestParam(defaultValue = "1") int page,
+                                                @RequestParam(defaultValue = "20") int size){
+        return menuItemService.search(keyWord, restId, page, size);
+    }
+
+    @GetMapping("/catalog/{restId}")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'CHEF', 'WAITER')")
+    public List<CatalogCategoryResponse> getCatalog(@PathVariable Long restId){
+        return menuItemService.getCatalog(restId);
+    }
+
+    @GetMapping("/catalog/metrics")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public MenuCatalogMetricsResponse getCatalogMetrics(){
+        return menuItemService.getCatalogMetrics();
+    }
+
+    @GetMapping(value = "/stream/{restId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'CHEF', 'WAITER')")
+    public SseEmitter streamChanges(@PathVariable Long restId,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                    @RequestParam(required = false) String offset){
+        return menuItemService.streamChanges(restId, lastEventId != null ? lastEventId : offset);
+    }
+
+    @PostMapping(value = "/import/{restId}", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'CHEF')")
+    public MenuImportResponse importMenus(@PathVariable Long restId,
+                                          @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                          InputStream body) throws IOException {
+        MenuTransferFormat format = TEXT_CSV.isCompatibleWith(MediaType.parseMediaType(contentType))
+                ? MenuTransferFormat.CSV : MenuTransferFormat.JSON;
+        return menuTransferService.importMenus(restId, format, body);
+    }
+
+    @GetMapping("/export/{restId}")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'CHEF')")
+    public void exportMenus(@PathVariable Long restId,
+                            @RequestParam(defaultValue = "CSV") MenuTransferFormat format,
+                            HttpServletResponse response) throws IOException {
+        menuTransferService.exportMenus(restId, format, response);
     }
 }
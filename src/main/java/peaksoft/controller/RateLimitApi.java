@@ -0,0 +1,29 @@
+package peaksoft.controller;
+
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import peaksoft.dto.responses.RateLimitMetricsResponse;
+import peaksoft.ratelimit.RateLimiter;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@RestController
+@RequestMapping("/api/rateLimits")
+public class RateLimitApi {
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitApi(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @GetMapping("/metrics")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public RateLimitMetricsResponse metrics(){
+        return rateLimiter.metrics();
+    }
+}
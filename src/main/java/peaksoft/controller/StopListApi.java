@@ -1,5 +1,6 @@
 package peaksoft.controller;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import peaksoft.dto.requests.StopListRequest;
@@ -7,6 +8,7 @@ import peaksoft.dto.responses.SimpleResponse;
 import peaksoft.dto.responses.StopListResponse;
 import peaksoft.services.StopListService;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -36,6 +38,14 @@ public class StopListApi {
         return stopListService.findAll();
     }
 
+    @GetMapping("/restaurant/{restId}")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'CHEF', 'WAITER')")
+    public List<StopListResponse> findByRestaurantAndDate(@PathVariable Long restId,
+                                                          @RequestParam(required = false)
+                                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date){
+        return stopListService.findByRestaurantAndDate(restId, date);
+    }
+
     @GetMapping("/getById/{id}")
     @PreAuthorize("hasAnyAuthority('ADMIN', 'CHEF', 'WAITER')")
     public StopListResponse getById(@PathVariable Long id){
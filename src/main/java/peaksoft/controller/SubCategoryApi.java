@@ -3,6 +3,7 @@ package peaksoft.controller;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import peaksoft.dto.requests.SubCategoryRequest;
+import peaksoft.dto.responses.CursorPageResponse;
 import peaksoft.dto.responses.PaginationResponseCategory;
 import peaksoft.dto.responses.PaginationResponseSubCategory;
 import peaksoft.dto.responses.SimpleResponse;
@@ -67,4 +68,12 @@ public class SubCategoryApi {
         return subCategoryService.getSubCategoryPage(page, size, categoryId);
     }
 
+    @GetMapping("/cursor/{categoryId}")
+    public CursorPageResponse<SubCategoryResponse> getSubCategoryCursorPage(@PathVariable Long categoryId,
+                                                                            @RequestParam(required = false) String cursor,
+                                                                            @RequestParam(defaultValue = "20") int size,
+                                                                            @RequestParam(defaultValue = "false") boolean withTotal){
+        return subCategoryService.getSubCategoryCursorPage(categoryId, cursor, size, withTotal);
+    }
+
 }
@@ -4,6 +4,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import peaksoft.dto.requests.WaiterRequest;
+import peaksoft.dto.responses.CursorPageResponse;
 import peaksoft.dto.responses.PaginationResponseChef;
 import peaksoft.dto.responses.PaginationResponseWater;
 import peaksoft.dto.responses.SimpleResponse;
@@ -69,4 +70,11 @@ public class WaiterApi {
         return waiterService.getWaiterPagination(page, size);
 
     }
+
+    @GetMapping("/cursor")
+    public CursorPageResponse<WaiterResponse> getWaiterCursorPage(@RequestParam(required = false) String cursor,
+                                                                  @RequestParam(defaultValue = "20") int size,
+                                                                  @RequestParam(defaultValue = "false") boolean withTotal){
+        return waiterService.getWaiterCursorPage(cursor, size, withTotal);
+    }
 }
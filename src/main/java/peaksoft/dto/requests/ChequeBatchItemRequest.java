@@ -0,0 +1,22 @@
+package peaksoft.dto.requests;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChequeBatchItemRequest {
+        private String clientKey;
+        private List<Long> id;
+
+}
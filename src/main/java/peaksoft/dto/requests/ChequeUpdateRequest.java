@@ -0,0 +1,26 @@
+package peaksoft.dto.requests;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Edit of a cheque as deltas: menu ids to add and to remove (an id repeated n times changes the
+ * quantity by n) and the version of the cheque the waiter was looking at.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChequeUpdateRequest {
+        private List<Long> add;
+        private List<Long> remove;
+        private Long version;
+
+}
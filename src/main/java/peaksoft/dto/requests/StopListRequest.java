@@ -3,6 +3,7 @@ package peaksoft.dto.requests;
 import lombok.Builder;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 /**
  * @author :ЛОКИ Kelsivbekov
@@ -11,6 +12,8 @@ import java.time.LocalDate;
 @Builder
 public record StopListRequest(
         String reason,
-        LocalDate date
+        LocalDate date,
+        LocalDateTime startsAt,
+        LocalDateTime endsAt
 ) {
 }
@@ -0,0 +1,17 @@
+package peaksoft.dto.responses;
+
+import lombok.Builder;
+
+import java.util.List;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Builder
+public record CatalogCategoryResponse(
+        Long id,
+        String name,
+        List<CatalogSubCategoryResponse> subCategories
+) {
+}
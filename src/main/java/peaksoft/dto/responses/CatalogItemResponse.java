@@ -0,0 +1,21 @@
+package peaksoft.dto.responses;
+
+import lombok.Builder;
+
+import java.math.BigDecimal;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Builder
+public record CatalogItemResponse(
+        Long id,
+        String name,
+        String image,
+        BigDecimal price,
+        String description,
+        Boolean isVegetarian,
+        boolean stopListed
+) {
+}
@@ -0,0 +1,17 @@
+package peaksoft.dto.responses;
+
+import lombok.Builder;
+import peaksoft.enums.ChequeBatchStatus;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Builder
+public record ChequeBatchResultResponse(
+        String clientKey,
+        Long chequeId,
+        ChequeBatchStatus status,
+        String message
+) {
+}
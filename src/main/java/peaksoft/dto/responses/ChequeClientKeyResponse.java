@@ -0,0 +1,11 @@
+package peaksoft.dto.responses;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public record ChequeClientKeyResponse(
+        String clientKey,
+        Long id
+) {
+}
@@ -0,0 +1,19 @@
+package peaksoft.dto.responses;
+
+import lombok.Builder;
+
+import java.math.BigDecimal;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Builder
+public record ChequeLineResponse(
+        Long menuItemId,
+        String name,
+        Integer quantity,
+        BigDecimal unitPrice,
+        BigDecimal lineTotal
+) {
+}
@@ -0,0 +1,17 @@
+package peaksoft.dto.responses;
+
+import java.math.BigDecimal;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public record ChequeLineRowResponse(
+        Long chequeId,
+        Long menuItemId,
+        String name,
+        Integer quantity,
+        BigDecimal unitPrice,
+        BigDecimal lineTotal
+) {
+}
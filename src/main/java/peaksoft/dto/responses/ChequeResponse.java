@@ -3,6 +3,7 @@ package peaksoft.dto.responses;
 import lombok.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -16,12 +17,16 @@ import java.util.List;
 @Builder
 public class ChequeResponse {
     private Long id;
+    private Long version;
     private String firstName;
     private String lastName;
     private List<ManuResponse> manuResponses;
+    private List<ChequeLineResponse> chequeLines;
     private BigDecimal averagePrice;
     private Integer service;
+    private BigDecimal serviceCharge;
     private BigDecimal grandTotal;
+    private LocalDate createdAd;
 
     public ChequeResponse(Long id,String firstName,String lastName, Integer service) {
         this.id=id;
@@ -29,4 +34,14 @@ public class ChequeResponse {
         this.lastName = lastName;
         this.service = service;
     }
+
+    public ChequeResponse(Long id, Long version, String firstName, String lastName, Integer service,
+                          BigDecimal averagePrice, BigDecimal serviceCharge, BigDecimal grandTotal, LocalDate createdAd) {
+        this(id, firstName, lastName, service);
+        this.version = version;
+        this.averagePrice = averagePrice;
+        this.serviceCharge = serviceCharge;
+        this.grandTotal = grandTotal;
+        this.createdAd = createdAd;
+    }
 }
@@ -0,0 +1,18 @@
+package peaksoft.dto.responses;
+
+import lombok.Builder;
+
+import java.util.List;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Builder
+public record CursorPageResponse<T>(
+        List<T> content,
+        String nextCursor,
+        boolean hasNext,
+        Long total
+) {
+}
@@ -0,0 +1,17 @@
+package peaksoft.dto.responses;
+
+import lombok.Builder;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Builder
+public record KitchenMetricsResponse(
+        long delivered,
+        double averageLatencyMillis,
+        long maxLatencyMillis,
+        long dropped,
+        int subscribers
+) {
+}
@@ -0,0 +1,15 @@
+package peaksoft.dto.responses;
+
+import lombok.Builder;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Builder
+public record KitchenTicketLineResponse(
+        Long menuItemId,
+        String name,
+        Integer quantity
+) {
+}
@@ -0,0 +1,24 @@
+package peaksoft.dto.responses;
+
+import lombok.Builder;
+import peaksoft.enums.TicketStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Builder
+public record KitchenTicketResponse(
+        Long id,
+        Long chequeId,
+        Long restaurantId,
+        TicketStatus status,
+        LocalDateTime createdAt,
+        LocalDateTime cookingAt,
+        LocalDateTime readyAt,
+        List<KitchenTicketLineResponse> lines
+) {
+}
@@ -0,0 +1,19 @@
+package peaksoft.dto.responses;
+
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Builder
+public record MenuCatalogMetricsResponse(
+        long hits,
+        long misses,
+        long rebuilds,
+        long lastRebuildMillis,
+        LocalDateTime lastRebuildAt
+) {
+}
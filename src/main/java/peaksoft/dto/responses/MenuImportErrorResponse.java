@@ -0,0 +1,14 @@
+package peaksoft.dto.responses;
+
+import lombok.Builder;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Builder
+public record MenuImportErrorResponse(
+        long row,
+        String message
+) {
+}
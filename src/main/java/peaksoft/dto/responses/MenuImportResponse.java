@@ -0,0 +1,19 @@
+package peaksoft.dto.responses;
+
+import lombok.Builder;
+
+import java.util.List;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Builder
+public record MenuImportResponse(
+        long total,
+        long created,
+        long updated,
+        long failed,
+        List<MenuImportErrorResponse> errors
+) {
+}
@@ -0,0 +1,13 @@
+package peaksoft.dto.responses;
+
+import java.math.BigDecimal;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public record MenuItemPriceResponse(
+        Long id,
+        BigDecimal price
+) {
+}
@@ -0,0 +1,20 @@
+package peaksoft.dto.responses;
+
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Builder
+public record MenuStreamEventResponse(
+        String id,
+        Long restaurantId,
+        String type,
+        Long menuItemId,
+        CatalogItemResponse item,
+        LocalDateTime at
+) {
+}
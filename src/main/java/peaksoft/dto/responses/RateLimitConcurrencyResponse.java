@@ -0,0 +1,16 @@
+package peaksoft.dto.responses;
+
+import lombok.Builder;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Builder
+public record RateLimitConcurrencyResponse(
+        String tier,
+        int limit,
+        int inFlight,
+        long shed
+) {
+}
@@ -0,0 +1,19 @@
+package peaksoft.dto.responses;
+
+import lombok.Builder;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Builder
+public record RateLimitKeyResponse(
+        String key,
+        String tier,
+        double permitsPerSecond,
+        int burst,
+        int available,
+        long allowed,
+        long rejected
+) {
+}
@@ -0,0 +1,16 @@
+package peaksoft.dto.responses;
+
+import lombok.Builder;
+
+import java.util.List;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Builder
+public record RateLimitMetricsResponse(
+        List<RateLimitConcurrencyResponse> concurrency,
+        List<RateLimitKeyResponse> keys
+) {
+}
@@ -0,0 +1,28 @@
+package peaksoft.dto.responses;
+
+import lombok.Builder;
+import peaksoft.enums.AnalyticsGranularity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Builder
+public record SalesAnalyticsResponse(
+        Long restaurantId,
+        LocalDate from,
+        LocalDate to,
+        AnalyticsGranularity granularity,
+        long cheques,
+        BigDecimal revenue,
+        List<SalesPeriodResponse> periods,
+        List<SalesBreakdownResponse> waiters,
+        List<SalesBreakdownResponse> categories,
+        List<SalesBreakdownResponse> menuItems,
+        List<SalesBreakdownResponse> topSellers
+) {
+}
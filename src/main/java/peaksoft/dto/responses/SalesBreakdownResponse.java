@@ -0,0 +1,19 @@
+package peaksoft.dto.responses;
+
+import lombok.Builder;
+
+import java.math.BigDecimal;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Builder
+public record SalesBreakdownResponse(
+        Long id,
+        String name,
+        long cheques,
+        Long quantity,
+        BigDecimal revenue
+) {
+}
@@ -0,0 +1,18 @@
+package peaksoft.dto.responses;
+
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Builder
+public record SalesPeriodResponse(
+        LocalDate period,
+        long cheques,
+        BigDecimal revenue
+) {
+}
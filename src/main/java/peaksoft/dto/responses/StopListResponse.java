@@ -3,6 +3,7 @@ package peaksoft.dto.responses;
 import lombok.Builder;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 /**
  * @author :ЛОКИ Kelsivbekov
@@ -11,8 +12,11 @@ import java.time.LocalDate;
 @Builder
 public record StopListResponse(
         Long id,
+        Long menuItemId,
         String menuItemName,
         String reason,
-        LocalDate date
+        LocalDate date,
+        LocalDateTime startsAt,
+        LocalDateTime endsAt
 ) {
 }
@@ -3,6 +3,7 @@ package peaksoft.entity;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import peaksoft.dto.responses.CategoryResponse;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -11,15 +12,23 @@ import java.util.List;
 @Setter
 @Entity
 @Table(name = "categories")
+@NamedNativeQuery(name = "Category.findPageAfter", resultSetMapping = "CategoryResponse", query = """
+        select c.id, c.name
+        from categories c
+        where (coalesce(c.name, ''), c.id) > (coalesce(?1, ''), ?2)
+        order by coalesce(c.name, ''), c.id""")
+@SqlResultSetMapping(name = "CategoryResponse", classes = @ConstructorResult(targetClass = CategoryResponse.class, columns = {
+        @ColumnResult(name = "id", type = Long.class),
+        @ColumnResult(name = "name")}))
 public class Category {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "category_gen")
-    @SequenceGenerator(name = "category_gen",sequenceName = "category_seq",allocationSize = 1)
+    @SequenceGenerator(name = "category_gen",sequenceName = "category_seq",allocationSize = 50)
     private Long id;
 
     private String name;
 
-    @OneToMany(mappedBy = "category", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "category", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<SubCategory> subCategories = new ArrayList<>();
 
     public void addSubCategory(SubCategory subCategory) {
@@ -14,26 +14,45 @@ import static jakarta.persistence.CascadeType.*;
 @Getter
 @Setter
 @Entity
-@Table(name = "cheques")
+@Table(name = "cheques",
+        uniqueConstraints = @UniqueConstraint(name = "uk_cheques_user_client_key", columnNames = {"user_id", "client_key"}),
+        indexes = @Index(name = "idx_cheques_user_created_ad", columnList = "user_id, createdAd, id"))
+@NamedEntityGraph(name = "Cheque.details",
+        attributeNodes = {
+                @NamedAttributeNode(value = "user", subgraph = "user"),
+                @NamedAttributeNode(value = "chequeLines", subgraph = "chequeLines")},
+        subgraphs = {
+                @NamedSubgraph(name = "user", attributeNodes = @NamedAttributeNode("restaurant")),
+                @NamedSubgraph(name = "chequeLines", attributeNodes = @NamedAttributeNode("menuItem"))})
 public class Cheque {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cheque_seq")
-    @SequenceGenerator(name = "cheque_seq", allocationSize = 1)
+    @SequenceGenerator(name = "cheque_seq", allocationSize = 50)
     private Long id;
 
-    private BigDecimal priceAverage;
+    @Version
+    private Long version;
+
+    // totals are stored in cents when the lines change, so listings never re-add the lines
+    @Column(name = "price_average", precision = 12, scale = 2)
+    private BigDecimal subtotal;
+    @Column(precision = 12, scale = 2)
+    private BigDecimal serviceCharge;
+    @Column(precision = 12, scale = 2)
+    private BigDecimal grandTotal;
     private LocalDate createdAd;
 
+    // key generated by an offline tablet, so a replayed cheque is recognised instead of saved twice
+    @Column(name = "client_key")
+    private String clientKey;
+
     @ManyToOne(cascade = {MERGE, REFRESH, DETACH}, fetch = FetchType.LAZY)
     private User user;
 
-    @ManyToMany(fetch = FetchType.EAGER)
-    @JoinTable(name = "cheques_menu_items",
-            joinColumns = @JoinColumn(name = "cheque_id"),
-            inverseJoinColumns = @JoinColumn(name = "menu_items_id"))
-    private List<MenuItem> menuItems = new ArrayList<>();
+    @OneToMany(mappedBy = "cheque", cascade = ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    private List<ChequeLine> chequeLines = new ArrayList<>();
 
-    public void addMenuIterm(MenuItem menuItem) {
-        menuItems.add(menuItem);
+    public void addChequeLine(ChequeLine chequeLine) {
+        chequeLines.add(chequeLine);
     }
 }
\ No newline at end of file
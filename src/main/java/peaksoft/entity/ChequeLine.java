@@ -0,0 +1,30 @@
+package peaksoft.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+import static jakarta.persistence.CascadeType.*;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "cheque_lines", indexes = @Index(name = "idx_cheque_lines_cheque", columnList = "cheque_id"))
+public class ChequeLine {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cheque_line_seq")
+    @SequenceGenerator(name = "cheque_line_seq", allocationSize = 50)
+    private Long id;
+
+    private Integer quantity;
+    private BigDecimal unitPrice;
+    private BigDecimal lineTotal;
+
+    @ManyToOne(cascade = {MERGE, REFRESH, DETACH}, fetch = FetchType.LAZY)
+    private Cheque cheque;
+
+    @ManyToOne(cascade = {MERGE, REFRESH, DETACH}, fetch = FetchType.LAZY)
+    private MenuItem menuItem;
+}
@@ -0,0 +1,30 @@
+package peaksoft.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "daily_revenues",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"waiter_id", "day", "restaurant_id"}))
+public class DailyRevenue {
+    // rows are only written by the upsert in DailyRevenueRepository, so the database generates the id
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "waiter_id", nullable = false)
+    private Long waiterId;
+    @Column(name = "restaurant_id", nullable = false)
+    private Long restaurantId;
+    @Column(name = "day", nullable = false)
+    private LocalDate day;
+
+    private Integer chequeCount;
+    private BigDecimal revenue;
+}
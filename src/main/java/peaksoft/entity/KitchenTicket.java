@@ -0,0 +1,34 @@
+package peaksoft.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import peaksoft.enums.TicketStatus;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "kitchen_tickets",
+        indexes = @Index(name = "idx_kitchen_tickets_restaurant_status", columnList = "restaurant_id, status"))
+public class KitchenTicket {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "kitchen_ticket_seq")
+    @SequenceGenerator(name = "kitchen_ticket_seq", allocationSize = 50)
+    private Long id;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "cheque_id", unique = true, nullable = false)
+    private Cheque cheque;
+
+    @Column(name = "restaurant_id", nullable = false)
+    private Long restaurantId;
+
+    @Enumerated(EnumType.STRING)
+    private TicketStatus status;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime cookingAt;
+    private LocalDateTime readyAt;
+}
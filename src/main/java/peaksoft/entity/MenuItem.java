@@ -5,10 +5,7 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Set;
 
 import static jakarta.persistence.CascadeType.*;
 
@@ -19,7 +16,7 @@ import static jakarta.persistence.CascadeType.*;
 public class MenuItem {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "menu_item_seq")
-    @SequenceGenerator(name = "menu_item_seq", allocationSize = 1)
+    @SequenceGenerator(name = "menu_item_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -38,15 +35,6 @@ public class MenuItem {
     private SubCategory subCategory;
 
 
-    @OneToOne(mappedBy = "menuItem", cascade = ALL, fetch = FetchType.EAGER)
-    private StopList stopList;
-
-    @ManyToMany(mappedBy = "menuItems", cascade = {PERSIST, MERGE, REFRESH, DETACH}, fetch = FetchType.EAGER)
-    private List<Cheque> cheques = new ArrayList<>();
-
-    public void addCheque(Cheque cheque) {
-        cheques.add(cheque);
-    }
-
-
+    @OneToMany(mappedBy = "menuItem", cascade = ALL, fetch = FetchType.LAZY)
+    private List<StopList> stopLists;
 }
\ No newline at end of file
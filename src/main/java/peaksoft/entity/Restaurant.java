@@ -9,7 +9,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static jakarta.persistence.CascadeType.*;
-import static jakarta.persistence.FetchType.EAGER;
+import static jakarta.persistence.FetchType.LAZY;
 
 @Getter
 @Setter
@@ -18,7 +18,7 @@ import static jakarta.persistence.FetchType.EAGER;
 public class Restaurant {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "restaurant_seq")
-    @SequenceGenerator(name = "restaurant_seq", allocationSize = 1)
+    @SequenceGenerator(name = "restaurant_seq", allocationSize = 50)
     private Long id;
     private String name;
     private String location;
@@ -27,11 +27,11 @@ public class Restaurant {
     private Integer numberOfEmployees;
     private Integer service;
 
-    @OneToMany(mappedBy = "restaurant",cascade = ALL, orphanRemoval = true, fetch = EAGER)
+    @OneToMany(mappedBy = "restaurant",cascade = ALL, orphanRemoval = true, fetch = LAZY)
     private List<User> users = new ArrayList<>();
 
 
-    @OneToMany(mappedBy = "restaurant",cascade = ALL, orphanRemoval = true, fetch = EAGER)
+    @OneToMany(mappedBy = "restaurant",cascade = ALL, orphanRemoval = true, fetch = LAZY)
     private List<MenuItem> menuItems = new ArrayList<>();
 
 
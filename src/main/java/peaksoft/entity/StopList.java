@@ -5,6 +5,7 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 import static jakarta.persistence.CascadeType.*;
 import static jakarta.persistence.CascadeType.DETACH;
@@ -12,15 +13,21 @@ import static jakarta.persistence.CascadeType.DETACH;
 @Getter
 @Setter
 @Entity
-@Table(name = "stop_lists")
+@Table(name = "stop_lists",
+        indexes = {@Index(name = "idx_stop_lists_date", columnList = "date"),
+                @Index(name = "idx_stop_lists_ends_at", columnList = "endsAt"),
+                @Index(name = "idx_stop_lists_menu_item_starts_at", columnList = "menu_item_id, startsAt")})
 public class StopList {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stop_list_seq")
-    @SequenceGenerator(name = "stop_list_seq", allocationSize = 1)
+    @SequenceGenerator(name = "stop_list_seq", allocationSize = 50)
     private Long id;
     private String reason;
     private LocalDate date;
+    private LocalDateTime startsAt;
+    private LocalDateTime endsAt;
 
-    @OneToOne(cascade = {MERGE, REFRESH, DETACH}, fetch = FetchType.LAZY)
+    @ManyToOne(cascade = {MERGE, REFRESH, DETACH}, fetch = FetchType.LAZY)
+    @JoinColumn(name = "menu_item_id")
     private MenuItem menuItem;
 }
\ No newline at end of file
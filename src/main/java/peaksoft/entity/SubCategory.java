@@ -16,7 +16,7 @@ import static jakarta.persistence.CascadeType.*;
 public class SubCategory {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sub_category_seq")
-    @SequenceGenerator(name = "sub_category_seq", allocationSize = 1)
+    @SequenceGenerator(name = "sub_category_seq", allocationSize = 50)
     private Long id;
     private String name;
 
@@ -25,11 +25,11 @@ public class SubCategory {
     private Category category;
 
 
-    @OneToMany(mappedBy = "subCategory", cascade = {MERGE, REFRESH, DETACH}, orphanRemoval = true, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "subCategory", cascade = {MERGE, REFRESH, DETACH}, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<MenuItem> menuItems;
 
     public void addMenuItem(MenuItem menuItem) {
-        if (menuItem == null){
+        if (menuItems == null){
             menuItems = new ArrayList<>();
         }
         menuItems.add(menuItem);
@@ -10,6 +10,8 @@ import org.hibernate.Hibernate;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import peaksoft.dto.responses.ChefResponse;
+import peaksoft.dto.responses.WaiterResponse;
 import peaksoft.enums.Role;
 
 import java.util.ArrayList;
@@ -18,17 +20,44 @@ import java.util.List;
 import java.util.Objects;
 
 import static jakarta.persistence.CascadeType.*;
-import static jakarta.persistence.FetchType.EAGER;
+import static jakarta.persistence.FetchType.LAZY;
 
 @Getter
 @Setter
 @Entity
 @Table(name = "users")
+@NamedEntityGraph(name = "User.restaurant", attributeNodes = @NamedAttributeNode("restaurant"))
+@NamedNativeQuery(name = "User.findChefsAfter", resultSetMapping = "ChefResponse", query = """
+        select u.id, u.first_name, u.last_name, u.date_of_brith, u.email, u.phone_number, u.experience
+        from users u
+        where u.role = ?1 and (coalesce(u.first_name, ''), u.id) > (coalesce(?2, ''), ?3)
+        order by coalesce(u.first_name, ''), u.id""")
+@NamedNativeQuery(name = "User.findWaitersAfter", resultSetMapping = "WaiterResponse", query = """
+        select u.id, u.first_name, u.last_name, u.date_of_brith, u.email, u.phone_number, u.experience
+        from users u
+        where u.role = ?1 and (coalesce(u.first_name, ''), u.id) > (coalesce(?2, ''), ?3)
+        order by coalesce(u.first_name, ''), u.id""")
+@SqlResultSetMapping(name = "ChefResponse", classes = @ConstructorResult(targetClass = ChefResponse.class, columns = {
+        @ColumnResult(name = "id", type = Long.class),
+        @ColumnResult(name = "first_name"),
+        @ColumnResult(name = "last_name"),
+        @ColumnResult(name = "date_of_brith", type = Long.class),
+        @ColumnResult(name = "email"),
+        @ColumnResult(name = "phone_number"),
+        @ColumnResult(name = "experience", type = Integer.class)}))
+@SqlResultSetMapping(name = "WaiterResponse", classes = @ConstructorResult(targetClass = WaiterResponse.class, columns = {
+        @ColumnResult(name = "id", type = Long.class),
+        @ColumnResult(name = "first_name"),
+        @ColumnResult(name = "last_name"),
+        @ColumnResult(name = "date_of_brith", type = Long.class),
+        @ColumnResult(name = "email"),
+        @ColumnResult(name = "phone_number"),
+        @ColumnResult(name = "experience", type = Integer.class)}))
 @NoArgsConstructor
 public class User implements UserDetails {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
-    @SequenceGenerator(name = "user_seq", allocationSize = 1)
+    @SequenceGenerator(name = "user_seq", allocationSize = 50)
     private Long id;
     private String firstName;
     private String lastName;
@@ -43,10 +72,10 @@ public class User implements UserDetails {
     private Integer experience;
 
     private Boolean acceptOrDelete;
-    @ManyToOne(cascade = {MERGE, REFRESH, DETACH}, fetch = EAGER)
+    @ManyToOne(cascade = {MERGE, REFRESH, DETACH}, fetch = LAZY)
     private Restaurant restaurant;
 
-    @OneToMany(mappedBy = "user", cascade = {PERSIST, MERGE, REFRESH, DETACH}, fetch = EAGER)
+    @OneToMany(mappedBy = "user", cascade = {PERSIST, MERGE, REFRESH, DETACH}, fetch = LAZY)
     private List<Cheque> cheques;
 
     @Override
@@ -0,0 +1,13 @@
+package peaksoft.enums;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public enum MenuChangeType {
+    ADDED,
+    UPDATED,
+    DELETED,
+    STOP_LIST,
+    CATALOG
+}
@@ -0,0 +1,10 @@
+package peaksoft.enums;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public enum MenuTransferFormat {
+    CSV,
+    JSON
+}
@@ -0,0 +1,11 @@
+package peaksoft.enums;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public enum TicketStatus {
+    QUEUED,
+    COOKING,
+    READY
+}
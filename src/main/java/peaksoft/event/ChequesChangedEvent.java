@@ -0,0 +1,18 @@
+package peaksoft.event;
+
+import java.time.LocalDate;
+
+/**
+ * Published when cheques that may lie in the past change: a cheque is edited, updated or deleted,
+ * a month is archived or an expired partition is detached. {@code restaurantId} is {@code null}
+ * when every restaurant may be affected, {@code day} is the day of the changed cheque, or
+ * {@code null} when any day may be affected.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public record ChequesChangedEvent(
+        Long restaurantId,
+        LocalDate day
+) {
+}
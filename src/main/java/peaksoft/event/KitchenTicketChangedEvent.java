@@ -0,0 +1,15 @@
+package peaksoft.event;
+
+/**
+ * Published in the transaction that creates, changes or removes a kitchen ticket. Listeners
+ * run after commit and read the ticket back, so they always see committed state; a ticket that
+ * is no longer there has been removed.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public record KitchenTicketChangedEvent(
+        Long restaurantId,
+        Long ticketId
+) {
+}
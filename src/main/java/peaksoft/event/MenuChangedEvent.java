@@ -0,0 +1,22 @@
+package peaksoft.event;
+
+import peaksoft.enums.MenuChangeType;
+
+/**
+ * Published after a write that changes what a restaurant's menu looks like.
+ * {@code restaurantId} is {@code null} when the change is not restaurant specific
+ * (categories and sub-categories are shared by all restaurants). {@code menuItemId} names the
+ * affected item for item level changes and is {@code null} for {@link MenuChangeType#CATALOG}.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public record MenuChangedEvent(
+        Long restaurantId,
+        MenuChangeType type,
+        Long menuItemId
+) {
+    public MenuChangedEvent(Long restaurantId) {
+        this(restaurantId, MenuChangeType.CATALOG, null);
+    }
+}
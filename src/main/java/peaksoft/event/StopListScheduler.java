@@ -0,0 +1,97 @@
+package peaksoft.event;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import peaksoft.enums.MenuChangeType;
+import peaksoft.repositories.StopListRepository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires a {@link MenuChangedEvent} at the moment a stop-list entry starts or ends, so cached
+ * menu availability flips without anyone deleting the entry.
+ * <p>
+ * Pending start and end times sit in a {@link DelayQueue}; one daemon thread sleeps until the
+ * earliest one is due, so nothing polls the table. The queue is seeded once at startup from the
+ * entries that have not ended yet and is fed by the stop-list service afterwards. A transition
+ * of an entry that has since been moved or deleted only causes a redundant cache refresh.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Component
+public class StopListScheduler {
+    private static final Logger log = LoggerFactory.getLogger(StopListScheduler.class);
+
+    private final StopListRepository stopListRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DelayQueue<Transition> transitions = new DelayQueue<>();
+    private final Thread worker = new Thread(this::run, "stop-list-scheduler");
+
+    public StopListScheduler(StopListRepository stopListRepository, ApplicationEventPublisher eventPublisher) {
+        this.stopListRepository = stopListRepository;
+        this.eventPublisher = eventPublisher;
+        worker.setDaemon(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        stopListRepository.findWindowsEndingAfter(LocalDateTime.now()).forEach(this::schedule);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        worker.interrupt();
+    }
+
+    /**
+     * Queues the start (if still ahead) and the end of the entry.
+     */
+    public void schedule(StopListWindow window) {
+        LocalDateTime now = LocalDateTime.now();
+        if (window.startsAt() != null && window.startsAt().isAfter(now)) {
+            transitions.put(new Transition(window.restaurantId(), window.menuItemId(), window.startsAt()));
+        }
+        if (window.endsAt() != null && window.endsAt().isAfter(now)) {
+            transitions.put(new Transition(window.restaurantId(), window.menuItemId(), window.endsAt()));
+        }
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Transition due = transitions.take();
+                eventPublisher.publishEvent(new MenuChangedEvent(due.restaurantId(), MenuChangeType.STOP_LIST, due.menuItemId()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.warn("Stop list transition failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private record Transition(Long restaurantId, Long menuItemId, LocalDateTime at) implements Delayed {
+        @Override
+        public long getDelay(TimeUnit unit) {
+            long millis = at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() - System.currentTimeMillis();
+            return unit.convert(millis, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return other instanceof Transition transition
+                    ? at.compareTo(transition.at)
+                    : Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+        }
+    }
+}
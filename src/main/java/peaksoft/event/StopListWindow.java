@@ -0,0 +1,16 @@
+package peaksoft.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public record StopListWindow(
+        Long stopListId,
+        Long restaurantId,
+        Long menuItemId,
+        LocalDateTime startsAt,
+        LocalDateTime endsAt
+) {
+}
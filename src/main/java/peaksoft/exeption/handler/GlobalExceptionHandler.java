@@ -1,5 +1,6 @@
 package peaksoft.exeption.handler;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -34,6 +35,16 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ExceptionResponse handleOptimisticLockingFailure(OptimisticLockingFailureException e){
+        return new ExceptionResponse(
+                HttpStatus.CONFLICT,
+                e.getClass().getSimpleName(),
+                "The record was changed by another request, reload it and try again"
+        );
+    }
+
     @ExceptionHandler(BadRequestException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ExceptionResponse handleBadRequest(BadRequestException e){
@@ -0,0 +1,187 @@
+package peaksoft.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import peaksoft.exeption.AlreadyExistException;
+import peaksoft.exeption.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Runs a write at most once per {@code Idempotency-Key}.
+ * <p>
+ * Keys are scoped to the authenticated user. Before the write runs, its key is claimed in the
+ * store with a pending entry, so only one attempt runs even when retries reach different
+ * instances. The response is stored once the write has committed, and the claim is dropped if it
+ * rolled back, so a write that failed at commit is never replayed as done; should storing the
+ * response fail, the pending claim runs out its lease. A retry with a key whose write already
+ * completed gets the stored response back without
+ * running the write again. A retry arriving while another attempt holds the key waits for that
+ * attempt's response and gets a conflict if it doesn't come in time. Failures are not stored, so
+ * a request that failed can be retried with the same key. Reusing a key for a different request
+ * is rejected.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Component
+public class IdempotencyGuard {
+    public static final String HEADER = "Idempotency-Key";
+    private static final int MAX_KEY_LENGTH = 200;
+    private static final long WAIT_MILLIS = 5_000;
+    private static final long POLL_MILLIS = 50;
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyGuard.class);
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Duration lease;
+
+    public IdempotencyGuard(IdempotencyStore store, ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                            @Value("${spring.idempotency.ttl_seconds:86400}") long ttlSeconds,
+                            @Value("${spring.idempotency.lease_seconds:60}") long leaseSeconds) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+    }
+
+    /**
+     * @param key       the client's idempotency key; without one the write simply runs
+     * @param operation names the write and its path variables, e.g. {@code "cheque.save:1/2"}
+     * @param request   the request body, part of the fingerprint a replay must match
+     */
+    public <T> T execute(String key, String operation, Object request, Class<T> type, Supplier<T> write) {
+        if (key == null || key.isBlank()) {
+            return write.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(String.format("%s must not be longer than %d characters", HEADER, MAX_KEY_LENGTH));
+        }
+        String storeKey = principal() + ':' + key;
+        String fingerprint = fingerprint(operation, request);
+
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        Optional<StoredResponse> held;
+        while ((held = store.claim(storeKey, fingerprint, lease)).isPresent()) {
+            StoredResponse stored = held.get();
+            if (!stored.pending() || !stored.fingerprint().equals(fingerprint)) {
+                return replay(key, stored, fingerprint, type);
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                throw new AlreadyExistException(String.format("A request with %s %s is still running", HEADER, key));
+            }
+            pause();
+        }
+        Completion completion = new Completion(storeKey, fingerprint);
+        try {
+            return transactionTemplate.execute(status -> {
+                TransactionSynchronizationManager.registerSynchronization(completion);
+                completion.registered = true;
+                T result = write.get();
+                completion.body = serialize(result);
+                return result;
+            });
+        } catch (RuntimeException e) {
+            // the transaction never started, so no synchronization will give the key back
+            if (!completion.registered) {
+                store.release(storeKey);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Stores the response after the write commits and drops the claim after it rolls back. An
+     * outcome the transaction manager can't tell leaves the claim to run out its lease.
+     */
+    private final class Completion implements TransactionSynchronization {
+        private final String storeKey;
+        private final String fingerprint;
+        private boolean registered;
+        private String body;
+
+        private Completion(String storeKey, String fingerprint) {
+            this.storeKey = storeKey;
+            this.fingerprint = fingerprint;
+        }
+
+        @Override
+        public void afterCommit() {
+            try {
+                store.complete(storeKey, new StoredResponse(fingerprint, body), ttl);
+            } catch (RuntimeException e) {
+                // the write is committed; failing its response now would only invite a second one
+                log.warn("Response for idempotency key {} was not stored: {}", storeKey, e.getMessage());
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status == STATUS_ROLLED_BACK) {
+                store.release(storeKey);
+            }
+        }
+    }
+
+    private <T> T replay(String key, StoredResponse stored, String fingerprint, Class<T> type) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            throw new BadRequestException(String.format("%s %s was already used for a different request", HEADER, key));
+        }
+        try {
+            return objectMapper.readValue(stored.body(), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String serialize(Object result) {
+        try {
+            return objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(POLL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+    private String fingerprint(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String principal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? "anonymous" : authentication.getName();
+    }
+}
@@ -0,0 +1,37 @@
+package peaksoft.idempotency;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Where {@link IdempotencyGuard} claims keys and keeps completed responses. The in-memory store is
+ * used unless {@code spring.idempotency.store=jdbc} selects the shared table, which is needed once
+ * more than one instance serves writes.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Claims the key for an attempt with a {@link StoredResponse#pending() pending} entry that
+     * expires after {@code lease}, unless a live entry already holds it.
+     *
+     * @return empty once the caller holds the key, otherwise the entry holding it
+     */
+    Optional<StoredResponse> claim(String key, String fingerprint, Duration lease);
+
+    Optional<StoredResponse> find(String key);
+
+    /**
+     * Replaces the caller's pending entry with the response, kept for {@code ttl}. Called once the
+     * write has committed, while its transaction is still bound to the thread.
+     */
+    void complete(String key, StoredResponse response, Duration ttl);
+
+    /**
+     * Drops the caller's pending entry after a failed attempt, so the key can be retried. Like
+     * {@link #complete}, may be called while the rolled back transaction is still bound.
+     */
+    void release(String key);
+}
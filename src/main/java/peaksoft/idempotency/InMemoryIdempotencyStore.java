@@ -0,0 +1,71 @@
+package peaksoft.idempotency;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * LRU map of claimed keys and stored responses bounded by {@code spring.idempotency.max_size};
+ * entries also expire after their lease or TTL.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Component
+@ConditionalOnProperty(name = "spring.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Map<String, Entry> entries;
+
+    public InMemoryIdempotencyStore(@Value("${spring.idempotency.max_size:10000}") int maxSize) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @Override
+    public synchronized Optional<StoredResponse> claim(String key, String fingerprint, Duration lease) {
+        Optional<StoredResponse> held = find(key);
+        if (held.isEmpty()) {
+            entries.put(key, new Entry(StoredResponse.pending(fingerprint), System.currentTimeMillis() + lease.toMillis()));
+        }
+        return held;
+    }
+
+    @Override
+    public synchronized Optional<StoredResponse> find(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (entry.expiresAt() < System.currentTimeMillis()) {
+            entries.remove(key);
+            return Optional.empty();
+        }
+        return Optional.of(entry.response());
+    }
+
+    @Override
+    public synchronized void complete(String key, StoredResponse response, Duration ttl) {
+        entries.put(key, new Entry(response, System.currentTimeMillis() + ttl.toMillis()));
+    }
+
+    @Override
+    public synchronized void release(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.response().pending()) {
+            entries.remove(key);
+        }
+    }
+
+    private record Entry(StoredResponse response, long expiresAt) {
+    }
+}
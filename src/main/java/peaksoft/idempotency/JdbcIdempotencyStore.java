@@ -0,0 +1,100 @@
+package peaksoft.idempotency;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps claims and responses in the {@code idempotency_keys} table so every instance sees the same
+ * keys. A key is claimed by inserting a pending row, so of two instances racing for it only one
+ * insert wins; the row gets its response once the write has committed. The write's finished
+ * transaction still holds its connection then, so responses and releases are written in a
+ * transaction of their own. Expired rows are ignored on read, overwritten on reuse and purged at
+ * most once a minute.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Component
+@ConditionalOnProperty(name = "spring.idempotency.store", havingValue = "jdbc")
+public class JdbcIdempotencyStore implements IdempotencyStore {
+    private static final long PURGE_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate ownTransaction;
+    private final AtomicLong nextPurge = new AtomicLong();
+
+    public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    public void createTable() {
+        jdbcTemplate.execute("""
+                create table if not exists idempotency_keys (
+                    key varchar(300) primary key,
+                    fingerprint varchar(64) not null,
+                    response text,
+                    expires_at timestamp not null
+                )""");
+        // pending claims have no response yet
+        jdbcTemplate.execute("alter table idempotency_keys alter column response drop not null");
+    }
+
+    @Override
+    public Optional<StoredResponse> claim(String key, String fingerprint, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        int claimed = jdbcTemplate.update("""
+                        insert into idempotency_keys (key, fingerprint, response, expires_at) values (?, ?, null, ?)
+                        on conflict (key) do update
+                        set fingerprint = excluded.fingerprint, response = null, expires_at = excluded.expires_at
+                        where idempotency_keys.expires_at <= ?""",
+                key, fingerprint, Timestamp.valueOf(now.plus(lease)), Timestamp.valueOf(now));
+
+        long millis = System.currentTimeMillis();
+        long due = nextPurge.get();
+        if (millis >= due && nextPurge.compareAndSet(due, millis + PURGE_INTERVAL_MILLIS)) {
+            jdbcTemplate.update("delete from idempotency_keys where expires_at <= ?", Timestamp.valueOf(now));
+        }
+        if (claimed == 1) {
+            return Optional.empty();
+        }
+        // the holder may have released the key since the insert lost; then claim it again
+        return find(key).or(() -> claim(key, fingerprint, lease));
+    }
+
+    @Override
+    public Optional<StoredResponse> find(String key) {
+        return jdbcTemplate.query("select fingerprint, response from idempotency_keys where key = ? and expires_at > ?",
+                        (rs, rowNum) -> new StoredResponse(rs.getString(1), rs.getString(2)),
+                        key, Timestamp.valueOf(LocalDateTime.now()))
+                .stream().findFirst();
+    }
+
+    @Override
+    public void complete(String key, StoredResponse response, Duration ttl) {
+        LocalDateTime now = LocalDateTime.now();
+        ownTransaction.executeWithoutResult(status -> jdbcTemplate.update(
+                "update idempotency_keys set response = ?, expires_at = ? where key = ? and fingerprint = ?",
+                response.body(), Timestamp.valueOf(now.plus(ttl)), key, response.fingerprint()));
+    }
+
+    @Override
+    public void release(String key) {
+        ownTransaction.executeWithoutResult(status ->
+                jdbcTemplate.update("delete from idempotency_keys where key = ? and response is null", key));
+    }
+}
@@ -0,0 +1,21 @@
+package peaksoft.idempotency;
+
+/**
+ * A write kept for replays: the fingerprint of the request that produced it and the response
+ * serialized as JSON, or no body while the write is still running.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public record StoredResponse(
+        String fingerprint,
+        String body
+) {
+    public static StoredResponse pending(String fingerprint) {
+        return new StoredResponse(fingerprint, null);
+    }
+
+    public boolean pending() {
+        return body == null;
+    }
+}
@@ -0,0 +1,70 @@
+package peaksoft.pagination;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import peaksoft.dto.responses.CursorPageResponse;
+import peaksoft.exeption.BadRequestException;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Helpers for keyset pagination. Queries fetch one row more than the page size; the extra
+ * row only tells whether a next page exists, so no {@code count(*)} is needed.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public final class CursorPages {
+    public static final int MAX_SIZE = 200;
+
+    private CursorPages() {
+    }
+
+    /**
+     * @return a limit of {@code size + 1} rows starting at the first row
+     */
+    public static Pageable probe(int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new BadRequestException(String.format("Size must be between 1 and %d", MAX_SIZE));
+        }
+        return PageRequest.of(0, size + 1);
+    }
+
+    public static <T> CursorPageResponse<T> page(List<T> probed, int size, Function<T, PageCursor> cursorOf, Long total) {
+        boolean hasNext = probed.size() > size;
+        List<T> content = hasNext ? probed.subList(0, size) : probed;
+        return CursorPageResponse.<T>builder()
+                .content(List.copyOf(content))
+                .nextCursor(hasNext ? cursorOf.apply(content.get(content.size() - 1)).encode() : null)
+                .hasNext(hasNext)
+                .total(total)
+                .build();
+    }
+
+    /**
+     * Keyset page over a list already sorted by {@code order}; the start is found by binary
+     * search, so every page costs the same.
+     */
+    public static <T> CursorPageResponse<T> page(List<T> sorted, Comparator<PageCursor> order, Function<T, PageCursor> cursorOf,
+                                                 PageCursor after, int size, boolean withTotal) {
+        probe(size);
+        int from = 0;
+        if (after != null) {
+            int low = 0;
+            int high = sorted.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (order.compare(cursorOf.apply(sorted.get(mid)), after) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            from = low;
+        }
+        int to = Math.min(sorted.size(), from + size + 1);
+        return page(sorted.subList(from, to), size, cursorOf, withTotal ? (long) sorted.size() : null);
+    }
+}
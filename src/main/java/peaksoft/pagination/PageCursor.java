@@ -0,0 +1,43 @@
+package peaksoft.pagination;
+
+import peaksoft.exeption.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a keyset page: the value of the sort column and the id that
+ * breaks ties on it. Clients only see it as an opaque continuation token.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public record PageCursor(String key, long id) {
+    private static final String VERSION = "1";
+
+    public String encode() {
+        // a value is prefixed with 'v' so that a null key and an empty one stay distinct
+        String raw = VERSION + '|' + id + '|' + (key == null ? "" : "v" + key);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the decoded cursor, or {@code null} for a missing token (first page)
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new BadRequestException("Invalid page cursor");
+            }
+            String key = parts[2].isEmpty() ? null : parts[2].substring(1);
+            return new PageCursor(key, Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid page cursor");
+        }
+    }
+}
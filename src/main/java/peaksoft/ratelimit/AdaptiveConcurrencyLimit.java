@@ -0,0 +1,76 @@
+package peaksoft.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limit on requests in flight, adjusted additive-increase/multiplicative-decrease: a request
+ * slower than the target latency cuts the limit by 10% (at most once per target interval, so one
+ * slow burst doesn't collapse it), a fast one raises it by one while the limit is actually in use.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public class AdaptiveConcurrencyLimit {
+    private static final double BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetNanos;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong lastDecrease = new AtomicLong(System.nanoTime());
+    private final AtomicLong shed = new AtomicLong();
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long targetNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetNanos = targetNanos;
+        this.limit = new AtomicInteger(Math.min(maxLimit, Math.max(minLimit, initialLimit)));
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                shed.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param latencyNanos how long the request took, or a negative value when it says nothing
+     *                     about the backend (an asynchronous request that has only started)
+     */
+    public void release(long latencyNanos) {
+        int current = inFlight.getAndDecrement();
+        if (latencyNanos < 0) {
+            return;
+        }
+        if (latencyNanos > targetNanos) {
+            long now = System.nanoTime();
+            long last = lastDecrease.get();
+            if (now - last >= targetNanos && lastDecrease.compareAndSet(last, now)) {
+                limit.updateAndGet(value -> Math.max(minLimit, (int) (value * BACKOFF)));
+            }
+        } else if (current * 2 >= limit.get()) {
+            limit.updateAndGet(value -> Math.min(maxLimit, value + 1));
+        }
+    }
+
+    public int limit() {
+        return limit.get();
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public long shed() {
+        return shed.get();
+    }
+}
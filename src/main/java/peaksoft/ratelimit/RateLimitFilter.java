@@ -0,0 +1,131 @@
+package peaksoft.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import peaksoft.cache.MenuCatalog;
+import peaksoft.config.jwt.AuthenticatedPrincipal;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Runs right after {@link peaksoft.config.jwt.JwtFilter}. Each request takes a token from the
+ * bucket of its restaurant and client, reads and writes from separate tiers, and an empty bucket
+ * answers {@code 429} with {@code Retry-After}. An authenticated client is keyed by its user and
+ * the restaurant it works at, both from the principal; an anonymous one by its address and, on
+ * the menu search, by the {@code restId} it asks for once that is known to be a restaurant, so
+ * neither can get a fresh bucket by changing an id in the request.
+ * <p>
+ * With {@code spring.rate_limit.concurrency.enabled} the short database-bound requests also need
+ * a slot under the {@link AdaptiveConcurrencyLimit} of their tier, which shrinks while they get
+ * slower than the target latency; without a slot the request is shed with {@code 503}. Streams,
+ * imports, exports, reports and metrics take long by design and are left out of it.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final String SEARCH = "/api/menu/search";
+    private static final String RESTAURANT_PARAM = "restId";
+    private static final List<String> BULK_ROUTES = List.of(
+            "/api/menu/stream/**",
+            "/api/kitchen/stream/**",
+            "/api/menu/import/**",
+            "/api/menu/export/**",
+            "/api/analytics/**",
+            "/api/cheques/archive/**",
+            "/api/**/metrics");
+
+    private final RateLimiter rateLimiter;
+    private final MenuCatalog menuCatalog;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public RateLimitFilter(RateLimiter rateLimiter, MenuCatalog menuCatalog) {
+        this.rateLimiter = rateLimiter;
+        this.menuCatalog = menuCatalog;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !rateLimiter.isEnabled() || !path(request).startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        boolean write = !HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod());
+        long waitNanos = rateLimiter.tryAcquire(key(request), write);
+        if (waitNanos > 0) {
+            response.setHeader(HttpHeaders.RETRY_AFTER,
+                    String.valueOf((waitNanos + 999_999_999) / 1_000_000_000));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Too many requests, retry later");
+            return;
+        }
+        AdaptiveConcurrencyLimit concurrency = isBulk(request) ? null : rateLimiter.concurrency(write);
+        if (concurrency == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!concurrency.tryAcquire()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Server is busy, retry later");
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // a started asynchronous request says nothing about how fast the backend is
+            concurrency.release(request.isAsyncStarted() ? -1 : System.nanoTime() - started);
+        }
+    }
+
+    private String key(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getDetails() instanceof AuthenticatedPrincipal principal) {
+            return "restaurant:" + (principal.restaurantId() != null ? principal.restaurantId() : "-")
+                    + "/user:" + principal.id();
+        }
+        Long restaurantId = requestedRestaurant(request);
+        return "restaurant:" + (restaurantId != null ? restaurantId : "-") + "/ip:" + request.getRemoteAddr();
+    }
+
+    private Long requestedRestaurant(HttpServletRequest request) {
+        // a query parameter only, and only on a GET: reading one from a POST could consume a form body
+        if (!HttpMethod.GET.matches(request.getMethod()) || !SEARCH.equals(path(request))) {
+            return null;
+        }
+        String restId = request.getParameter(RESTAURANT_PARAM);
+        if (restId == null) {
+            return null;
+        }
+        try {
+            Long id = Long.valueOf(restId);
+            return menuCatalog.current().hasRestaurant(id) ? id : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private boolean isBulk(HttpServletRequest request) {
+        String path = path(request);
+        return BULK_ROUTES.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
@@ -0,0 +1,14 @@
+package peaksoft.ratelimit;
+
+/**
+ * Sustained rate and burst size of one class of requests.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public record RateLimitTier(
+        String name,
+        double permitsPerSecond,
+        int burst
+) {
+}
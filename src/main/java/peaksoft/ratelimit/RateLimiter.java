@@ -0,0 +1,157 @@
+package peaksoft.ratelimit;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import peaksoft.dto.responses.RateLimitConcurrencyResponse;
+import peaksoft.dto.responses.RateLimitKeyResponse;
+import peaksoft.dto.responses.RateLimitMetricsResponse;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token buckets per client key, one tier for reads and one for writes, plus an opt-in
+ * ({@code spring.rate_limit.concurrency.enabled}) adaptive limit on requests in flight per tier
+ * that is shared by all clients. Buckets that have refilled completely are dropped every minute,
+ * so the per-key metrics cover the clients active in the last minute. A new key past
+ * {@code max_keys} buckets makes room by evicting the buckets closest to full: forgetting a bucket
+ * only hands its client a fresh burst, so a flood of new keys can't throttle the clients already
+ * tracked.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Component
+public class RateLimiter {
+    private final boolean enabled;
+    private final int maxKeys;
+    private final RateLimitTier readTier;
+    private final RateLimitTier writeTier;
+    private final AdaptiveConcurrencyLimit readConcurrency;
+    private final AdaptiveConcurrencyLimit writeConcurrency;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService cleanup = Executors.newSingleThreadScheduledExecutor(daemonThread());
+
+    public RateLimiter(@Value("${spring.rate_limit.enabled:true}") boolean enabled,
+                       @Value("${spring.rate_limit.max_keys:10000}") int maxKeys,
+                       @Value("${spring.rate_limit.read.per_second:20}") double readPerSecond,
+                       @Value("${spring.rate_limit.read.burst:40}") int readBurst,
+                       @Value("${spring.rate_limit.write.per_second:5}") double writePerSecond,
+                       @Value("${spring.rate_limit.write.burst:10}") int writeBurst,
+                       @Value("${spring.rate_limit.concurrency.enabled:false}") boolean concurrencyEnabled,
+                       @Value("${spring.rate_limit.concurrency.initial:50}") int initialConcurrency,
+                       @Value("${spring.rate_limit.concurrency.min:10}") int minConcurrency,
+                       @Value("${spring.rate_limit.concurrency.max:200}") int maxConcurrency,
+                       @Value("${spring.rate_limit.concurrency.latency_ms:500}") long targetLatencyMillis) {
+        this.enabled = enabled;
+        this.maxKeys = maxKeys;
+        this.readTier = new RateLimitTier("read", readPerSecond, readBurst);
+        this.writeTier = new RateLimitTier("write", writePerSecond, writeBurst);
+        this.readConcurrency = concurrencyEnabled ? new AdaptiveConcurrencyLimit(initialConcurrency, minConcurrency,
+                maxConcurrency, TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis)) : null;
+        this.writeConcurrency = concurrencyEnabled ? new AdaptiveConcurrencyLimit(initialConcurrency, minConcurrency,
+                maxConcurrency, TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis)) : null;
+        cleanup.scheduleWithFixedDelay(this::dropFullBuckets, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() {
+        cleanup.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return 0 if the request may go ahead, otherwise how many nanos the client should wait
+     */
+    public long tryAcquire(String key, boolean write) {
+        RateLimitTier tier = write ? writeTier : readTier;
+        long now = System.nanoTime();
+        String bucketKey = tier.name() + ":" + key;
+        TokenBucket bucket = buckets.get(bucketKey);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                makeRoom(now);
+            }
+            bucket = buckets.computeIfAbsent(bucketKey, k -> new TokenBucket(tier, now));
+        }
+        return bucket.tryAcquire(now);
+    }
+
+    /**
+     * @return the limit on requests in flight of the tier, or {@code null} when there is none
+     */
+    public AdaptiveConcurrencyLimit concurrency(boolean write) {
+        return write ? writeConcurrency : readConcurrency;
+    }
+
+    public RateLimitMetricsResponse metrics() {
+        long now = System.nanoTime();
+        return RateLimitMetricsResponse.builder()
+                .concurrency(readConcurrency == null ? List.of() : List.of(
+                        concurrency(readTier, readConcurrency), concurrency(writeTier, writeConcurrency)))
+                .keys(buckets.entrySet().stream()
+                        .sorted(Comparator.comparingLong((Map.Entry<String, TokenBucket> entry) -> entry.getValue().rejected())
+                                .reversed())
+                        .map(entry -> RateLimitKeyResponse.builder()
+                                .key(entry.getKey().substring(entry.getValue().tier().name().length() + 1))
+                                .tier(entry.getValue().tier().name())
+                                .permitsPerSecond(entry.getValue().tier().permitsPerSecond())
+                                .burst(entry.getValue().tier().burst())
+                                .available(entry.getValue().available(now))
+                                .allowed(entry.getValue().allowed())
+                                .rejected(entry.getValue().rejected())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    private static RateLimitConcurrencyResponse concurrency(RateLimitTier tier, AdaptiveConcurrencyLimit limit) {
+        return RateLimitConcurrencyResponse.builder()
+                .tier(tier.name())
+                .limit(limit.limit())
+                .inFlight(limit.inFlight())
+                .shed(limit.shed())
+                .build();
+    }
+
+    private void dropFullBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    /**
+     * Drops the full buckets and, if that isn't enough, a tenth of the cap from those that will be
+     * full soonest, so the sort is paid once per many new keys rather than for each.
+     */
+    private synchronized void makeRoom(long now) {
+        if (buckets.size() < maxKeys) {
+            return;
+        }
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+        if (buckets.size() < maxKeys) {
+            return;
+        }
+        buckets.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, TokenBucket> entry) -> entry.getValue().fullAt()))
+                .limit(Math.max(1, maxKeys / 10))
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(buckets::remove);
+    }
+
+    private static CustomizableThreadFactory daemonThread() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("rate-limit-cleanup-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+}
@@ -0,0 +1,75 @@
+package peaksoft.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket. Instead of a token count it keeps the time at which the bucket will be
+ * full again (the generic cell rate algorithm), so taking a token is a single compare-and-set.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public class TokenBucket {
+    private final RateLimitTier tier;
+    private final long nanosPerToken;
+    private final long capacityNanos;
+    private final AtomicLong fullAt;
+    private final AtomicLong allowed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public TokenBucket(RateLimitTier tier, long now) {
+        this.tier = tier;
+        this.nanosPerToken = Math.max(1, Math.round(1_000_000_000d / tier.permitsPerSecond()));
+        this.capacityNanos = nanosPerToken * tier.burst();
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Takes a token at {@code now} (nanos).
+     *
+     * @return 0 if the token was taken, otherwise how many nanos until one is available
+     */
+    public long tryAcquire(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + nanosPerToken;
+            long overdraft = next - now - capacityNanos;
+            if (overdraft > 0) {
+                rejected.incrementAndGet();
+                return overdraft;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                allowed.incrementAndGet();
+                return 0;
+            }
+        }
+    }
+
+    public int available(long now) {
+        long used = Math.max(0, fullAt.get() - now);
+        return (int) ((capacityNanos - used) / nanosPerToken);
+    }
+
+    public boolean isFull(long now) {
+        return fullAt.get() <= now;
+    }
+
+    /**
+     * @return the time (nanos) at which the bucket is full again
+     */
+    public long fullAt() {
+        return fullAt.get();
+    }
+
+    public RateLimitTier tier() {
+        return tier;
+    }
+
+    public long allowed() {
+        return allowed.get();
+    }
+
+    public long rejected() {
+        return rejected.get();
+    }
+}
@@ -25,4 +25,16 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
 
     Page<CategoryResponse> findAllBy(Pageable pageable);
 
+    Optional<Category> findFirstByNameIgnoreCase(String name);
+
+    @Query("select new peaksoft.dto.responses.CategoryResponse(c.id, c.name) from Category c order by coalesce(c.name, ''), c.id")
+    List<CategoryResponse> findFirstPage(Pageable limit);
+
+    /**
+     * Native, so the page condition is a single row-value comparison on the key of
+     * {@code idx_categories_name_key_id}, see {@link Category}.
+     */
+    @Query(name = "Category.findPageAfter", nativeQuery = true)
+    List<CategoryResponse> findPageAfter(String name, Long id, Pageable limit);
+
 }
\ No newline at end of file
@@ -1,9 +1,52 @@
 package peaksoft.repositories;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import peaksoft.dto.responses.ChequeClientKeyResponse;
+import peaksoft.dto.responses.ChequeLineRowResponse;
+import peaksoft.dto.responses.ChequeResponse;
 import peaksoft.entity.Cheque;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 public interface ChequeRepository extends JpaRepository<Cheque, Long> {
 
+    @EntityGraph("Cheque.details")
+    List<Cheque> findAllByUserId(Long userId);
+
+    @EntityGraph("Cheque.details")
+    Optional<Cheque> findDetailsById(Long chequeId);
+
+    // bumps the version on commit even when only the lines change, so concurrent edits conflict
+    @EntityGraph("Cheque.details")
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("select c from Cheque c where c.id = ?1")
+    Optional<Cheque> findForUpdateById(Long chequeId);
+
+    @Query(value = "select new peaksoft.dto.responses.ChequeResponse(c.id, c.version, u.firstName, u.lastName, r.service, " +
+                   "c.subtotal, c.serviceCharge, c.grandTotal, c.createdAd) " +
+                   "from Cheque c join c.user u join u.restaurant r " +
+                   "where u.id = ?1 and c.createdAd between ?2 and ?3 order by c.createdAd desc, c.id desc",
+           countQuery = "select count(c) from Cheque c where c.user.id = ?1 and c.createdAd between ?2 and ?3")
+    Page<ChequeResponse> findHeaders(Long waiterId, LocalDate from, LocalDate to, Pageable pageable);
+
+    @Query("select new peaksoft.dto.responses.ChequeLineRowResponse(l.cheque.id, m.id, m.name, l.quantity, l.unitPrice, l.lineTotal) " +
+           "from ChequeLine l join l.menuItem m where l.cheque.id in ?1 order by l.id")
+    List<ChequeLineRowResponse> findLineRows(Collection<Long> chequeIds);
+
+    @Query("select new peaksoft.dto.responses.ChequeClientKeyResponse(c.clientKey, c.id) from Cheque c " +
+           "where c.user.id = ?1 and c.clientKey in ?2")
+    List<ChequeClientKeyResponse> findClientKeys(Long waiterId, Collection<String> clientKeys);
 
-}
\ No newline at end of file
+    // held until the transaction ends; a partitioned cheques table can only keep client keys unique per day
+    @Query(value = "select 1 from pg_advisory_xact_lock(?1)", nativeQuery = true)
+    Integer lockClientKeys(Long waiterId);
+}
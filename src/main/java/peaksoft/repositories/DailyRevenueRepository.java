@@ -0,0 +1,23 @@
+package peaksoft.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import peaksoft.entity.DailyRevenue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface DailyRevenueRepository extends JpaRepository<DailyRevenue, Long> {
+
+    @Modifying
+    @Query(value = "insert into daily_revenues (waiter_id, restaurant_id, day, cheque_count, revenue)" +
+                   " values (?1, ?2, ?3, ?4, ?5)" +
+                   " on conflict (waiter_id, day, restaurant_id) do update" +
+                   " set cheque_count = daily_revenues.cheque_count + excluded.cheque_count," +
+                   " revenue = daily_revenues.revenue + excluded.revenue", nativeQuery = true)
+    void addRevenue(Long waiterId, Long restaurantId, LocalDate day, int chequeCount, BigDecimal revenue);
+
+    @Query("select coalesce(sum(d.revenue), 0) from DailyRevenue d where d.waiterId=?1 and d.day between ?2 and ?3")
+    BigDecimal sumRevenue(Long waiterId, LocalDate from, LocalDate to);
+}
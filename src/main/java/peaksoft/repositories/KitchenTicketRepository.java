@@ -0,0 +1,30 @@
+package peaksoft.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import peaksoft.entity.KitchenTicket;
+import peaksoft.enums.TicketStatus;
+import peaksoft.stream.KitchenTicketLineRow;
+import peaksoft.stream.KitchenTicketRow;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface KitchenTicketRepository extends JpaRepository<KitchenTicket, Long> {
+
+    Optional<KitchenTicket> findByCheque_Id(Long chequeId);
+
+    @Query("select new peaksoft.stream.KitchenTicketRow(t.id, t.cheque.id, t.restaurantId, t.status, t.createdAt, t.cookingAt, t.readyAt) " +
+           "from KitchenTicket t where t.id in ?1")
+    List<KitchenTicketRow> findRowsByIds(Collection<Long> ticketIds);
+
+    @Query("select new peaksoft.stream.KitchenTicketRow(t.id, t.cheque.id, t.restaurantId, t.status, t.createdAt, t.cookingAt, t.readyAt) " +
+           "from KitchenTicket t where t.restaurantId = ?1 and t.status in ?2 order by t.createdAt, t.id")
+    List<KitchenTicketRow> findRowsByRestaurant(Long restId, Collection<TicketStatus> statuses);
+
+    @Query("select new peaksoft.stream.KitchenTicketLineRow(t.id, m.id, m.name, l.quantity) " +
+           "from KitchenTicket t join t.cheque c join c.chequeLines l join l.menuItem m " +
+           "where t.id in ?1 order by l.id")
+    List<KitchenTicketLineRow> findLineRows(Collection<Long> ticketIds);
+}
@@ -1,16 +1,27 @@
 package peaksoft.repositories;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import peaksoft.cache.CatalogItemRow;
 import peaksoft.dto.responses.ManuResponse;
-import peaksoft.dto.responses.MenuItemResponseSearch;
+import peaksoft.dto.responses.MenuItemPriceResponse;
 import peaksoft.entity.MenuItem;
+import peaksoft.search.MenuSearchRow;
+import peaksoft.transfer.MenuTransferRow;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
     @Query("select new peaksoft.dto.responses.ManuResponse(m.id, m.name, m.image, m.price, m.description, m.isVegetarian)" +
@@ -24,11 +35,36 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
            " from MenuItem m where m.id=?1")
     Optional<ManuResponse> findByMenuId(Long menuId);
 
-    @Query("SELECT new peaksoft.dto.responses.MenuItemResponseSearch(c.name,s.name,m.name,m.image,m.price) " +
-           "FROM MenuItem  m join  m.subCategory s join s.category c where " +
-           "(m.name ILIKE %:keyWord% OR c.name ILIKE %:keyWord% OR s.name ILIKE %:keyWord%)")
-    List<MenuItemResponseSearch> search(String keyWord);
+    @Query("SELECT new peaksoft.search.MenuSearchRow(m.restaurant.id, m.id, c.name, s.name, m.name, m.image, m.price) " +
+           "FROM MenuItem  m join  m.subCategory s join s.category c")
+    List<MenuSearchRow> findSearchRows();
 
+    @Query("select new peaksoft.cache.CatalogItemRow(m.id, m.restaurant.id, s.id, m.name, m.image, m.price, m.description, m.isVegetarian, " +
+           "(select count(sl.id) from StopList sl where sl.menuItem = m and sl.startsAt <= ?1 and sl.endsAt > ?1)) " +
+           "from MenuItem m left join m.subCategory s")
+    List<CatalogItemRow> findCatalogRows(LocalDateTime now);
+
+    @Query("select new peaksoft.cache.CatalogItemRow(m.id, m.restaurant.id, s.id, m.name, m.image, m.price, m.description, m.isVegetarian, " +
+           "(select count(sl.id) from StopList sl where sl.menuItem = m and sl.startsAt <= ?2 and sl.endsAt > ?2)) " +
+           "from MenuItem m left join m.subCategory s where m.restaurant.id = ?1")
+    List<CatalogItemRow> findCatalogRowsByRestaurant(Long restId, LocalDateTime now);
+
+
+    @Query("select new peaksoft.dto.responses.MenuItemPriceResponse(m.id, m.price)" +
+           " from MenuItem m where m.restaurant.id=?1 and m.id in ?2")
+    List<MenuItemPriceResponse> findPricesByRestaurant(Long restId, Collection<Long> menuIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select m from MenuItem m where m.id = ?1")
+    Optional<MenuItem> lockById(Long menuItemId);
 
     Page<ManuResponse> findAllBySubCategory_Id(Long subId, Pageable pageable);
+
+    @Query("select m from MenuItem m where m.restaurant.id = ?1 and lower(m.name) in ?2")
+    List<MenuItem> findAllByRestaurantAndLowerNames(Long restId, Collection<String> names);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new peaksoft.transfer.MenuTransferRow(c.name, s.name, m.name, m.image, m.price, m.description, m.isVegetarian) " +
+           "from MenuItem m left join m.subCategory s left join s.category c where m.restaurant.id = ?1 order by c.name, s.name, m.name")
+    Stream<MenuTransferRow> streamTransferRows(Long restId);
 }
\ No newline at end of file
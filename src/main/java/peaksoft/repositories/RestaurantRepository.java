@@ -11,7 +11,7 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
     @Query("select new peaksoft.dto.responses.RestaurantResponse(r.id, r.name, r.location, r.restType,r.numberOfEmployees, r.service) from Restaurant r")
     List<RestaurantResponse> findAllRestaurants();
 
-    @Query("select new peaksoft.dto.responses.RestaurantResponse(r.id, r.name, r.location, r.restType,r.numberOfEmployees, r.service) from Restaurant r")
+    @Query("select new peaksoft.dto.responses.RestaurantResponse(r.id, r.name, r.location, r.restType,r.numberOfEmployees, r.service) from Restaurant r where r.id = ?1")
     RestaurantResponse findRestaurantById(Long restId);
 
 
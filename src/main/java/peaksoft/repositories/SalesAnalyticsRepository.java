@@ -0,0 +1,87 @@
+package peaksoft.repositories;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import peaksoft.enums.AnalyticsGranularity;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Sales aggregates of one restaurant, computed by PostgreSQL in a single statement. Each
+ * {@code union all} branch is one breakdown: revenue per period and per waiter comes from the
+ * stored cheque grand totals (service included), revenue per category and per menu item from
+ * the line totals.
+ */
+@Repository
+public class SalesAnalyticsRepository {
+    private static final String CHEQUES = """
+            from cheques c
+            join users u on u.id = c.user_id
+            where u.restaurant_id = :restId and c.created_ad between :from and :to""";
+    private static final String LINES = """
+            from cheques c
+            join users u on u.id = c.user_id
+            join cheque_lines l on l.cheque_id = c.id
+            join menu_items m on m.id = l.menu_item_id
+            left join sub_categories sc on sc.id = m.sub_category_id
+            left join categories cat on cat.id = sc.category_id
+            where u.restaurant_id = :restId and c.created_ad between :from and :to""";
+    private static final String SALES = """
+            select 'PERIOD' as dimension, cast(date_trunc(:grain, cast(c.created_ad as timestamp)) as date) as period,
+                   cast(null as bigint) as id, cast(null as varchar) as name,
+                   count(*) as cheques, cast(null as bigint) as quantity, coalesce(sum(c.grand_total), 0) as revenue
+            """ + CHEQUES + """
+             group by 2
+            union all
+            select 'WAITER', null, u.id, concat_ws(' ', u.first_name, u.last_name),
+                   count(*), null, coalesce(sum(c.grand_total), 0)
+            """ + CHEQUES + """
+             group by u.id, u.first_name, u.last_name
+            union all
+            select 'CATEGORY', null, cat.id, cat.name,
+                   count(distinct c.id), sum(l.quantity), coalesce(sum(l.line_total), 0)
+            """ + LINES + """
+             group by cat.id, cat.name
+            union all
+            select 'MENU_ITEM', null, m.id, m.name,
+                   count(distinct c.id), sum(l.quantity), coalesce(sum(l.line_total), 0)
+            """ + LINES + """
+             group by m.id, m.name""";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public SalesAnalyticsRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<SalesRow> findSales(Long restId, LocalDate from, LocalDate to, AnalyticsGranularity granularity) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("restId", restId)
+                .addValue("from", Date.valueOf(from))
+                .addValue("to", Date.valueOf(to))
+                .addValue("grain", granularity.name().toLowerCase());
+        return jdbcTemplate.query(SALES, params, (rs, rowNum) -> new SalesRow(
+                rs.getString("dimension"),
+                rs.getObject("period", LocalDate.class),
+                rs.getObject("id", Long.class),
+                rs.getString("name"),
+                rs.getLong("cheques"),
+                rs.getObject("quantity", Long.class),
+                rs.getBigDecimal("revenue")));
+    }
+
+    public record SalesRow(
+            String dimension,
+            LocalDate period,
+            Long id,
+            String name,
+            long cheques,
+            Long quantity,
+            BigDecimal revenue
+    ) {
+    }
+}
@@ -6,15 +6,33 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import peaksoft.dto.responses.StopListResponse;
 import peaksoft.entity.StopList;
+import peaksoft.event.StopListWindow;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface StopListRepository extends JpaRepository<StopList, Long> {
 
-    @Query("select new peaksoft.dto.responses.StopListResponse(s.id, s.menuItem.name, s.reason, s.date) from StopList s")
+    @Query("select new peaksoft.dto.responses.StopListResponse(s.id, s.menuItem.id, s.menuItem.name, s.reason, s.date, s.startsAt, s.endsAt) from StopList s")
     List<StopListResponse> findAllStopLists();
 
-    @Query("select new peaksoft.dto.responses.StopListResponse(s.id, s.menuItem.name, s.reason, s.date) from StopList s where s.id=?1")
+    @Query("select new peaksoft.dto.responses.StopListResponse(s.id, s.menuItem.id, s.menuItem.name, s.reason, s.date, s.startsAt, s.endsAt) from StopList s where s.id=?1")
     StopListResponse findByIdStopList(Long id);
 
+    @Query("select new peaksoft.dto.responses.StopListResponse(s.id, m.id, m.name, s.reason, s.date, s.startsAt, s.endsAt) " +
+           "from StopList s join s.menuItem m where m.restaurant.id = ?1 and s.startsAt < ?3 and s.endsAt > ?2")
+    List<StopListResponse> findAllByRestaurantOverlapping(Long restId, LocalDateTime from, LocalDateTime to);
+
+    @Query("select new peaksoft.event.StopListWindow(s.id, m.restaurant.id, m.id, s.startsAt, s.endsAt) " +
+           "from StopList s join s.menuItem m where s.endsAt > ?1")
+    List<StopListWindow> findWindowsEndingAfter(LocalDateTime now);
+
+    @Query("select case when count(s) > 0 then true else false end from StopList s " +
+           "where s.menuItem.id = ?1 and s.startsAt < ?3 and s.endsAt > ?2")
+    boolean existsOverlapping(Long menuItemId, LocalDateTime startsAt, LocalDateTime endsAt);
+
+    @Query("select case when count(s) > 0 then true else false end from StopList s " +
+           "where s.menuItem.id = ?1 and s.startsAt < ?3 and s.endsAt > ?2 and s.id <> ?4")
+    boolean existsOverlappingOther(Long menuItemId, LocalDateTime startsAt, LocalDateTime endsAt, Long id);
+
 }
\ No newline at end of file
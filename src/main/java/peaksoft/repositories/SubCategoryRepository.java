@@ -5,6 +5,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import peaksoft.cache.CatalogSubCategoryRow;
 import peaksoft.dto.responses.SubCategoryResponse;
 import peaksoft.entity.SubCategory;
 
@@ -24,5 +25,10 @@ public interface SubCategoryRepository extends JpaRepository<SubCategory, Long>
 
 
 
+    @Query("select new peaksoft.cache.CatalogSubCategoryRow(s.id, c.id, s.name) from SubCategory s join s.category c")
+    List<CatalogSubCategoryRow> findCatalogRows();
+
     Page<SubCategoryResponse> findAllByCategory_Id(Long categoryId, Pageable pageable);
+
+    Optional<SubCategory> findFirstByCategory_IdAndNameIgnoreCase(Long categoryId, String name);
 }
\ No newline at end of file
@@ -2,8 +2,10 @@ package peaksoft.repositories;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import peaksoft.config.jwt.AuthenticatedPrincipal;
 import peaksoft.dto.responses.ChefResponse;
 import peaksoft.dto.responses.StatementResponse;
 import peaksoft.dto.responses.WaiterResponse;
@@ -16,6 +18,17 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
+    @Query("select new peaksoft.config.jwt.AuthenticatedPrincipal(u.id, u.email, u.role, r.id) from User u left join u.restaurant r where u.id=?1")
+    Optional<AuthenticatedPrincipal> findPrincipalById(Long id);
+
+    @Query("select new peaksoft.config.jwt.AuthenticatedPrincipal(u.id, u.email, u.role, r.id) from User u left join u.restaurant r where u.email=?1")
+    Optional<AuthenticatedPrincipal> findPrincipalByEmail(String email);
+
+    @EntityGraph("User.restaurant")
+    Optional<User> findWithRestaurantById(Long id);
+
+    int countByRestaurant_Id(Long restId);
+
     boolean existsByEmail(String email);
 
     @Query("select new peaksoft.dto.responses.ChefResponse(u.id," +
@@ -50,4 +63,30 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Page<ChefResponse> findAllByRole(Role role, Pageable pageable);
 
     Page<WaiterResponse> getAllByRole(Role role, Pageable pageable);
+
+    long countByRole(Role role);
+
+    @Query("select new peaksoft.dto.responses.ChefResponse(u.id, u.firstName, u.lastName, u.dateOfBrith, u.email, u.phoneNumber, u.experience) " +
+           "from User u where u.role = ?1 order by coalesce(u.firstName, ''), u.id")
+    List<ChefResponse> findChefsFirstPage(Role role, Pageable limit);
+
+    /**
+     * Native, so the page condition is a single row-value comparison on the key of
+     * {@code idx_users_role_first_name_key_id}, see {@link User}.
+     *
+     * @param role name of the {@link Role}
+     */
+    @Query(name = "User.findChefsAfter", nativeQuery = true)
+    List<ChefResponse> findChefsAfter(String role, String firstName, Long id, Pageable limit);
+
+    @Query("select new peaksoft.dto.responses.WaiterResponse(u.id, u.firstName, u.lastName, u.dateOfBrith, u.email, u.phoneNumber, u.experience) " +
+           "from User u where u.role = ?1 order by coalesce(u.firstName, ''), u.id")
+    List<WaiterResponse> findWaitersFirstPage(Role role, Pageable limit);
+
+    /**
+     * @param role name of the {@link Role}
+     * @see #findChefsAfter
+     */
+    @Query(name = "User.findWaitersAfter", nativeQuery = true)
+    List<WaiterResponse> findWaitersAfter(String role, String firstName, Long id, Pageable limit);
 }
\ No newline at end of file
@@ -0,0 +1,219 @@
+package peaksoft.search;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import peaksoft.dto.responses.MenuItemResponseSearch;
+import peaksoft.event.MenuChangedEvent;
+import peaksoft.repositories.MenuItemRepository;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index over menu item, sub-category and category names.
+ * <p>
+ * A query token matches an indexed term exactly, as a prefix, or (for tokens of four or more
+ * characters) with a single typo. Every query token has to match; documents are ranked by
+ * how well and in which field they matched. The index is rebuilt lazily with one projection
+ * query after any {@link MenuChangedEvent}. Each restaurant has a partition of its own, terms
+ * and postings included, so a search within one restaurant scores and typo-scans only that
+ * restaurant's menu; a search across restaurants uses the partition over all of them.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Component
+public class MenuSearchIndex {
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int SUB_CATEGORY_WEIGHT = 2;
+    private static final int CATEGORY_WEIGHT = 1;
+
+    private static final int EXACT = 3;
+    private static final int PREFIX = 2;
+    private static final int TYPO = 1;
+    private static final int MIN_TYPO_LENGTH = 4;
+
+    private final MenuItemRepository menuItemRepository;
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    public MenuSearchIndex(MenuItemRepository menuItemRepository) {
+        this.menuItemRepository = menuItemRepository;
+    }
+
+    public List<MenuItemResponseSearch> search(String keyWord, Long restId, int page, int size) {
+        List<String> tokens = tokenize(keyWord);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        Snapshot current = snapshot();
+        Partition partition = restId == null ? current.all : current.byRestaurant.get(restId);
+        if (partition == null) {
+            return List.of();
+        }
+
+        Map<Integer, Integer> scores = null;
+        for (String token : tokens) {
+            Map<Integer, Integer> tokenScores = partition.match(token);
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                scores.keySet().retainAll(tokenScores.keySet());
+                scores.replaceAll((doc, score) -> score + tokenScores.get(doc));
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        Comparator<Map.Entry<Integer, Integer>> ranking = Map.Entry.<Integer, Integer>comparingByValue().reversed();
+        ranking = ranking.thenComparing(e -> partition.rows[e.getKey()].name(),
+                Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+        return scores.entrySet().stream()
+                .sorted(ranking)
+                .skip((long) (page - 1) * size)
+                .limit(size)
+                .map(e -> toResponse(partition.rows[e.getKey()]))
+                .toList();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        generation.incrementAndGet();
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null && current.generation == generation.get()) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            long expected = generation.get();
+            if (current == null || current.generation != expected) {
+                current = build(expected);
+                snapshot = current;
+            }
+            return current;
+        }
+    }
+
+    private Snapshot build(long generation) {
+        List<MenuSearchRow> rows = menuItemRepository.findSearchRows();
+        Map<Long, Partition> byRestaurant = new HashMap<>();
+        rows.stream()
+                .filter(row -> row.restaurantId() != null)
+                .collect(Collectors.groupingBy(MenuSearchRow::restaurantId))
+                .forEach((restaurantId, restaurantRows) -> byRestaurant.put(restaurantId, partition(restaurantRows)));
+        return new Snapshot(generation, partition(rows), byRestaurant);
+    }
+
+    private static Partition partition(List<MenuSearchRow> rows) {
+        Map<String, Map<Integer, Integer>> postings = new HashMap<>();
+        for (int doc = 0; doc < rows.size(); doc++) {
+            MenuSearchRow row = rows.get(doc);
+            index(postings, row.name(), doc, NAME_WEIGHT);
+            index(postings, row.subCategoryName(), doc, SUB_CATEGORY_WEIGHT);
+            index(postings, row.categoryName(), doc, CATEGORY_WEIGHT);
+        }
+        String[] terms = postings.keySet().toArray(new String[0]);
+        Arrays.sort(terms);
+        return new Partition(rows.toArray(new MenuSearchRow[0]), terms, postings);
+    }
+
+    private static void index(Map<String, Map<Integer, Integer>> postings, String text, int doc, int weight) {
+        for (String term : tokenize(text)) {
+            postings.computeIfAbsent(term, t -> new HashMap<>()).merge(doc, weight, Math::max);
+        }
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static MenuItemResponseSearch toResponse(MenuSearchRow row) {
+        return MenuItemResponseSearch.builder()
+                .categoryName(row.categoryName())
+                .subCategoryName(row.subCategoryName())
+                .menuItemName(row.name())
+                .image(row.image())
+                .price(row.price()).build();
+    }
+
+    private static boolean withinOneEdit(String a, String b) {
+        if (a.length() > b.length()) {
+            String t = a;
+            a = b;
+            b = t;
+        }
+        if (b.length() - a.length() > 1) {
+            return false;
+        }
+        int i = 0;
+        while (i < a.length() && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        if (a.length() == b.length()) {
+            return a.regionMatches(i + 1, b, i + 1, a.length() - i - 1);
+        }
+        return a.regionMatches(i, b, i + 1, a.length() - i);
+    }
+
+    private static final class Snapshot {
+        private final long generation;
+        private final Partition all;
+        private final Map<Long, Partition> byRestaurant;
+
+        private Snapshot(long generation, Partition all, Map<Long, Partition> byRestaurant) {
+            this.generation = generation;
+            this.all = all;
+            this.byRestaurant = byRestaurant;
+        }
+    }
+
+    private static final class Partition {
+        private final MenuSearchRow[] rows;
+        private final String[] terms;
+        private final Map<String, Map<Integer, Integer>> postings;
+
+        private Partition(MenuSearchRow[] rows, String[] terms, Map<String, Map<Integer, Integer>> postings) {
+            this.rows = rows;
+            this.terms = terms;
+            this.postings = postings;
+        }
+
+        private Map<Integer, Integer> match(String token) {
+            Map<Integer, Integer> result = new HashMap<>();
+            int position = Arrays.binarySearch(terms, token);
+            int from = position >= 0 ? position : -position - 1;
+            for (int i = from; i < terms.length && terms[i].startsWith(token); i++) {
+                collect(result, terms[i], terms[i].length() == token.length() ? EXACT : PREFIX);
+            }
+            if (token.length() >= MIN_TYPO_LENGTH) {
+                for (String term : terms) {
+                    if (!term.startsWith(token) && withinOneEdit(term, token)) {
+                        collect(result, term, TYPO);
+                    }
+                }
+            }
+            return result;
+        }
+
+        private void collect(Map<Integer, Integer> result, String term, int matchKind) {
+            postings.get(term).forEach((doc, weight) -> result.merge(doc, matchKind * weight, Math::max));
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package peaksoft.search;
+
+import java.math.BigDecimal;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public record MenuSearchRow(
+        Long restaurantId,
+        Long menuId,
+        String categoryName,
+        String subCategoryName,
+        String name,
+        String image,
+        BigDecimal price
+) {
+}
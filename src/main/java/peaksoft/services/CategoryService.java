@@ -3,6 +3,7 @@ package peaksoft.services;
 import peaksoft.dto.requests.CategoryRequest;
 import peaksoft.dto.responses.CategoryGroupSubResponse;
 import peaksoft.dto.responses.CategoryResponse;
+import peaksoft.dto.responses.CursorPageResponse;
 import peaksoft.dto.responses.PaginationResponseCategory;
 import peaksoft.dto.responses.SimpleResponse;
 
@@ -27,4 +28,6 @@ public interface CategoryService {
 
     PaginationResponseCategory getCategoryPage(int page, int size);
 
+    CursorPageResponse<CategoryResponse> getCategoryCursorPage(String cursor, int size, boolean withTotal);
+
 }
@@ -3,6 +3,7 @@ package peaksoft.services;
 
 import peaksoft.dto.requests.ChefRequest;
 import peaksoft.dto.responses.ChefResponse;
+import peaksoft.dto.responses.CursorPageResponse;
 import peaksoft.dto.responses.PaginationResponseChef;
 import peaksoft.dto.responses.SimpleResponse;
 import peaksoft.enums.Role;
@@ -25,4 +26,6 @@ public interface ChefService {
     SimpleResponse deleteChef(Long restId, Long chefId);
 
     PaginationResponseChef getChefPagination(int page, int size);
+
+    CursorPageResponse<ChefResponse> getChefCursorPage(String cursor, int size, boolean withTotal);
 }
@@ -1,11 +1,17 @@
 package peaksoft.services;
 
+import peaksoft.dto.requests.ChequeBatchRequest;
 import peaksoft.dto.requests.ChequeRequest;
+import peaksoft.dto.requests.ChequeUpdateRequest;
 import peaksoft.dto.requests.OneDayAvaragePriceRequest;
+import peaksoft.dto.responses.ChequeBatchResultResponse;
 import peaksoft.dto.responses.ChequeResponse;
+import peaksoft.dto.responses.PaginationResponseCheque;
 import peaksoft.dto.responses.SimpleResponse;
 import peaksoft.dto.responses.SimpleResponse1;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 
 /**
@@ -15,13 +21,25 @@ import java.util.List;
 public interface ChequeService {
     SimpleResponse save(Long restaurantId, Long waiterId, ChequeRequest request);
 
+    List<ChequeBatchResultResponse> saveBatch(Long restaurantId, Long waiterId, ChequeBatchRequest request);
+
     List<ChequeResponse> findAll(Long waiterId);
 
+    ChequeResponse getById(Long chequeId);
+
+    List<ChequeResponse> getArchivedMonth(Long restaurantId, YearMonth month);
+
+    PaginationResponseCheque getChequePage(Long waiterId, LocalDate from, LocalDate to, int page, int size, boolean withLines);
+
     SimpleResponse update(Long chequeId, ChequeRequest chequeRequest);
 
+    SimpleResponse edit(Long chequeId, ChequeUpdateRequest request);
+
 
     SimpleResponse delete(Long waiterId, Long chequeId);
 
     SimpleResponse1 oneDayAveragePrice(OneDayAvaragePriceRequest oneDayAvaragePriceRequest);
 
+    SimpleResponse1 revenue(Long waiterId, LocalDate from, LocalDate to);
+
 }
@@ -0,0 +1,31 @@
+package peaksoft.services;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import peaksoft.dto.responses.KitchenMetricsResponse;
+import peaksoft.dto.responses.KitchenTicketResponse;
+import peaksoft.dto.responses.SimpleResponse;
+import peaksoft.entity.Cheque;
+import peaksoft.enums.TicketStatus;
+
+import java.util.List;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public interface KitchenTicketService {
+
+    void open(Cheque cheque, Long restaurantId);
+
+    void chequeChanged(Long chequeId);
+
+    void close(Long chequeId);
+
+    List<KitchenTicketResponse> findOpen(Long restId);
+
+    SseEmitter stream(Long restId);
+
+    SimpleResponse changeStatus(Long ticketId, TicketStatus status);
+
+    KitchenMetricsResponse metrics();
+}
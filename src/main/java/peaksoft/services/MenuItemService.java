@@ -1,7 +1,11 @@
 package peaksoft.services;
 
 import peaksoft.dto.requests.MenuRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import peaksoft.dto.responses.CatalogCategoryResponse;
+import peaksoft.dto.responses.CursorPageResponse;
 import peaksoft.dto.responses.ManuResponse;
+import peaksoft.dto.responses.MenuCatalogMetricsResponse;
 import peaksoft.dto.responses.MenuItemResponseSearch;
 import peaksoft.dto.responses.PaginationResponseMenu;
 import peaksoft.dto.responses.SimpleResponse;
@@ -25,6 +29,14 @@ public interface MenuItemService {
 
     PaginationResponseMenu getMenuPage(Long subId, int page, int size);
 
-    List<MenuItemResponseSearch> search(String keyWord);
+    CursorPageResponse<ManuResponse> getMenuCursorPage(Long subId, String cursor, int size, boolean withTotal);
+
+    List<MenuItemResponseSearch> search(String keyWord, Long restId, int page, int size);
+
+    List<CatalogCategoryResponse> getCatalog(Long restId);
+
+    MenuCatalogMetricsResponse getCatalogMetrics();
+
+    SseEmitter streamChanges(Long restId, String lastEventId);
 
 }
@@ -0,0 +1,22 @@
+package peaksoft.services;
+
+import jakarta.servlet.http.HttpServletResponse;
+import peaksoft.dto.responses.MenuImportResponse;
+import peaksoft.enums.MenuTransferFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public interface MenuTransferService {
+    MenuImportResponse importMenus(Long restId, MenuTransferFormat format, InputStream in) throws IOException;
+
+    /**
+     * Streams the restaurant's menu into the response. Headers are only set once the
+     * restaurant is known to exist, so a missing restaurant still gets the usual JSON error.
+     */
+    void exportMenus(Long restId, MenuTransferFormat format, HttpServletResponse response) throws IOException;
+}
@@ -0,0 +1,15 @@
+package peaksoft.services;
+
+import peaksoft.dto.responses.SalesAnalyticsResponse;
+import peaksoft.enums.AnalyticsGranularity;
+
+import java.time.LocalDate;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public interface SalesAnalyticsService {
+
+    SalesAnalyticsResponse getSales(Long restId, LocalDate from, LocalDate to, AnalyticsGranularity granularity, int top);
+}
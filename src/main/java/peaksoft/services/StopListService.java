@@ -4,6 +4,7 @@ import peaksoft.dto.requests.StopListRequest;
 import peaksoft.dto.responses.SimpleResponse;
 import peaksoft.dto.responses.StopListResponse;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -16,6 +17,8 @@ public interface StopListService {
 
     List<StopListResponse> findAll();
 
+    List<StopListResponse> findByRestaurantAndDate(Long restId, LocalDate date);
+
 
     StopListResponse getById(Long id);
 
@@ -1,6 +1,7 @@
 package peaksoft.services;
 
 import peaksoft.dto.requests.SubCategoryRequest;
+import peaksoft.dto.responses.CursorPageResponse;
 import peaksoft.dto.responses.PaginationResponseSubCategory;
 import peaksoft.dto.responses.SimpleResponse;
 import peaksoft.dto.responses.SubCategoryResponse;
@@ -24,4 +25,6 @@ public interface SubCategoryService {
 
     PaginationResponseSubCategory getSubCategoryPage(int page, int size, Long categoryId);
 
+    CursorPageResponse<SubCategoryResponse> getSubCategoryCursorPage(Long categoryId, String cursor, int size, boolean withTotal);
+
 }
@@ -1,6 +1,7 @@
 package peaksoft.services;
 
 import peaksoft.dto.requests.WaiterRequest;
+import peaksoft.dto.responses.CursorPageResponse;
 import peaksoft.dto.responses.PaginationResponseWater;
 import peaksoft.dto.responses.SimpleResponse;
 import peaksoft.dto.responses.WaiterResponse;
@@ -24,4 +25,6 @@ public interface WaiterService {
     SimpleResponse deleteWaiter(Long restId, Long waiterId);
 
     PaginationResponseWater getWaiterPagination(int page, int size);
+
+    CursorPageResponse<WaiterResponse> getWaiterCursorPage(String cursor, int size, boolean withTotal);
 }
@@ -1,17 +1,23 @@
 package peaksoft.services.impl;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import peaksoft.cache.MenuCatalog;
+import peaksoft.cache.MenuCatalogSnapshot;
 import peaksoft.dto.requests.CategoryRequest;
 import peaksoft.dto.responses.*;
 import peaksoft.entity.Category;
+import peaksoft.event.MenuChangedEvent;
 import peaksoft.exeption.NotFoundException;
+import peaksoft.pagination.CursorPages;
+import peaksoft.pagination.PageCursor;
 import peaksoft.repositories.CategoryRepository;
-import peaksoft.repositories.SubCategoryRepository;
 import peaksoft.services.CategoryService;
 
 import java.util.List;
@@ -24,19 +30,24 @@ import java.util.List;
 @Service
 public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
-    private final SubCategoryRepository subCategoryRepository;
+    private final MenuCatalog menuCatalog;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public CategoryServiceImpl(CategoryRepository categoryRepository, SubCategoryRepository subCategoryRepository) {
+    public CategoryServiceImpl(CategoryRepository categoryRepository, MenuCatalog menuCatalog,
+                               ApplicationEventPublisher eventPublisher) {
         this.categoryRepository = categoryRepository;
-        this.subCategoryRepository = subCategoryRepository;
+        this.menuCatalog = menuCatalog;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
+    @Transactional
     public SimpleResponse saveCategory(CategoryRequest c) {
         Category category = new Category();
         category.setName(c.name());
 
         categoryRepository.save(category);
+        eventPublisher.publishEvent(new MenuChangedEvent(null));
         return SimpleResponse.builder()
                 .status(HttpStatus.OK)
                 .message(String.format("Category with name: %s is successfully SAVED", c.name()))
@@ -45,18 +56,17 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     public List<CategoryResponse> findAllCategories() {
-        return categoryRepository.findAllCategories();
+        return menuCatalog.current().categories();
     }
 
     @Override
     public CategoryResponse findById(Long categoryId) {
-        if (!categoryRepository.existsById(categoryId)) {
-            throw new NotFoundException(String.format("Category with id: %d is not found", categoryId));
-        }
-        return categoryRepository.findByCategoryId(categoryId);
+        return menuCatalog.current().category(categoryId).orElseThrow(() -> new NotFoundException(
+                String.format("Category with id: %d is not found", categoryId)));
     }
 
     @Override
+    @Transactional
     public SimpleResponse updateCategory(Long categoryId, CategoryRequest category) {
         Category category1 = categoryRepository.findById(categoryId).orElseThrow(() -> new NotFoundException(
                 String.format("Category with id: %d doesn't exist", categoryId)));
@@ -64,6 +74,7 @@ public class CategoryServiceImpl implements CategoryService {
         category1.setName(category.name());
 
         categoryRepository.save(category1);
+        eventPublisher.publishEvent(new MenuChangedEvent(null));
         return SimpleResponse.builder()
                 .status(HttpStatus.OK)
                 .message(String.format("Category with name: %s is successfully UPDATED", category.name()))
@@ -71,11 +82,13 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
+    @Transactional
     public SimpleResponse delete(Long categoryId) {
         if (!categoryRepository.existsById(categoryId)) {
             throw new NotFoundException(String.format("Category with id: %d is not found", categoryId));
         }
         categoryRepository.deleteById(categoryId);
+        eventPublisher.publishEvent(new MenuChangedEvent(null));
         return SimpleResponse.builder()
                 .status(HttpStatus.OK)
                 .message(String.format("Category with name: %d is successfully DELETED", categoryId))
@@ -85,17 +98,15 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     public CategoryGroupSubResponse groupSupCategories(Long categoryId) {
-        if (!categoryRepository.existsById(categoryId)) {
-            throw new NotFoundException(String.format("Category with id: %d is not found", categoryId));
-        }
-        CategoryGroupSubResponse categoryGroupSubResponse = categoryRepository.findCategory(categoryId).orElseThrow();
-        List<SubCategoryResponse> subCategoryResponses = subCategoryRepository.findAllSubCategoriesByCategory(categoryId);
+        MenuCatalogSnapshot catalog = menuCatalog.current();
+        CategoryResponse category = catalog.category(categoryId).orElseThrow(() -> new NotFoundException(
+                String.format("Category with id: %d is not found", categoryId)));
 
-        categoryGroupSubResponse.setSubCategories(subCategoryResponses);
-        return categoryGroupSubResponse;
+        return new CategoryGroupSubResponse(category.id(), category.name(), catalog.subCategoriesOf(categoryId));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public PaginationResponseCategory getCategoryPage(int page, int size) {
         Pageable pageable = PageRequest.of(page-1, size, Sort.by("name"));
         Page<CategoryResponse> categoryPages = categoryRepository.findAllBy(pageable);
@@ -106,4 +117,16 @@ public class CategoryServiceImpl implements CategoryService {
         paginationResponse.setPageSize(categoryPages.getTotalPages());
         return paginationResponse;
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<CategoryResponse> getCategoryCursorPage(String cursor, int size, boolean withTotal) {
+        Pageable limit = CursorPages.probe(size);
+        PageCursor after = PageCursor.decode(cursor);
+        List<CategoryResponse> categories = after == null
+                ? categoryRepository.findFirstPage(limit)
+                : categoryRepository.findPageAfter(after.key(), after.id(), limit);
+        return CursorPages.page(categories, size, c -> new PageCursor(c.name(), c.id()),
+                withTotal ? categoryRepository.count() : null);
+    }
 }
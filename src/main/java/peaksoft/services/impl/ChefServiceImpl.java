@@ -6,8 +6,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import peaksoft.config.jwt.PrincipalCache;
 import peaksoft.dto.requests.ChefRequest;
 import peaksoft.dto.responses.ChefResponse;
+import peaksoft.dto.responses.CursorPageResponse;
 import peaksoft.dto.responses.PaginationResponseChef;
 import peaksoft.dto.responses.SimpleResponse;
 import peaksoft.entity.Restaurant;
@@ -16,6 +19,8 @@ import peaksoft.enums.Role;
 import peaksoft.exeption.BadRequestException;
 import peaksoft.exeption.NotFoundException;
 import peaksoft.exeption.PhoneNumberException;
+import peaksoft.pagination.CursorPages;
+import peaksoft.pagination.PageCursor;
 import peaksoft.repositories.RestaurantRepository;
 import peaksoft.repositories.UserRepository;
 import peaksoft.services.ChefService;
@@ -37,14 +42,18 @@ public class ChefServiceImpl implements ChefService {
     private final RestaurantRepository restaurantRepository;
     private final PasswordEncoder passwordEncoder;
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
-    public ChefServiceImpl(RestaurantRepository restaurantRepository, PasswordEncoder passwordEncoder, UserRepository userRepository) {
+    public ChefServiceImpl(RestaurantRepository restaurantRepository, PasswordEncoder passwordEncoder, UserRepository userRepository,
+                           PrincipalCache principalCache) {
         this.restaurantRepository = restaurantRepository;
         this.passwordEncoder = passwordEncoder;
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     @Override
+    @Transactional
     public SimpleResponse saveCook(Long restId, ChefRequest cook) {
         if (!restaurantRepository.existsById(restId)){
             throw new BadRequestException(String.format("Restaurant with id: %d doesn't exist", restId));
@@ -67,7 +76,7 @@ public class ChefServiceImpl implements ChefService {
         user.setPassword(passwordEncoder.encode(cook.password()));
 
 
-        int count = restaurant.getUsers().size();
+        int count = userRepository.countByRestaurant_Id(restId);
         if (count > 14){
             throw new BadRequestException("Sorry we haven't run out of vacancies");
         }else {
@@ -87,7 +96,6 @@ public class ChefServiceImpl implements ChefService {
         }
 
         user.setExperience(cook.experience());
-        restaurant.addChef(user);
         user.setRestaurant(restaurant);
 
         userRepository.save(user);
@@ -99,6 +107,7 @@ public class ChefServiceImpl implements ChefService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ChefResponse> findAllChefs(Long restId, Role role) {
         if (!restaurantRepository.existsById(restId)){
             throw new NotFoundException("Restaurant with id not found!");
@@ -115,6 +124,7 @@ public class ChefServiceImpl implements ChefService {
 
 
     @Override
+    @Transactional
     public SimpleResponse updateChefById(Long chefId, ChefRequest cook) {
         if (userRepository.existsByEmail(cook.email())){
             throw new BadRequestException("Email must be unique");
@@ -144,11 +154,13 @@ public class ChefServiceImpl implements ChefService {
         user.setExperience(cook.experience());
 
         userRepository.save(user);
+        principalCache.revoke(chefId);
         return SimpleResponse.builder().status(OK)
                 .message("Chef with name " + cook.firstName() + " " + cook.lastName() + " is successfully updated").build();
     }
 
     @Override
+    @Transactional
     public SimpleResponse deleteChef(Long restId, Long chefId) {
         if (!userRepository.existsById(chefId)) {
             throw new NotFoundException(String.format("Chef with id: %d is not found", chefId));
@@ -157,14 +169,13 @@ public class ChefServiceImpl implements ChefService {
         Restaurant restaurant = restaurantRepository.findById(restId).orElseThrow(() -> new NotFoundException(
                 String.format("Restaurant with id: %d doesn't exist", restId)));
 
-        restaurant.getUsers().removeIf(chef ->chef.getId().equals(chefId));
+        userRepository.deleteById(chefId);
+        principalCache.revoke(chefId);
 
-        int count = restaurant.getUsers().size();
-        restaurant.setNumberOfEmployees(count--);
+        int count = userRepository.countByRestaurant_Id(restId);
+        restaurant.setNumberOfEmployees(count);
         restaurantRepository.save(restaurant);
 
-        userRepository.deleteById(chefId);
-
         return SimpleResponse.builder()
                 .status(OK)
                 .message(String.format(
@@ -173,6 +184,7 @@ public class ChefServiceImpl implements ChefService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public PaginationResponseChef getChefPagination(int page, int size) {
         Pageable pageable = PageRequest.of(page-1, size, Sort.by("firstName"));//
         Page<ChefResponse> pageChefs = userRepository.findAllByRole(Role.CHEF,pageable);
@@ -184,6 +196,18 @@ public class ChefServiceImpl implements ChefService {
         return paginationResponse;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ChefResponse> getChefCursorPage(String cursor, int size, boolean withTotal) {
+        Pageable limit = CursorPages.probe(size);
+        PageCursor after = PageCursor.decode(cursor);
+        List<ChefResponse> chefs = after == null
+                ? userRepository.findChefsFirstPage(Role.CHEF, limit)
+                : userRepository.findChefsAfter(Role.CHEF.name(), after.key(), after.id(), limit);
+        return CursorPages.page(chefs, size, c -> new PageCursor(c.firstName(), c.id()),
+                withTotal ? userRepository.countByRole(Role.CHEF) : null);
+    }
+
     private void phoneValid(String phoneNumber){
         if (phoneNumber == null || phoneNumber.isEmpty()){
             throw new NullPointerException("Phone number is null!!");
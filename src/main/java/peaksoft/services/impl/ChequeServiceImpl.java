@@ -1,27 +1,56 @@
 package peaksoft.services.impl;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import peaksoft.archive.ArchivedCheque;
+import peaksoft.archive.ChequeArchive;
+import peaksoft.cache.StopListIndex;
+import peaksoft.dto.requests.ChequeBatchItemRequest;
+import peaksoft.dto.requests.ChequeBatchRequest;
 import peaksoft.dto.requests.ChequeRequest;
+import peaksoft.dto.requests.ChequeUpdateRequest;
 import peaksoft.dto.requests.OneDayAvaragePriceRequest;
 import peaksoft.dto.responses.*;
 import peaksoft.entity.Cheque;
+import peaksoft.entity.ChequeLine;
 import peaksoft.entity.MenuItem;
-import peaksoft.entity.Restaurant;
 import peaksoft.entity.User;
+import peaksoft.enums.ChequeBatchStatus;
 import peaksoft.enums.Role;
+import peaksoft.event.ChequesChangedEvent;
 import peaksoft.exeption.BadRequestException;
 import peaksoft.exeption.NotFoundException;
 import peaksoft.repositories.ChequeRepository;
+import peaksoft.repositories.DailyRevenueRepository;
 import peaksoft.repositories.MenuItemRepository;
 import peaksoft.repositories.RestaurantRepository;
 import peaksoft.repositories.UserRepository;
 import peaksoft.services.ChequeService;
+import peaksoft.services.KitchenTicketService;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * @author :ЛОКИ Kelsivbekov
@@ -29,55 +58,54 @@ import java.util.List;
  */
 @Service
 public class ChequeServiceImpl implements ChequeService {
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MONEY_SCALE = 2;
+    private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
 
     private final ChequeRepository chequeRepository;
     private final UserRepository userRepository;
     private final RestaurantRepository restaurantRepository;
     private final MenuItemRepository menuItemRepository;
+    private final DailyRevenueRepository dailyRevenueRepository;
+    private final KitchenTicketService kitchenTicketService;
+    private final TransactionTemplate transactionTemplate;
+    private final ChequeArchive chequeArchive;
+    private final StopListIndex stopListIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ChequeServiceImpl(ChequeRepository chequeRepository, UserRepository userRepository, RestaurantRepository restaurantRepository,
-                             MenuItemRepository menuItemRepository) {
+                             MenuItemRepository menuItemRepository, DailyRevenueRepository dailyRevenueRepository,
+                             KitchenTicketService kitchenTicketService, PlatformTransactionManager transactionManager,
+                             ChequeArchive chequeArchive, StopListIndex stopListIndex, ApplicationEventPublisher eventPublisher) {
         this.chequeRepository = chequeRepository;
         this.userRepository = userRepository;
         this.restaurantRepository = restaurantRepository;
         this.menuItemRepository = menuItemRepository;
+        this.dailyRevenueRepository = dailyRevenueRepository;
+        this.kitchenTicketService = kitchenTicketService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chequeArchive = chequeArchive;
+        this.stopListIndex = stopListIndex;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
+    @Transactional
     public SimpleResponse save(Long restaurantId, Long waiterId, ChequeRequest request) {
-        Restaurant restaurant = restaurantRepository.findById(restaurantId).orElseThrow(() -> new NotFoundException(String.format("Restaurant with id: %d doesn't exist", restaurantId)));
-        User user = userRepository.findById(waiterId).orElseThrow(() -> new NotFoundException(
-                String.format("Waiter with id: %d doesn't exist", waiterId)));
-
-        if (!user.getRole().equals(Role.WAITER)) {
-            throw new BadRequestException("Толко официянты могут зделать заказ!!");
+        User user = findWaiter(restaurantId, waiterId);
+        if (request.getId() == null || request.getId().isEmpty()) {
+            throw new BadRequestException("Cheque must contain at least one menu item");
         }
 
         Cheque cheque = new Cheque();
-        List<MenuItem> menuItems = restaurant.getMenuItems();
-        List<MenuItem> newMenuItems = new ArrayList<>();
-        List<Long> id = request.getId();
-        List<BigDecimal> s = new ArrayList<>();
-        for (MenuItem menuItem : menuItems) {
-            for (Long aLong : id) {
-                if (menuItem.getId().equals(aLong)) {
-                    newMenuItems.add(menuItem);
-                    s.add(menuItem.getPrice());
-                }
-            }
-        }
-        for (MenuItem newMenuItem : newMenuItems) {
-            cheque.addMenuIterm(newMenuItem);
-            newMenuItem.addCheque(cheque);
-        }
-
-
-        cheque.setPriceAverage(averagePrice(s));
         cheque.setUser(user);
+        addChequeLines(cheque, restaurantId, request.getId());
+        applyTotals(cheque, linesTotal(cheque));
         cheque.setCreatedAd(LocalDate.now());
-        user.addCheque(cheque);
-
         chequeRepository.save(cheque);
+        recordRevenue(cheque, 1, grandTotal(cheque));
+        kitchenTicketService.open(cheque, restaurantId);
 
         return SimpleResponse.builder()
                 .status(HttpStatus.OK)
@@ -86,62 +114,211 @@ public class ChequeServiceImpl implements ChequeService {
     }
 
     @Override
+    public List<ChequeBatchResultResponse> saveBatch(Long restaurantId, Long waiterId, ChequeBatchRequest request) {
+        if (request.getCheques() == null || request.getCheques().isEmpty()) {
+            throw new BadRequestException("Batch must contain at least one cheque");
+        }
+        if (request.getCheques().size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException(String.format("Batch must not contain more than %d cheques", MAX_BATCH_SIZE));
+        }
+        try {
+            return transactionTemplate.execute(status -> insertBatch(restaurantId, waiterId, request.getCheques()));
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent replay of the same batch saved some of the keys first; they are duplicates now
+            return transactionTemplate.execute(status -> insertBatch(restaurantId, waiterId, request.getCheques()));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<ChequeResponse> findAll(Long waiterId) {
-        User waiter = userRepository.findById(waiterId).orElseThrow(() -> new NotFoundException(String.format("Waiter with id: %d doesn't exist", waiterId)));
-        List<Cheque> cheques = waiter.getCheques();
+        if (!userRepository.existsById(waiterId)) {
+            throw new NotFoundException(String.format("Waiter with id: %d doesn't exist", waiterId));
+        }
+        List<Cheque> cheques = chequeRepository.findAllByUserId(waiterId);
         return convertList1(cheques);
     }
 
+    /**
+     * One page of the waiter's cheques, newest first, read as a header projection with the stored
+     * totals. Lines, when asked for, come from one {@code IN} query over the page's cheque ids, so
+     * memory is bounded by the page size rather than by the waiter's history.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public PaginationResponseCheque getChequePage(Long waiterId, LocalDate from, LocalDate to, int page, int size, boolean withLines) {
+        if (page < 1 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException(String.format("Page must be greater than 0 and size between 1 and %d", MAX_PAGE_SIZE));
+        }
+        LocalDate start = from == null ? LocalDate.EPOCH : from;
+        LocalDate end = to == null ? LocalDate.now() : to;
+        if (start.isAfter(end)) {
+            throw new BadRequestException("Start date must not be after end date");
+        }
+        if (!userRepository.existsById(waiterId)) {
+            throw new NotFoundException(String.format("Waiter with id: %d doesn't exist", waiterId));
+        }
+
+        Page<ChequeResponse> cheques = chequeRepository.findHeaders(waiterId, start, end, PageRequest.of(page - 1, size));
+        if (withLines && cheques.hasContent()) {
+            Map<Long, List<ChequeLineResponse>> lines = chequeRepository
+                    .findLineRows(cheques.getContent().stream().map(ChequeResponse::getId).toList()).stream()
+                    .collect(Collectors.groupingBy(ChequeLineRowResponse::chequeId, Collectors.mapping(row ->
+                            ChequeLineResponse.builder()
+                                    .menuItemId(row.menuItemId())
+                                    .name(row.name())
+                                    .quantity(row.quantity())
+                                    .unitPrice(row.unitPrice())
+                                    .lineTotal(row.lineTotal()).build(), Collectors.toList())));
+            cheques.forEach(cheque -> cheque.setChequeLines(lines.getOrDefault(cheque.getId(), List.of())));
+        }
+
+        PaginationResponseCheque response = new PaginationResponseCheque();
+        response.setChequeResponses(cheques.getContent());
+        response.setCurrentPage(page);
+        response.setPageSize(cheques.getTotalPages());
+        return response;
+    }
+
+    /**
+     * Reads the cheque from the tables, or from the cold archive once it has been moved there.
+     */
     @Override
+    @Transactional(readOnly = true)
+    public ChequeResponse getById(Long chequeId) {
+        return chequeRepository.findDetailsById(chequeId).map(this::convert)
+                .or(() -> chequeArchive.find(chequeId).map(this::convert))
+                .orElseThrow(() -> new NotFoundException(String.format("Cheque with id: %d doesn't exist", chequeId)));
+    }
+
+    @Override
+    public List<ChequeResponse> getArchivedMonth(Long restaurantId, YearMonth month) {
+        if (!restaurantRepository.existsById(restaurantId)) {
+            throw new NotFoundException(String.format("Restaurant with id: %d doesn't exist", restaurantId));
+        }
+        return chequeArchive.month(restaurantId, month).stream().map(this::convert).toList();
+    }
+
+    @Override
+    @Transactional
     public SimpleResponse update(Long chequeId, ChequeRequest chequeRequest) {
-        Cheque cheque = chequeRepository.findById(chequeId).orElseThrow(() -> new NotFoundException(
+        Cheque cheque = chequeRepository.findForUpdateById(chequeId).orElseThrow(() -> new NotFoundException(
                 String.format("Cheque with id: %d doesn't exist", chequeId)
         ));
+        if (chequeRequest.getId() == null || chequeRequest.getId().isEmpty()) {
+            throw new BadRequestException("Cheque must contain at least one menu item");
+        }
+
+        BigDecimal oldGrandTotal = grandTotal(cheque);
+        cheque.getChequeLines().clear();
+        addChequeLines(cheque, cheque.getUser().getRestaurant().getId(), chequeRequest.getId());
+        applyTotals(cheque, linesTotal(cheque));
+        chequeRepository.save(cheque);
+        recordRevenue(cheque, 0, grandTotal(cheque).subtract(oldGrandTotal));
+        kitchenTicketService.chequeChanged(chequeId);
+        publishChanged(cheque);
+
+        return SimpleResponse.builder().
+                status(HttpStatus.OK)
+                .message(String.format("Cheque with id: %d is successfully UPDATED", chequeId))
+                .build();
+    }
 
-        List<MenuItem> menuItems = new ArrayList<>();
+    /**
+     * Applies add/remove deltas to the existing lines. All added items are priced with one query
+     * and the total is adjusted by the difference instead of being summed again; prices of lines
+     * already on the cheque are kept. A stale {@code version} or an edit committed concurrently
+     * fails with an optimistic locking conflict.
+     */
+    @Override
+    @Transactional
+    public SimpleResponse edit(Long chequeId, ChequeUpdateRequest request) {
+        Cheque cheque = chequeRepository.findForUpdateById(chequeId).orElseThrow(() -> new NotFoundException(
+                String.format("Cheque with id: %d doesn't exist", chequeId)));
+        if (request.getVersion() != null && !request.getVersion().equals(cheque.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Cheque.class, chequeId);
+        }
+        Map<Long, Long> added = quantities(request.getAdd());
+        Map<Long, Long> removed = quantities(request.getRemove());
+        if (added.isEmpty() && removed.isEmpty()) {
+            throw new BadRequestException("Nothing to add or remove");
+        }
 
-        cheque.getMenuItems().clear();
+        BigDecimal oldGrandTotal = grandTotal(cheque);
+        Map<Long, ChequeLine> lines = new HashMap<>();
+        cheque.getChequeLines().forEach(line -> lines.put(line.getMenuItem().getId(), line));
+        BigDecimal delta = BigDecimal.ZERO;
 
-        for (Long aLong : chequeRequest.getId()) {
-            MenuItem menuItem = menuItemRepository.findById(aLong).orElseThrow();
-            menuItems.add(menuItem);
+        removed.forEach((menuId, quantity) -> {
+            ChequeLine line = lines.get(menuId);
+            if (line == null || line.getQuantity() < quantity) {
+                throw new BadRequestException(String.format(
+                        "Cheque with id: %d doesn't contain menu item with id: %d %d time(s)", chequeId, menuId, quantity));
+            }
+        });
+        for (Map.Entry<Long, Long> entry : removed.entrySet()) {
+            ChequeLine line = lines.get(entry.getKey());
+            line.setQuantity(line.getQuantity() - entry.getValue().intValue());
+            delta = delta.subtract(line.getUnitPrice().multiply(BigDecimal.valueOf(entry.getValue())));
+            if (line.getQuantity() == 0) {
+                cheque.getChequeLines().remove(line);
+                lines.remove(entry.getKey());
+            } else {
+                line.setLineTotal(line.getUnitPrice().multiply(BigDecimal.valueOf(line.getQuantity())));
+            }
         }
 
-        List<MenuItem> menuItemsList = new ArrayList<>();
-        for (MenuItem menuItem : menuItems) {
-            for (MenuItem item : cheque.getMenuItems()) {
-                if (!item.getId().equals(menuItem.getId())) {
-                    MenuItem menuItem1 = menuItemRepository.findById(item.getId()).orElseThrow();
-                    menuItemsList.add(menuItem1);
-                }
+        List<Long> newMenuIds = added.keySet().stream().filter(id -> !lines.containsKey(id)).toList();
+        Map<Long, BigDecimal> prices = menuPrices(cheque.getUser().getRestaurant().getId(), newMenuIds);
+        List<Long> missing = newMenuIds.stream().filter(id -> !prices.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            throw new NotFoundException(String.format("Menu items with ids: %s don't exist in restaurant with id: %d",
+                    missing, cheque.getUser().getRestaurant().getId()));
+        }
+        rejectStopped(cheque.getUser().getRestaurant().getId(), added.keySet());
+        for (Map.Entry<Long, Long> entry : added.entrySet()) {
+            ChequeLine line = lines.get(entry.getKey());
+            if (line == null) {
+                line = newChequeLine(cheque, entry.getKey(), prices.get(entry.getKey()), 0);
+                lines.put(entry.getKey(), line);
             }
+            line.setQuantity(line.getQuantity() + entry.getValue().intValue());
+            line.setLineTotal(line.getUnitPrice().multiply(BigDecimal.valueOf(line.getQuantity())));
+            delta = delta.add(line.getUnitPrice().multiply(BigDecimal.valueOf(entry.getValue())));
+        }
+        if (cheque.getChequeLines().isEmpty()) {
+            throw new BadRequestException("Cheque must contain at least one menu item");
         }
-        menuItems.addAll(menuItemsList);
-        cheque.setMenuItems(menuItems);
-        chequeRepository.save(cheque);
 
+        applyTotals(cheque, cheque.getSubtotal().add(delta));
+        recordRevenue(cheque, 0, grandTotal(cheque).subtract(oldGrandTotal));
+        kitchenTicketService.chequeChanged(chequeId);
+        publishChanged(cheque);
 
-        return SimpleResponse.builder().
-                status(HttpStatus.OK)
+        return SimpleResponse.builder()
+                .status(HttpStatus.OK)
                 .message(String.format("Cheque with id: %d is successfully UPDATED", chequeId))
                 .build();
     }
 
     @Override
+    @Transactional
     public SimpleResponse delete(Long waiterId, Long chequeId) {
         if (!userRepository.existsById(waiterId)) {
             throw new NotFoundException(String.format("Waiter with Id: %d doesnt exist", waiterId));
         }
-        if (!userRepository.existsById(chequeId)) {
+        if (!chequeRepository.existsById(chequeId)) {
             throw new NotFoundException(String.format("Cheque with id: %d doesn't exist", chequeId));
         }
-        User waiter = userRepository.findById(waiterId).orElseThrow(() -> new NotFoundException(String.format("Waiter with id: %d doesn't exist", waiterId)));
-
-        Cheque cheque = chequeRepository.findById(chequeId).orElseThrow();
+        Cheque cheque = chequeRepository.findDetailsById(chequeId).orElseThrow();
+        if (!cheque.getUser().getId().equals(waiterId)) {
+            throw new BadRequestException(String.format("Cheque with id: %d doesn't belong to waiter with id: %d", chequeId, waiterId));
+        }
 
-        cheque.getMenuItems().removeAll(cheque.getMenuItems());
-        waiter.getCheques().removeIf(c -> c.getId().equals(chequeId));
+        recordRevenue(cheque, -1, grandTotal(cheque).negate());
+        kitchenTicketService.close(chequeId);
         chequeRepository.delete(cheque);
+        publishChanged(cheque);
 
         return SimpleResponse.builder()
                 .status(HttpStatus.OK)
@@ -149,6 +326,93 @@ public class ChequeServiceImpl implements ChequeService {
     }
 
 
+    private User findWaiter(Long restaurantId, Long waiterId) {
+        if (!restaurantRepository.existsById(restaurantId)) {
+            throw new NotFoundException(String.format("Restaurant with id: %d doesn't exist", restaurantId));
+        }
+        User user = userRepository.findWithRestaurantById(waiterId).orElseThrow(() -> new NotFoundException(
+                String.format("Waiter with id: %d doesn't exist", waiterId)));
+
+        if (!user.getRole().equals(Role.WAITER)) {
+            throw new BadRequestException("Толко официянты могут зделать заказ!!");
+        }
+        // prices and the kitchen ticket come from restaurantId, the service charge and revenue from the waiter
+        if (user.getRestaurant() == null || !user.getRestaurant().getId().equals(restaurantId)) {
+            throw new BadRequestException(String.format(
+                    "Waiter with id: %d doesn't work in restaurant with id: %d", waiterId, restaurantId));
+        }
+        return user;
+    }
+
+    /**
+     * Saves the cheques of a batch with one waiter lookup, one client key lookup and one price lookup.
+     * The new cheques are flushed together, so with pooled ids they go out as a JDBC batch.
+     * A cheque that fails validation is reported as rejected and doesn't affect the others.
+     */
+    private List<ChequeBatchResultResponse> insertBatch(Long restaurantId, Long waiterId, List<ChequeBatchItemRequest> items) {
+        User user = findWaiter(restaurantId, waiterId);
+        // replays of the same waiter's batches look up and insert their keys one after another
+        chequeRepository.lockClientKeys(waiterId);
+
+        Set<String> clientKeys = items.stream().map(ChequeBatchItemRequest::getClientKey)
+                .filter(key -> key != null && !key.isBlank()).collect(Collectors.toSet());
+        Map<String, Long> saved = new HashMap<>();
+        if (!clientKeys.isEmpty()) {
+            chequeRepository.findClientKeys(waiterId, clientKeys).forEach(key -> saved.put(key.clientKey(), key.id()));
+        }
+        Set<Long> menuIds = items.stream().filter(item -> item.getId() != null)
+                .flatMap(item -> item.getId().stream()).collect(Collectors.toSet());
+        Map<Long, BigDecimal> prices = menuPrices(restaurantId, menuIds);
+
+        List<ChequeBatchResultResponse> results = new ArrayList<>();
+        int created = 0;
+        BigDecimal revenue = BigDecimal.ZERO;
+        for (ChequeBatchItemRequest item : items) {
+            String clientKey = item.getClientKey();
+            if (clientKey == null || clientKey.isBlank()) {
+                results.add(batchResult(clientKey, null, ChequeBatchStatus.REJECTED, "Client key is required"));
+                continue;
+            }
+            if (saved.containsKey(clientKey)) {
+                results.add(batchResult(clientKey, saved.get(clientKey), ChequeBatchStatus.DUPLICATE, null));
+                continue;
+            }
+            try {
+                if (item.getId() == null || item.getId().isEmpty()) {
+                    throw new BadRequestException("Cheque must contain at least one menu item");
+                }
+                Cheque cheque = new Cheque();
+                cheque.setUser(user);
+                addChequeLines(cheque, restaurantId, item.getId(), prices);
+                applyTotals(cheque, linesTotal(cheque));
+                cheque.setCreatedAd(LocalDate.now());
+                cheque.setClientKey(clientKey);
+                chequeRepository.save(cheque);
+                kitchenTicketService.open(cheque, restaurantId);
+
+                saved.put(clientKey, cheque.getId());
+                created++;
+                revenue = revenue.add(grandTotal(cheque));
+                results.add(batchResult(clientKey, cheque.getId(), ChequeBatchStatus.CREATED, null));
+            } catch (NotFoundException | BadRequestException e) {
+                results.add(batchResult(clientKey, null, ChequeBatchStatus.REJECTED, e.getMessage()));
+            }
+        }
+        if (created > 0) {
+            dailyRevenueRepository.addRevenue(user.getId(), user.getRestaurant().getId(), LocalDate.now(), created, revenue);
+        }
+        return results;
+    }
+
+    private ChequeBatchResultResponse batchResult(String clientKey, Long chequeId, ChequeBatchStatus status, String message) {
+        return ChequeBatchResultResponse.builder()
+                .clientKey(clientKey)
+                .chequeId(chequeId)
+                .status(status)
+                .message(message)
+                .build();
+    }
+
     private ManuResponse convert(MenuItem menuItem) {
         return ManuResponse.builder()
                 .id(menuItem.getId())
@@ -167,15 +431,39 @@ public class ChequeServiceImpl implements ChequeService {
         return manuResponses;
     }
 
+    private ChequeLineResponse convert(ChequeLine chequeLine) {
+        return ChequeLineResponse.builder()
+                .menuItemId(chequeLine.getMenuItem().getId())
+                .name(chequeLine.getMenuItem().getName())
+                .quantity(chequeLine.getQuantity())
+                .unitPrice(chequeLine.getUnitPrice())
+                .lineTotal(chequeLine.getLineTotal()).build();
+    }
+
     private ChequeResponse convert(Cheque cheque) {
         return ChequeResponse.builder()
                 .id(cheque.getId())
+                .version(cheque.getVersion())
                 .firstName(cheque.getUser().getFirstName())
                 .lastName(cheque.getUser().getLastName())
                 .service(cheque.getUser().getRestaurant().getService())
-                .grandTotal(averagePriceWithService(cheque.getMenuItems().stream().map(MenuItem::getPrice).toList(), cheque.getUser().getRestaurant().getService()))
-                .averagePrice(averagePrice(cheque.getMenuItems().stream().map(MenuItem::getPrice).toList()))
-                .manuResponses(convertList(cheque.getMenuItems())).build();
+                .averagePrice(cheque.getSubtotal())
+                .serviceCharge(cheque.getServiceCharge())
+                .grandTotal(cheque.getGrandTotal())
+                .manuResponses(convertList(cheque.getChequeLines().stream().map(ChequeLine::getMenuItem).toList()))
+                .chequeLines(cheque.getChequeLines().stream().map(this::convert).toList()).build();
+    }
+
+    private ChequeResponse convert(ArchivedCheque cheque) {
+        ChequeResponse response = new ChequeResponse(cheque.id(), null, cheque.firstName(), cheque.lastName(),
+                cheque.service(), cheque.subtotal(), cheque.serviceCharge(), cheque.grandTotal(), cheque.createdAd());
+        response.setChequeLines(cheque.lines().stream().map(line -> ChequeLineResponse.builder()
+                .menuItemId(line.menuItemId())
+                .name(line.name())
+                .quantity(line.quantity())
+                .unitPrice(line.unitPrice())
+                .lineTotal(line.lineTotal()).build()).toList());
+        return response;
     }
 
     private List<ChequeResponse> convertList1(List<Cheque> cheques) {
@@ -186,35 +474,112 @@ public class ChequeServiceImpl implements ChequeService {
         return chequeResponses;
     }
 
-    private BigDecimal averagePrice(List<BigDecimal> prices) {
-        return prices.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+    /**
+     * Resolves the requested menu ids with one restaurant-scoped query and adds one line per distinct item;
+     * an id repeated in the request becomes the quantity of its line.
+     */
+    private void addChequeLines(Cheque cheque, Long restaurantId, List<Long> menuIds) {
+        addChequeLines(cheque, restaurantId, menuIds, menuPrices(restaurantId, new HashSet<>(menuIds)));
     }
 
-    private BigDecimal averagePriceWithService(List<BigDecimal> prices, Integer service) {
-        BigDecimal reduce = prices.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
-        int i = reduce.intValue();
-        i = i + (i * service) / 100;
-        return BigDecimal.valueOf(i);
+    private Map<Long, BigDecimal> menuPrices(Long restaurantId, Collection<Long> menuIds) {
+        Map<Long, BigDecimal> prices = new HashMap<>();
+        if (!menuIds.isEmpty()) {
+            for (MenuItemPriceResponse price : menuItemRepository.findPricesByRestaurant(restaurantId, menuIds)) {
+                prices.put(price.id(), price.price());
+            }
+        }
+        return prices;
     }
 
-    @Override
-    public SimpleResponse1 oneDayAveragePrice(OneDayAvaragePriceRequest request) {
-        User user = userRepository.findById(request.id()).
-                orElseThrow(() -> new NotFoundException(String.format("Waiter with id: %d doesn't exist", request.id())));
+    private void addChequeLines(Cheque cheque, Long restaurantId, List<Long> menuIds, Map<Long, BigDecimal> prices) {
+        Map<Long, Long> quantities = quantities(menuIds);
 
-        List<Cheque> cheques = user.getCheques();
-        List<ChequeResponse> cheques1 = convertList1(cheques);
-        SimpleResponse1 simpleResponse1 = new SimpleResponse1();
-        simpleResponse1.setFullName(user.getFirstName() + " " + user.getLastName());
-        int number = 0;
-        for (ChequeResponse c : cheques1) {
-            number += c.getGrandTotal().intValue();
+        List<Long> missing = quantities.keySet().stream().filter(id -> !prices.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            throw new NotFoundException(String.format(
+                    "Menu items with ids: %s don't exist in restaurant with id: %d", missing, restaurantId));
+        }
+        rejectStopped(restaurantId, quantities.keySet());
+
+        quantities.forEach((menuId, quantity) -> newChequeLine(cheque, menuId, prices.get(menuId), quantity.intValue()));
+    }
 
+    private void rejectStopped(Long restaurantId, Collection<Long> menuIds) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> stopped = menuIds.stream().filter(id -> stopListIndex.isStopped(restaurantId, id, now)).toList();
+        if (!stopped.isEmpty()) {
+            throw new BadRequestException(String.format("Menu items with ids: %s are on the stop list", stopped));
         }
-        simpleResponse1.setTotalPrice(BigDecimal.valueOf(number));
-        return simpleResponse1;
     }
 
+    private ChequeLine newChequeLine(Cheque cheque, Long menuId, BigDecimal unitPrice, int quantity) {
+        ChequeLine chequeLine = new ChequeLine();
+        chequeLine.setMenuItem(menuItemRepository.getReferenceById(menuId));
+        chequeLine.setQuantity(quantity);
+        chequeLine.setUnitPrice(unitPrice);
+        chequeLine.setLineTotal(unitPrice.multiply(BigDecimal.valueOf(quantity)));
+        chequeLine.setCheque(cheque);
+        cheque.addChequeLine(chequeLine);
+        return chequeLine;
+    }
 
+    private static Map<Long, Long> quantities(List<Long> menuIds) {
+        if (menuIds == null) {
+            return Map.of();
+        }
+        return menuIds.stream()
+                .collect(Collectors.groupingBy(Function.identity(), LinkedHashMap::new, Collectors.counting()));
+    }
+
+    private BigDecimal linesTotal(Cheque cheque) {
+        return cheque.getChequeLines().stream().map(ChequeLine::getLineTotal).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    /**
+     * Stores the subtotal, the restaurant's service charge and the grand total in cents. The charge is
+     * rounded once, half up, from the exact subtotal, so the grand total is always their exact sum.
+     */
+    private void applyTotals(Cheque cheque, BigDecimal subtotal) {
+        Integer service = cheque.getUser().getRestaurant().getService();
+        BigDecimal roundedSubtotal = subtotal.setScale(MONEY_SCALE, RoundingMode.HALF_UP);
+        BigDecimal serviceCharge = roundedSubtotal.multiply(BigDecimal.valueOf(service == null ? 0 : service))
+                .divide(ONE_HUNDRED, MONEY_SCALE, RoundingMode.HALF_UP);
+        cheque.setSubtotal(roundedSubtotal);
+        cheque.setServiceCharge(serviceCharge);
+        cheque.setGrandTotal(roundedSubtotal.add(serviceCharge));
+    }
+
+    private BigDecimal grandTotal(Cheque cheque) {
+        return cheque.getGrandTotal();
+    }
 
+    private void publishChanged(Cheque cheque) {
+        eventPublisher.publishEvent(new ChequesChangedEvent(cheque.getUser().getRestaurant().getId(), cheque.getCreatedAd()));
+    }
+
+    private void recordRevenue(Cheque cheque, int chequeDelta, BigDecimal revenueDelta) {
+        dailyRevenueRepository.addRevenue(cheque.getUser().getId(), cheque.getUser().getRestaurant().getId(),
+                cheque.getCreatedAd(), chequeDelta, revenueDelta);
+    }
+
+    @Override
+    public SimpleResponse1 oneDayAveragePrice(OneDayAvaragePriceRequest request) {
+        LocalDate day = request.localDate() == null ? LocalDate.now() : request.localDate();
+        return revenue(request.id(), day, day);
+    }
+
+    @Override
+    public SimpleResponse1 revenue(Long waiterId, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("Start date must not be after end date");
+        }
+        WaiterResponse waiter = userRepository.findByWaiterId(waiterId, Role.WAITER).
+                orElseThrow(() -> new NotFoundException(String.format("Waiter with id: %d doesn't exist", waiterId)));
+
+        SimpleResponse1 simpleResponse1 = new SimpleResponse1();
+        simpleResponse1.setFullName(waiter.firstName() + " " + waiter.lastName());
+        simpleResponse1.setTotalPrice(dailyRevenueRepository.sumRevenue(waiterId, from, to));
+        return simpleResponse1;
+    }
 }
@@ -0,0 +1,120 @@
+package peaksoft.services.impl;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import peaksoft.dto.responses.KitchenMetricsResponse;
+import peaksoft.dto.responses.KitchenTicketResponse;
+import peaksoft.dto.responses.SimpleResponse;
+import peaksoft.entity.Cheque;
+import peaksoft.entity.KitchenTicket;
+import peaksoft.enums.TicketStatus;
+import peaksoft.event.KitchenTicketChangedEvent;
+import peaksoft.exeption.BadRequestException;
+import peaksoft.exeption.NotFoundException;
+import peaksoft.repositories.KitchenTicketRepository;
+import peaksoft.repositories.RestaurantRepository;
+import peaksoft.services.KitchenTicketService;
+import peaksoft.stream.KitchenTicketHub;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Service
+public class KitchenTicketServiceImpl implements KitchenTicketService {
+    private final KitchenTicketRepository kitchenTicketRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final KitchenTicketHub kitchenTicketHub;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public KitchenTicketServiceImpl(KitchenTicketRepository kitchenTicketRepository, RestaurantRepository restaurantRepository,
+                                    KitchenTicketHub kitchenTicketHub, ApplicationEventPublisher eventPublisher) {
+        this.kitchenTicketRepository = kitchenTicketRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.kitchenTicketHub = kitchenTicketHub;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Queues a ticket for a new cheque; must run in the transaction that saves the cheque.
+     */
+    @Override
+    @Transactional
+    public void open(Cheque cheque, Long restaurantId) {
+        KitchenTicket ticket = new KitchenTicket();
+        ticket.setCheque(cheque);
+        ticket.setRestaurantId(restaurantId);
+        ticket.setStatus(TicketStatus.QUEUED);
+        ticket.setCreatedAt(LocalDateTime.now());
+        kitchenTicketRepository.save(ticket);
+        eventPublisher.publishEvent(new KitchenTicketChangedEvent(restaurantId, ticket.getId()));
+    }
+
+    @Override
+    @Transactional
+    public void chequeChanged(Long chequeId) {
+        kitchenTicketRepository.findByCheque_Id(chequeId).ifPresent(ticket ->
+                eventPublisher.publishEvent(new KitchenTicketChangedEvent(ticket.getRestaurantId(), ticket.getId())));
+    }
+
+    @Override
+    @Transactional
+    public void close(Long chequeId) {
+        kitchenTicketRepository.findByCheque_Id(chequeId).ifPresent(ticket -> {
+            kitchenTicketRepository.delete(ticket);
+            eventPublisher.publishEvent(new KitchenTicketChangedEvent(ticket.getRestaurantId(), ticket.getId()));
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<KitchenTicketResponse> findOpen(Long restId) {
+        checkRestaurant(restId);
+        return kitchenTicketHub.openTickets(restId);
+    }
+
+    @Override
+    public SseEmitter stream(Long restId) {
+        checkRestaurant(restId);
+        return kitchenTicketHub.subscribe(restId);
+    }
+
+    @Override
+    @Transactional
+    public SimpleResponse changeStatus(Long ticketId, TicketStatus status) {
+        KitchenTicket ticket = kitchenTicketRepository.findById(ticketId).orElseThrow(() -> new NotFoundException(
+                String.format("Kitchen ticket with id: %d doesn't exist", ticketId)));
+        if (status == null || status.ordinal() != ticket.getStatus().ordinal() + 1) {
+            throw new BadRequestException(String.format("Kitchen ticket with id: %d is %s and can't become %s",
+                    ticketId, ticket.getStatus(), status));
+        }
+        ticket.setStatus(status);
+        if (status == TicketStatus.COOKING) {
+            ticket.setCookingAt(LocalDateTime.now());
+        } else {
+            ticket.setReadyAt(LocalDateTime.now());
+        }
+        eventPublisher.publishEvent(new KitchenTicketChangedEvent(ticket.getRestaurantId(), ticketId));
+        return SimpleResponse.builder()
+                .status(HttpStatus.OK)
+                .message(String.format("Kitchen ticket with id: %d is %s", ticketId, status))
+                .build();
+    }
+
+    @Override
+    public KitchenMetricsResponse metrics() {
+        return kitchenTicketHub.metrics();
+    }
+
+    private void checkRestaurant(Long restId) {
+        if (!restaurantRepository.existsById(restId)) {
+            throw new NotFoundException(String.format("Restaurant with id: %d doesn't exist", restId));
+        }
+    }
+}
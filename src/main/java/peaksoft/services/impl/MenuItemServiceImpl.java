@@ -1,25 +1,38 @@
 package peaksoft.services.impl;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import peaksoft.cache.MenuCatalog;
+import peaksoft.cache.MenuCatalogSnapshot;
 import peaksoft.dto.requests.MenuRequest;
+import peaksoft.dto.responses.CatalogCategoryResponse;
+import peaksoft.dto.responses.CursorPageResponse;
 import peaksoft.dto.responses.ManuResponse;
+import peaksoft.dto.responses.MenuCatalogMetricsResponse;
 import peaksoft.dto.responses.MenuItemResponseSearch;
 import peaksoft.dto.responses.PaginationResponseMenu;
 import peaksoft.dto.responses.SimpleResponse;
 import peaksoft.entity.MenuItem;
 import peaksoft.entity.Restaurant;
 import peaksoft.entity.SubCategory;
+import peaksoft.enums.MenuChangeType;
+import peaksoft.event.MenuChangedEvent;
 import peaksoft.exeption.BadRequestException;
 import peaksoft.exeption.NotFoundException;
+import peaksoft.pagination.CursorPages;
+import peaksoft.pagination.PageCursor;
 import peaksoft.repositories.MenuItemRepository;
 import peaksoft.repositories.RestaurantRepository;
 import peaksoft.repositories.SubCategoryRepository;
+import peaksoft.search.MenuSearchIndex;
 import peaksoft.services.MenuItemService;
+import peaksoft.stream.MenuEventHub;
 
 import java.util.List;
 
@@ -32,21 +45,32 @@ public class MenuItemServiceImpl implements MenuItemService {
     private final RestaurantRepository restaurantRepository;
     private final MenuItemRepository menuItemRepository;
     private final SubCategoryRepository subCategoryRepository;
+    private final MenuSearchIndex menuSearchIndex;
+    private final MenuCatalog menuCatalog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MenuEventHub menuEventHub;
 
     public MenuItemServiceImpl(RestaurantRepository restaurantRepository, MenuItemRepository menuItemRepository,
-                               SubCategoryRepository subCategoryRepository) {
+                               SubCategoryRepository subCategoryRepository, MenuSearchIndex menuSearchIndex,
+                               MenuCatalog menuCatalog, ApplicationEventPublisher eventPublisher,
+                               MenuEventHub menuEventHub) {
         this.restaurantRepository = restaurantRepository;
         this.menuItemRepository = menuItemRepository;
         this.subCategoryRepository = subCategoryRepository;
+        this.menuSearchIndex = menuSearchIndex;
+        this.menuCatalog = menuCatalog;
+        this.eventPublisher = eventPublisher;
+        this.menuEventHub = menuEventHub;
     }
 
     @Override
+    @Transactional
     public SimpleResponse saveManu(Long restId, Long subCategoryId, MenuRequest request) {
         if (!restaurantRepository.existsById(restId)){
             throw new NotFoundException(String.format("Restaurant with id: %d doesnt exist", restId));
         }
 
-        Restaurant restaurant = restaurantRepository.findById(restId).orElseThrow();
+        Restaurant restaurant = restaurantRepository.getReferenceById(restId);
 
 
         MenuItem menuItem = new MenuItem();
@@ -63,10 +87,9 @@ public class MenuItemServiceImpl implements MenuItemService {
         SubCategory subCategory = subCategoryRepository.findById(subCategoryId).orElseThrow();
         menuItem.setSubCategory(subCategory);
 
-        subCategory.addMenuItem(menuItem);
-        restaurant.addMenu(menuItem);
         menuItem.setRestaurant(restaurant);
         menuItemRepository.save(menuItem);
+        eventPublisher.publishEvent(new MenuChangedEvent(restId, MenuChangeType.ADDED, menuItem.getId()));
         return SimpleResponse.builder().status(HttpStatus.OK).message(
                 String.format("Manu with name: %s successfully SAVED", request.name())).build();
     }
@@ -74,9 +97,9 @@ public class MenuItemServiceImpl implements MenuItemService {
     @Override
     public List<ManuResponse> findAllMenus(Long restId, String sort, Boolean isVegetarian) {
         if (sort.equals("ASC")) {
-            return menuItemRepository.findAllMenusAsc(restId, isVegetarian);
+            return menuCatalog.current().menus(restId, isVegetarian, true);
         } else if (sort.equals("DESC")) {
-            return menuItemRepository.findAllMenusDesc(restId, isVegetarian);
+            return menuCatalog.current().menus(restId, isVegetarian, false);
         }else {
             throw new BadRequestException("Tuura jaz!!!");
         }
@@ -84,12 +107,13 @@ public class MenuItemServiceImpl implements MenuItemService {
 
     @Override
     public ManuResponse findByMenuId(Long menuId) {
-        return menuItemRepository.findByMenuId(menuId).orElseThrow(() -> new NotFoundException(
+        return menuCatalog.current().menu(menuId).orElseThrow(() -> new NotFoundException(
                 String.format("Menu with id: %d doesn't exist", menuId)
         ));
     }
 
     @Override
+    @Transactional
     public SimpleResponse updateMenu(Long menuId, MenuRequest request) {
         if (!menuItemRepository.existsById(menuId)){
             throw new NotFoundException("Menu with id:" + menuId + " doesn't exist");
@@ -105,21 +129,26 @@ public class MenuItemServiceImpl implements MenuItemService {
         menuItem.setIsVegetarian(request.isVegetarian());
 
         menuItemRepository.save(menuItem);
+        eventPublisher.publishEvent(new MenuChangedEvent(menuItem.getRestaurant().getId(), MenuChangeType.UPDATED, menuId));
         return SimpleResponse.builder().status(HttpStatus.OK).message(
                 String.format("Menu with name: %s successfully UPDATED", request.name())).build();
     }
 
     @Override
+    @Transactional
     public SimpleResponse deleteManu(Long restId, Long menuId) {
-        Restaurant restaurant = restaurantRepository.findById(restId).orElseThrow(() -> new NotFoundException(
-                String.format("Restaurant with id: %d doesn't exist", menuId)));
+        if (!restaurantRepository.existsById(restId)) {
+            throw new NotFoundException(String.format("Restaurant with id: %d doesn't exist", restId));
+        }
         MenuItem menuItem = menuItemRepository.findById(menuId).orElseThrow(() -> new NotFoundException(
                 String.format("Menu with id: %d doesn't exist", menuId)
         ));
-
-        restaurant.getMenuItems().removeIf(m -> m.getId().equals(menuId));
+        if (!menuItem.getRestaurant().getId().equals(restId)) {
+            throw new BadRequestException(String.format("Menu with id: %d doesn't belong to restaurant with id: %d", menuId, restId));
+        }
 
         menuItemRepository.delete(menuItem);
+        eventPublisher.publishEvent(new MenuChangedEvent(restId, MenuChangeType.DELETED, menuId));
         return SimpleResponse.builder()
                 .status(HttpStatus.OK)
                 .message(String.format("Menu with id: %d id successfully DELETED", menuId)).build();
@@ -127,8 +156,8 @@ public class MenuItemServiceImpl implements MenuItemService {
 
     @Override
     public PaginationResponseMenu getMenuPage(Long subId, int page, int size) {
-        Pageable pageable = PageRequest.of(page-1, size, Sort.by("name"));
-        Page<ManuResponse> allBy = menuItemRepository.findAllBySubCategory_Id(subId, pageable);
+        Pageable pageable = PageRequest.of(page-1, size);
+        Page<ManuResponse> allBy = MenuCatalog.page(menuCatalog.current().menusOfSubCategory(subId), pageable);
 
         PaginationResponseMenu responseMenu = new PaginationResponseMenu();
         responseMenu.setManuResponses(allBy.getContent());
@@ -138,7 +167,37 @@ public class MenuItemServiceImpl implements MenuItemService {
     }
 
     @Override
-    public List<MenuItemResponseSearch> search(String keyWord) {
-        return menuItemRepository.search(keyWord);
+    public CursorPageResponse<ManuResponse> getMenuCursorPage(Long subId, String cursor, int size, boolean withTotal) {
+        return CursorPages.page(menuCatalog.current().menusOfSubCategory(subId), MenuCatalogSnapshot.NAME_ORDER,
+                m -> new PageCursor(m.name(), m.id()), PageCursor.decode(cursor), size, withTotal);
+    }
+
+    @Override
+    public List<MenuItemResponseSearch> search(String keyWord, Long restId, int page, int size) {
+        if (page < 1 || size < 1) {
+            throw new BadRequestException("Page and size must be greater than 0");
+        }
+        return menuSearchIndex.search(keyWord, restId, page, size);
+    }
+
+    @Override
+    public List<CatalogCategoryResponse> getCatalog(Long restId) {
+        if (!restaurantRepository.existsById(restId)) {
+            throw new NotFoundException(String.format("Restaurant with id: %d doesn't exist", restId));
+        }
+        return menuCatalog.current().tree(restId);
+    }
+
+    @Override
+    public MenuCatalogMetricsResponse getCatalogMetrics() {
+        return menuCatalog.metrics();
+    }
+
+    @Override
+    public SseEmitter streamChanges(Long restId, String lastEventId) {
+        if (!restaurantRepository.existsById(restId)) {
+            throw new NotFoundException(String.format("Restaurant with id: %d doesnt exist", restId));
+        }
+        return menuEventHub.subscribe(restId, lastEventId);
     }
 }
@@ -0,0 +1,306 @@
+package peaksoft.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import peaksoft.dto.responses.MenuImportErrorResponse;
+import peaksoft.dto.responses.MenuImportResponse;
+import peaksoft.entity.Category;
+import peaksoft.entity.MenuItem;
+import peaksoft.entity.SubCategory;
+import peaksoft.enums.MenuTransferFormat;
+import peaksoft.event.MenuChangedEvent;
+import peaksoft.exeption.BadRequestException;
+import peaksoft.exeption.NotFoundException;
+import peaksoft.repositories.CategoryRepository;
+import peaksoft.repositories.MenuItemRepository;
+import peaksoft.repositories.RestaurantRepository;
+import peaksoft.repositories.SubCategoryRepository;
+import peaksoft.services.MenuTransferService;
+import peaksoft.transfer.MenuRowReader;
+import peaksoft.transfer.MenuRowWriter;
+import peaksoft.transfer.MenuTransferRow;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Bulk menu import and export.
+ * <p>
+ * Import reads one row at a time and upserts valid rows in chunks of {@link #CHUNK_SIZE},
+ * each chunk in its own transaction, so memory use does not depend on the file size. Items
+ * are matched by name (case-insensitive) within the restaurant; categories and
+ * sub-categories are matched by name and created when missing. A chunk that fails to commit
+ * is replayed row by row, so one bad row only costs that row.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Service
+public class MenuTransferServiceImpl implements MenuTransferService {
+    private static final int CHUNK_SIZE = 50;
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final List<String> OPTIONAL_COLUMNS = List.of("image", "description", "isVegetarian");
+
+    private final RestaurantRepository restaurantRepository;
+    private final MenuItemRepository menuItemRepository;
+    private final CategoryRepository categoryRepository;
+    private final SubCategoryRepository subCategoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public MenuTransferServiceImpl(RestaurantRepository restaurantRepository, MenuItemRepository menuItemRepository,
+                                   CategoryRepository categoryRepository, SubCategoryRepository subCategoryRepository,
+                                   PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                                   ApplicationEventPublisher eventPublisher) {
+        this.restaurantRepository = restaurantRepository;
+        this.menuItemRepository = menuItemRepository;
+        this.categoryRepository = categoryRepository;
+        this.subCategoryRepository = subCategoryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public MenuImportResponse importMenus(Long restId, MenuTransferFormat format, InputStream in) throws IOException {
+        // each chunk commits on its own, so there is no surrounding transaction to read the primary in
+        if (!Boolean.TRUE.equals(transactionTemplate.execute(status -> restaurantRepository.existsById(restId)))) {
+            throw new NotFoundException(String.format("Restaurant with id: %d doesn't exist", restId));
+        }
+        Report report = new Report();
+        Map<String, Long> subCategoryIds = new HashMap<>();
+        List<NumberedRow> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        try (MenuRowReader reader = open(format, in)) {
+            while (true) {
+                MenuTransferRow row;
+                try {
+                    row = reader.next();
+                } catch (IllegalArgumentException e) {
+                    report.fail(reader.rowNumber(), e.getMessage());
+                    continue;
+                } catch (IOException e) {
+                    report.fail(reader.rowNumber() + 1, "Input is malformed, import stopped: " + e.getMessage());
+                    break;
+                }
+                if (row == null) {
+                    break;
+                }
+                String problem = validate(row);
+                if (problem != null) {
+                    report.fail(reader.rowNumber(), problem);
+                    continue;
+                }
+                Set<String> columns = new HashSet<>();
+                OPTIONAL_COLUMNS.stream().filter(reader::hasColumn).forEach(columns::add);
+                chunk.add(new NumberedRow(reader.rowNumber(), row, columns));
+                if (chunk.size() == CHUNK_SIZE) {
+                    flush(restId, chunk, subCategoryIds, report);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                flush(restId, chunk, subCategoryIds, report);
+            }
+        } finally {
+            if (report.created + report.updated > 0) {
+                eventPublisher.publishEvent(new MenuChangedEvent(restId));
+            }
+        }
+        return report.toResponse();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportMenus(Long restId, MenuTransferFormat format, HttpServletResponse response) throws IOException {
+        if (!restaurantRepository.existsById(restId)) {
+            throw new NotFoundException(String.format("Restaurant with id: %d doesn't exist", restId));
+        }
+        response.setContentType(format == MenuTransferFormat.CSV ? "text/csv;charset=UTF-8" : MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                String.format("attachment; filename=\"menu-%d.%s\"", restId, format.name().toLowerCase(Locale.ROOT)));
+        try (Stream<MenuTransferRow> rows = menuItemRepository.streamTransferRows(restId);
+             MenuRowWriter writer = MenuRowWriter.open(format, response.getOutputStream(), objectMapper)) {
+            for (Iterator<MenuTransferRow> it = rows.iterator(); it.hasNext(); ) {
+                writer.write(it.next());
+            }
+        }
+    }
+
+    private MenuRowReader open(MenuTransferFormat format, InputStream in) throws IOException {
+        try {
+            return MenuRowReader.open(format, in, objectMapper);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+
+    private static String validate(MenuTransferRow row) {
+        if (row.name() == null) {
+            return "Name is required";
+        }
+        if (row.category() == null || row.subCategory() == null) {
+            return "Category and sub category are required";
+        }
+        if (row.price() == null) {
+            return "Price is required";
+        }
+        if (row.price().signum() < 0) {
+            return "Price must be greater than 0";
+        }
+        return null;
+    }
+
+    private void flush(Long restId, List<NumberedRow> chunk, Map<String, Long> subCategoryIds, Report report) {
+        Map<String, Long> resolved;
+        try {
+            resolved = resolveSubCategories(chunk, subCategoryIds);
+        } catch (RuntimeException e) {
+            chunk.forEach(row -> report.fail(row.number(), "Category could not be saved: " + e.getMessage()));
+            return;
+        }
+        try {
+            int[] counts = transactionTemplate.execute(status -> upsert(restId, chunk, resolved));
+            report.created += counts[0];
+            report.updated += counts[1];
+        } catch (RuntimeException chunkFailure) {
+            for (NumberedRow row : chunk) {
+                try {
+                    int[] counts = transactionTemplate.execute(status -> upsert(restId, List.of(row), resolved));
+                    report.created += counts[0];
+                    report.updated += counts[1];
+                } catch (RuntimeException e) {
+                    report.fail(row.number(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds or creates the category and sub-category of every row in the chunk. Runs in its own
+     * transaction so the ids stay valid even if the item upsert is rolled back.
+     */
+    private Map<String, Long> resolveSubCategories(List<NumberedRow> chunk, Map<String, Long> subCategoryIds) {
+        Map<String, MenuTransferRow> missing = new LinkedHashMap<>();
+        for (NumberedRow row : chunk) {
+            String key = subCategoryKey(row.row());
+            if (!subCategoryIds.containsKey(key)) {
+                missing.putIfAbsent(key, row.row());
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<String, Long> created = transactionTemplate.execute(status -> {
+                Map<String, Long> ids = new HashMap<>();
+                missing.forEach((key, row) -> ids.put(key, findOrCreateSubCategory(row).getId()));
+                return ids;
+            });
+            subCategoryIds.putAll(created);
+        }
+        return subCategoryIds;
+    }
+
+    private SubCategory findOrCreateSubCategory(MenuTransferRow row) {
+        Category category = categoryRepository.findFirstByNameIgnoreCase(row.category()).orElseGet(() -> {
+            Category newCategory = new Category();
+            newCategory.setName(row.category());
+            return categoryRepository.save(newCategory);
+        });
+        return subCategoryRepository.findFirstByCategory_IdAndNameIgnoreCase(category.getId(), row.subCategory())
+                .orElseGet(() -> {
+                    SubCategory subCategory = new SubCategory();
+                    subCategory.setName(row.subCategory());
+                    subCategory.setCategory(category);
+                    return subCategoryRepository.save(subCategory);
+                });
+    }
+
+    /**
+     * @return number of created and updated items
+     */
+    private int[] upsert(Long restId, List<NumberedRow> rows, Map<String, Long> subCategoryIds) {
+        Set<String> names = new HashSet<>();
+        rows.forEach(row -> names.add(row.row().name().toLowerCase(Locale.ROOT)));
+        Map<String, MenuItem> existing = new HashMap<>();
+        for (MenuItem menuItem : menuItemRepository.findAllByRestaurantAndLowerNames(restId, names)) {
+            existing.putIfAbsent(menuItem.getName().toLowerCase(Locale.ROOT), menuItem);
+        }
+
+        int created = 0;
+        int updated = 0;
+        List<MenuItem> newItems = new ArrayList<>();
+        for (NumberedRow numbered : rows) {
+            MenuTransferRow row = numbered.row();
+            String key = row.name().toLowerCase(Locale.ROOT);
+            MenuItem menuItem = existing.get(key);
+            if (menuItem == null) {
+                menuItem = new MenuItem();
+                menuItem.setRestaurant(restaurantRepository.getReferenceById(restId));
+                existing.put(key, menuItem);
+                newItems.add(menuItem);
+                created++;
+            } else if (!newItems.contains(menuItem)) {
+                updated++;
+            }
+            menuItem.setName(row.name());
+            menuItem.setPrice(row.price());
+            // an optional column left out of the file keeps what the item already has
+            if (numbered.columns().contains("image")) {
+                menuItem.setImage(row.image());
+            }
+            if (numbered.columns().contains("description")) {
+                menuItem.setDescription(row.description());
+            }
+            if (numbered.columns().contains("isVegetarian")) {
+                menuItem.setIsVegetarian(row.isVegetarian());
+            }
+            menuItem.setSubCategory(subCategoryRepository.getReferenceById(subCategoryIds.get(subCategoryKey(row))));
+        }
+        menuItemRepository.saveAll(newItems);
+        return new int[]{created, updated};
+    }
+
+    private static String subCategoryKey(MenuTransferRow row) {
+        return row.category().toLowerCase(Locale.ROOT) + '\u0000' + row.subCategory().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param columns the optional columns the row was given, see {@link #OPTIONAL_COLUMNS}
+     */
+    private record NumberedRow(long number, MenuTransferRow row, Set<String> columns) {
+    }
+
+    private static final class Report {
+        private long created;
+        private long updated;
+        private long failed;
+        private final List<MenuImportErrorResponse> errors = new ArrayList<>();
+
+        void fail(long row, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new MenuImportErrorResponse(row, message));
+            }
+        }
+
+        MenuImportResponse toResponse() {
+            return MenuImportResponse.builder()
+                    .total(created + updated + failed)
+                    .created(created)
+                    .updated(updated)
+                    .failed(failed)
+                    .errors(errors)
+                    .build();
+        }
+    }
+}
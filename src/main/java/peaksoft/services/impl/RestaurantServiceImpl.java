@@ -2,6 +2,8 @@ package peaksoft.services.impl;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import peaksoft.config.jwt.PrincipalCache;
 import peaksoft.dto.requests.RestaurantRequest;
 import peaksoft.dto.responses.RestaurantResponse;
 import peaksoft.dto.responses.SimpleResponse;
@@ -21,16 +23,18 @@ import java.util.List;
 public class RestaurantServiceImpl implements RestaurantService {
 
     private final RestaurantRepository restaurantRepository;
+    private final PrincipalCache principalCache;
 
-    public RestaurantServiceImpl(RestaurantRepository restaurantRepository) {
+    public RestaurantServiceImpl(RestaurantRepository restaurantRepository, PrincipalCache principalCache) {
         this.restaurantRepository = restaurantRepository;
+        this.principalCache = principalCache;
     }
 
     @Override
+    @Transactional
     public SimpleResponse saveRestaurant(RestaurantRequest request) {
 
-        List<Restaurant> all = restaurantRepository.findAll();
-        if (all.size() > 0){
+        if (restaurantRepository.count() > 0){
             throw new BadRequestException("Only one restaurant saved only!!!");
         }
 
@@ -50,6 +54,7 @@ public class RestaurantServiceImpl implements RestaurantService {
 
 
     @Override
+    @Transactional(readOnly = true)
     public List<RestaurantResponse> findAll() {
         return restaurantRepository.findAllRestaurants();
     }
@@ -57,6 +62,7 @@ public class RestaurantServiceImpl implements RestaurantService {
 
 
     @Override
+    @Transactional
     public SimpleResponse deleteRestaurant(Long restId) {
 
         if (!restaurantRepository.existsById(restId)) {
@@ -65,6 +71,8 @@ public class RestaurantServiceImpl implements RestaurantService {
 
 
         restaurantRepository.deleteById(restId);
+        // deleting a restaurant cascades to its staff
+        principalCache.revokeAll();
         return SimpleResponse.builder()
                 .status(HttpStatus.OK)
                 .message(String.format("Restaurant with id: %d is successfully deleted.", restId))
@@ -72,6 +80,7 @@ public class RestaurantServiceImpl implements RestaurantService {
     }
 
     @Override
+    @Transactional
     public SimpleResponse updateRestaurant(Long restaurantId, RestaurantRequest restaurantRequest) {
         Restaurant restaurant = restaurantRepository.findById(restaurantId)
                 .orElseThrow(() -> new NotFoundException(
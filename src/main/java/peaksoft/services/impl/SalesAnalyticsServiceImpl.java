@@ -0,0 +1,176 @@
+package peaksoft.services.impl;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import peaksoft.dto.responses.SalesAnalyticsResponse;
+import peaksoft.dto.responses.SalesBreakdownResponse;
+import peaksoft.dto.responses.SalesPeriodResponse;
+import peaksoft.enums.AnalyticsGranularity;
+import peaksoft.event.ChequesChangedEvent;
+import peaksoft.exeption.BadRequestException;
+import peaksoft.exeption.NotFoundException;
+import peaksoft.repositories.RestaurantRepository;
+import peaksoft.repositories.SalesAnalyticsRepository;
+import peaksoft.repositories.SalesAnalyticsRepository.SalesRow;
+import peaksoft.services.SalesAnalyticsService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sales per period, waiter, category and menu item of one restaurant. All aggregation happens in
+ * PostgreSQL in one round trip; reports of periods that ended before today are kept in a small LRU
+ * cache. Past cheques can still be edited, deleted or archived, so a {@link ChequesChangedEvent}
+ * drops the restaurant's reports covering the changed day. A replica that is behind such a change
+ * would not be caught by the event, so the cached reports are built on the primary; reports of
+ * open periods are rebuilt on every call and may read the replica.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Service
+public class SalesAnalyticsServiceImpl implements SalesAnalyticsService {
+    private static final int MAX_CACHED_REPORTS = 256;
+    private static final int MAX_TOP = 100;
+    private static final long MAX_DAYS = 3660;
+
+    private final SalesAnalyticsRepository salesAnalyticsRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final Map<ReportKey, SalesAnalyticsResponse> closedReports = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ReportKey, SalesAnalyticsResponse> eldest) {
+            return size() > MAX_CACHED_REPORTS;
+        }
+    };
+    private final TransactionTemplate replicaRead;
+    private final TransactionTemplate primaryRead;
+    private long generation;
+
+    public SalesAnalyticsServiceImpl(SalesAnalyticsRepository salesAnalyticsRepository, RestaurantRepository restaurantRepository,
+                                     PlatformTransactionManager transactionManager) {
+        this.salesAnalyticsRepository = salesAnalyticsRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.replicaRead = new TransactionTemplate(transactionManager);
+        this.replicaRead.setReadOnly(true);
+        this.primaryRead = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public SalesAnalyticsResponse getSales(Long restId, LocalDate from, LocalDate to, AnalyticsGranularity granularity, int top) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("Start date must not be after end date");
+        }
+        if (from.plusDays(MAX_DAYS).isBefore(to)) {
+            throw new BadRequestException(String.format("Period must not be longer than %d days", MAX_DAYS));
+        }
+        if (top < 1 || top > MAX_TOP) {
+            throw new BadRequestException(String.format("Top must be between 1 and %d", MAX_TOP));
+        }
+        ReportKey key = new ReportKey(restId, from, to, granularity, top);
+        if (!to.isBefore(LocalDate.now())) {
+            return replicaRead.execute(status -> {
+                requireRestaurant(restId);
+                return build(key);
+            });
+        }
+        return primaryRead.execute(status -> {
+            requireRestaurant(restId);
+            return closedReport(key);
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChequesChanged(ChequesChangedEvent event) {
+        synchronized (closedReports) {
+            generation++;
+            closedReports.keySet().removeIf(key -> (event.restaurantId() == null || key.restId().equals(event.restaurantId()))
+                    && (event.day() == null || !event.day().isBefore(key.from()) && !event.day().isAfter(key.to())));
+        }
+    }
+
+    private void requireRestaurant(Long restId) {
+        if (!restaurantRepository.existsById(restId)) {
+            throw new NotFoundException(String.format("Restaurant with id: %d doesn't exist", restId));
+        }
+    }
+
+    private SalesAnalyticsResponse closedReport(ReportKey key) {
+        long builtAt;
+        synchronized (closedReports) {
+            SalesAnalyticsResponse cached = closedReports.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            builtAt = generation;
+        }
+        SalesAnalyticsResponse report = build(key);
+        synchronized (closedReports) {
+            // a change committed while building may not be in the report, so it is not kept
+            if (generation == builtAt) {
+                closedReports.put(key, report);
+            }
+        }
+        return report;
+    }
+
+    private SalesAnalyticsResponse build(ReportKey key) {
+        List<SalesPeriodResponse> periods = new ArrayList<>();
+        List<SalesBreakdownResponse> waiters = new ArrayList<>();
+        List<SalesBreakdownResponse> categories = new ArrayList<>();
+        List<SalesBreakdownResponse> menuItems = new ArrayList<>();
+        long cheques = 0;
+        BigDecimal revenue = BigDecimal.ZERO;
+
+        for (SalesRow row : salesAnalyticsRepository.findSales(key.restId(), key.from(), key.to(), key.granularity())) {
+            switch (row.dimension()) {
+                case "PERIOD" -> {
+                    periods.add(new SalesPeriodResponse(row.period(), row.cheques(), row.revenue()));
+                    cheques += row.cheques();
+                    revenue = revenue.add(row.revenue());
+                }
+                case "WAITER" -> waiters.add(breakdown(row));
+                case "CATEGORY" -> categories.add(breakdown(row));
+                case "MENU_ITEM" -> menuItems.add(breakdown(row));
+                default -> throw new IllegalStateException("Unknown sales dimension " + row.dimension());
+            }
+        }
+        Comparator<SalesBreakdownResponse> byRevenue = Comparator.comparing(SalesBreakdownResponse::revenue).reversed();
+        periods.sort(Comparator.comparing(SalesPeriodResponse::period));
+        waiters.sort(byRevenue);
+        categories.sort(byRevenue);
+        menuItems.sort(byRevenue);
+        List<SalesBreakdownResponse> topSellers = menuItems.stream()
+                .sorted(Comparator.comparing(SalesBreakdownResponse::quantity, Comparator.nullsLast(Comparator.reverseOrder()))
+                        .thenComparing(byRevenue))
+                .limit(key.top())
+                .toList();
+
+        return SalesAnalyticsResponse.builder()
+                .restaurantId(key.restId())
+                .from(key.from())
+                .to(key.to())
+                .granularity(key.granularity())
+                .cheques(cheques)
+                .revenue(revenue)
+                .periods(List.copyOf(periods))
+                .waiters(List.copyOf(waiters))
+                .categories(List.copyOf(categories))
+                .menuItems(List.copyOf(menuItems))
+                .topSellers(topSellers)
+                .build();
+    }
+
+    private static SalesBreakdownResponse breakdown(SalesRow row) {
+        return new SalesBreakdownResponse(row.id(), row.name(), row.cheques(), row.quantity(), row.revenue());
+    }
+
+    private record ReportKey(Long restId, LocalDate from, LocalDate to, AnalyticsGranularity granularity, int top) {
+    }
+}
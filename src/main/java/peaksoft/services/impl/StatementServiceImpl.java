@@ -3,6 +3,8 @@ package peaksoft.services.impl;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import peaksoft.config.jwt.PrincipalCache;
 import peaksoft.dto.requests.StatementRequest;
 import peaksoft.dto.responses.SimpleResponse;
 import peaksoft.dto.responses.StatementResponse;
@@ -28,14 +30,18 @@ public class StatementServiceImpl implements StatementService {
     private final UserRepository userRepository;
     private final RestaurantRepository restaurantRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
 
-    public StatementServiceImpl(UserRepository userRepository, RestaurantRepository restaurantRepository, PasswordEncoder passwordEncoder) {
+    public StatementServiceImpl(UserRepository userRepository, RestaurantRepository restaurantRepository, PasswordEncoder passwordEncoder,
+                                PrincipalCache principalCache) {
         this.userRepository = userRepository;
         this.restaurantRepository = restaurantRepository;
         this.passwordEncoder = passwordEncoder;
+        this.principalCache = principalCache;
     }
 
     @Override
+    @Transactional
     public SimpleResponse saveStatement(StatementRequest request) {
         User user = new User();
         user.setFirstName(request.firstName());
@@ -61,6 +67,7 @@ public class StatementServiceImpl implements StatementService {
     }
 
     @Override
+    @Transactional(noRollbackFor = BadRequestException.class)
     public SimpleResponse acceptOrDelete(Long restId, Long newStateId, Boolean acceptOrDel) {
         if (!restaurantRepository.existsById(restId)) {
             throw new NotFoundException(String.format("Restaurant with id: %d is not found", restId));
@@ -77,8 +84,7 @@ public class StatementServiceImpl implements StatementService {
 
         if (acceptOrDel) {
             if (user.getRole().equals(Role.CHEF)) {
-                restaurant.addChef(user);
-                int count = restaurant.getUsers().size();
+                int count = userRepository.countByRestaurant_Id(restId) + 1;
                 if (count > 14) {
                     throw new BadRequestException("Sorry we haven't run out of vacancies");
                 }
@@ -86,15 +92,14 @@ public class StatementServiceImpl implements StatementService {
                 userRepository.save(user);
                 restaurant.setNumberOfEmployees(++count);
                 restaurantRepository.save(restaurant);
+                principalCache.revoke(newStateId);
                 return SimpleResponse.builder().status(HttpStatus.OK)
                         .message(String.format("New Chef with full name: %s successfully SAVED",
                                 user.getFirstName().concat(" " + user.getLastName()))).build();
 
             } else if (user.getRole().equals(Role.WAITER)) {
 
-                restaurant.addWaiter(user);
-
-                int count = restaurant.getUsers().size();
+                int count = userRepository.countByRestaurant_Id(restId) + 1;
                 if (count > 14) {
                     throw new BadRequestException("Sorry we haven't run out of vacancies");
                 }
@@ -103,13 +108,16 @@ public class StatementServiceImpl implements StatementService {
                 restaurant.setNumberOfEmployees(++count);
                 userRepository.save(user);
                 restaurantRepository.save(restaurant);
+                principalCache.revoke(newStateId);
                 return SimpleResponse.builder().status(HttpStatus.OK)
                         .message(String.format("New Waiter with full name: %s successfully SAVED",
                                 user.getFirstName().concat(" " + user.getLastName()))).build();
             }
         }
 
+        // a rejected applicant is deleted and reported with the exception; noRollbackFor keeps the delete
         userRepository.delete(user);
+        principalCache.revoke(newStateId);
         throw new BadRequestException("Sorry we haven't run out of vacancies ");
     }
 }
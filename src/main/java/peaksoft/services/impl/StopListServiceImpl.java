@@ -1,18 +1,31 @@
 package peaksoft.services.impl;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import peaksoft.cache.StopListIndex;
 import peaksoft.dto.requests.StopListRequest;
 import peaksoft.dto.responses.SimpleResponse;
 import peaksoft.dto.responses.StopListResponse;
 import peaksoft.entity.MenuItem;
 import peaksoft.entity.StopList;
+import peaksoft.enums.MenuChangeType;
+import peaksoft.event.MenuChangedEvent;
+import peaksoft.event.StopListScheduler;
+import peaksoft.event.StopListWindow;
+import peaksoft.exeption.AlreadyExistException;
 import peaksoft.exeption.BadRequestException;
 import peaksoft.exeption.NotFoundException;
 import peaksoft.repositories.MenuItemRepository;
+import peaksoft.repositories.RestaurantRepository;
 import peaksoft.repositories.StopListRepository;
 import peaksoft.services.StopListService;
 
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -21,47 +34,67 @@ import java.util.List;
  */
 @Service
 public class StopListServiceImpl implements StopListService {
+    private static final String OVERLAP_MESSAGE = "Stop lists of one menu item must not overlap";
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
     private final StopListRepository stopListRepository;
     private final MenuItemRepository menuItemRepository;
-
-    public StopListServiceImpl(StopListRepository stopListRepository, MenuItemRepository menuItemRepository) {
+    private final RestaurantRepository restaurantRepository;
+    private final StopListIndex stopListIndex;
+    private final StopListScheduler stopListScheduler;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public StopListServiceImpl(StopListRepository stopListRepository, MenuItemRepository menuItemRepository,
+                               RestaurantRepository restaurantRepository, StopListIndex stopListIndex,
+                               StopListScheduler stopListScheduler, ApplicationEventPublisher eventPublisher) {
         this.stopListRepository = stopListRepository;
         this.menuItemRepository = menuItemRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.stopListIndex = stopListIndex;
+        this.stopListScheduler = stopListScheduler;
+        this.eventPublisher = eventPublisher;
     }
 
+    /**
+     * Saves a stop list window. The menu item row is locked first, so concurrent requests for the
+     * same item check for overlapping windows one after another.
+     */
     @Override
+    @Transactional
     public SimpleResponse saveStopList(StopListRequest request, Long menuItemId) {
-        if (!menuItemRepository.existsById(menuItemId)){
-            throw new NotFoundException(String.format("Menu with Id: %d doesnt exist", menuItemId));
-        }
-
+        StopList stopList = new StopList();
+        applyWindow(stopList, request);
 
-        List<StopList> all = stopListRepository.findAll();
-        for (StopList stopList : all) {
-            if (stopList.getDate().equals(request.date()))
-                throw new BadRequestException("Бир дата менен бир тамак бир эле жолу сакталыш керек");
+        MenuItem menuItem = menuItemRepository.lockById(menuItemId).orElseThrow(() -> new NotFoundException(String.format("Menu with id: %d doesn't exist", menuItemId)));
+        if (stopListRepository.existsOverlapping(menuItemId, stopList.getStartsAt(), stopList.getEndsAt())) {
+            throw new AlreadyExistException(OVERLAP_MESSAGE);
         }
 
-        MenuItem menuItem = menuItemRepository.findById(menuItemId).orElseThrow(() -> new NotFoundException(String.format("Menu with id: %d doesn't exist", menuItemId)));
-
-        StopList stopList = new StopList();
         stopList.setReason(request.reason());
-        stopList.setDate(request.date());
         stopList.setMenuItem(menuItem);
-        menuItem.setStopList(stopList);
-
-        stopListRepository.save(stopList);
-        menuItemRepository.save(menuItem);
+        saveWindow(stopList);
+        Long restId = menuItem.getRestaurant().getId();
+        stopListScheduler.schedule(new StopListWindow(stopList.getId(), restId, menuItemId, stopList.getStartsAt(), stopList.getEndsAt()));
+        eventPublisher.publishEvent(new MenuChangedEvent(restId, MenuChangeType.STOP_LIST, menuItemId));
         return SimpleResponse.builder()
                 .status(HttpStatus.OK)
                 .message(String.format("Stop list with id: %d successfully SAVED", stopList.getId())).build();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<StopListResponse> findAll() {
         return stopListRepository.findAllStopLists();
     }
 
+    @Override
+    public List<StopListResponse> findByRestaurantAndDate(Long restId, LocalDate date) {
+        if (!restaurantRepository.existsById(restId)) {
+            throw new NotFoundException(String.format("Restaurant with id: %d doesn't exist", restId));
+        }
+        return stopListIndex.stopLists(restId, date == null ? LocalDate.now() : date);
+    }
+
     @Override
     public StopListResponse getById(Long id) {
         if (!stopListRepository.existsById(id)){
@@ -71,6 +104,7 @@ public class StopListServiceImpl implements StopListService {
     }
 
     @Override
+    @Transactional
     public SimpleResponse update(Long id, StopListRequest request) {
         if (!stopListRepository.existsById(id)){
             throw new NotFoundException(String.format("Stop list with id: %d doesn't exist", id));
@@ -78,14 +112,17 @@ public class StopListServiceImpl implements StopListService {
 
         StopList stopList = stopListRepository.findById(id).orElseThrow(
                 () -> new NotFoundException(String.format("Stop List with id: %d doesn't exist", id)));
-        List<StopList> all = stopListRepository.findAll();
-        for (StopList stopList1 : all) {
-            if (stopList1.getDate().equals(request.date()))
-                throw new BadRequestException("Бир дата менен бир тамак бир эле жолу сакталыш керек");
+        Long menuItemId = stopList.getMenuItem().getId();
+        menuItemRepository.lockById(menuItemId);
+        applyWindow(stopList, request);
+        if (stopListRepository.existsOverlappingOther(menuItemId, stopList.getStartsAt(), stopList.getEndsAt(), id)) {
+            throw new AlreadyExistException(OVERLAP_MESSAGE);
         }
         stopList.setReason(request.reason());
-        stopList.setDate(request.date());
-        stopListRepository.save(stopList);
+        saveWindow(stopList);
+        Long restId = stopList.getMenuItem().getRestaurant().getId();
+        stopListScheduler.schedule(new StopListWindow(stopList.getId(), restId, menuItemId, stopList.getStartsAt(), stopList.getEndsAt()));
+        eventPublisher.publishEvent(new MenuChangedEvent(restId, MenuChangeType.STOP_LIST, menuItemId));
 
         return SimpleResponse.builder()
                 .status(HttpStatus.OK)
@@ -94,6 +131,7 @@ public class StopListServiceImpl implements StopListService {
     }
 
     @Override
+    @Transactional
     public SimpleResponse delete(Long menuId, Long stopListId) {
         if (!menuItemRepository.existsById(menuId)){
             throw new NotFoundException(String.format("Menu with id: %d doesn't exist", menuId));
@@ -106,9 +144,8 @@ public class StopListServiceImpl implements StopListService {
         MenuItem menuItem = menuItemRepository.findById(menuId).orElseThrow(() -> new NotFoundException(String.format("Menu with id: %d doesn't exist", menuId)));
         StopList stopList = stopListRepository.findById(stopListId).orElseThrow(() -> new NotFoundException(String.format("Stop list with id: %d doesn't exist", stopListId)));
         if (stopList.getMenuItem().getId().equals(menuItem.getId())){
-            menuItem.setStopList(null);
-            menuItemRepository.save(menuItem);
             stopListRepository.delete(stopList);
+            eventPublisher.publishEvent(new MenuChangedEvent(menuItem.getRestaurant().getId(), MenuChangeType.STOP_LIST, menuId));
         }else {
                 throw new BadRequestException("Not found");
             }
@@ -118,6 +155,42 @@ public class StopListServiceImpl implements StopListService {
                 .message(String.format("Stop List with id: %d successfully DELETED", stopListId)).build();
     }
 
+    /**
+     * Saves and flushes the entry, so a window the overlap check let through is caught here by the
+     * exclusion constraint on {@code stop_lists} rather than failing the commit.
+     */
+    private void saveWindow(StopList stopList) {
+        try {
+            stopListRepository.saveAndFlush(stopList);
+        } catch (DataIntegrityViolationException e) {
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof SQLException sqlException && EXCLUSION_VIOLATION.equals(sqlException.getSQLState())) {
+                    throw new BadRequestException(OVERLAP_MESSAGE);
+                }
+            }
+            throw e;
+        }
+    }
 
-
+    /**
+     * Fills date, start and end from the request. Without times the entry covers its whole day;
+     * without a date it is the day the entry starts.
+     */
+    private static void applyWindow(StopList stopList, StopListRequest request) {
+        LocalDateTime startsAt = request.startsAt();
+        if (startsAt == null) {
+            startsAt = request.date() != null ? request.date().atStartOfDay() : LocalDateTime.now();
+        }
+        LocalDate date = request.date() != null ? request.date() : startsAt.toLocalDate();
+        if (!date.equals(startsAt.toLocalDate())) {
+            throw new BadRequestException("Stop list must start on its date");
+        }
+        LocalDateTime endsAt = request.endsAt() != null ? request.endsAt() : date.plusDays(1).atStartOfDay();
+        if (!endsAt.isAfter(startsAt)) {
+            throw new BadRequestException("Stop list must end after it starts");
+        }
+        stopList.setDate(date);
+        stopList.setStartsAt(startsAt);
+        stopList.setEndsAt(endsAt);
+    }
 }
@@ -1,18 +1,26 @@
 package peaksoft.services.impl;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import peaksoft.cache.MenuCatalog;
+import peaksoft.cache.MenuCatalogSnapshot;
 import peaksoft.dto.requests.SubCategoryRequest;
+import peaksoft.dto.responses.CursorPageResponse;
 import peaksoft.dto.responses.PaginationResponseSubCategory;
 import peaksoft.dto.responses.SimpleResponse;
 import peaksoft.dto.responses.SubCategoryResponse;
 import peaksoft.entity.Category;
 import peaksoft.entity.SubCategory;
+import peaksoft.event.MenuChangedEvent;
+import peaksoft.exeption.BadRequestException;
 import peaksoft.exeption.NotFoundException;
+import peaksoft.pagination.CursorPages;
+import peaksoft.pagination.PageCursor;
 import peaksoft.repositories.CategoryRepository;
 import peaksoft.repositories.SubCategoryRepository;
 import peaksoft.services.SubCategoryService;
@@ -27,13 +35,19 @@ import java.util.List;
 public class SubCategoryServiceImpl implements SubCategoryService {
     private final SubCategoryRepository subCategoryRepository;
     private final CategoryRepository categoryRepository;
+    private final MenuCatalog menuCatalog;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public SubCategoryServiceImpl(SubCategoryRepository subCategoryRepository, CategoryRepository categoryRepository) {
+    public SubCategoryServiceImpl(SubCategoryRepository subCategoryRepository, CategoryRepository categoryRepository,
+                                  MenuCatalog menuCatalog, ApplicationEventPublisher eventPublisher) {
         this.subCategoryRepository = subCategoryRepository;
         this.categoryRepository = categoryRepository;
+        this.menuCatalog = menuCatalog;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
+    @Transactional
     public SimpleResponse save(Long categoryId, SubCategoryRequest request) {
         if (!categoryRepository.existsById(categoryId)){
             throw new NotFoundException(String.format("Category with id: %d doesn't exist", categoryId));
@@ -46,10 +60,10 @@ public class SubCategoryServiceImpl implements SubCategoryService {
         SubCategory subCategory = new SubCategory();
         subCategory.setName(request.name());
 
-        category.addSubCategory(subCategory);
         subCategory.setCategory(category);
 
         subCategoryRepository.save(subCategory);
+        eventPublisher.publishEvent(new MenuChangedEvent(null));
         return SimpleResponse.builder()
                 .status(HttpStatus.OK)
                 .message(String.format("Sub Category with name: %s successfully SAVED!",request.name())).build();
@@ -57,20 +71,18 @@ public class SubCategoryServiceImpl implements SubCategoryService {
 
     @Override
     public List<SubCategoryResponse> findAllByCategory(Long categoryId) {
-        return subCategoryRepository.findAllSubCategories(categoryId);
+        return menuCatalog.current().subCategoriesOf(categoryId);
     }
 
     @Override
     public SubCategoryResponse getById(Long subId) {
-        if (!subCategoryRepository.existsById(subId)){
-            throw new NotFoundException(String.format("Sub Category with id: %d doesn't exist", subId));
-        }
-        return subCategoryRepository.findByIdSub(subId).orElseThrow(() -> new NotFoundException(
+        return menuCatalog.current().subCategory(subId).orElseThrow(() -> new NotFoundException(
                 String.format("Sub Category with id: %d doesn't exist", subId)
         ));
     }
 
     @Override
+    @Transactional
     public SimpleResponse update(Long subId, SubCategoryRequest request) {
         if (!subCategoryRepository.existsById(subId)){
             throw new NotFoundException(String.format("Sub Category with id: %d doesn't exist", subId));
@@ -81,12 +93,14 @@ public class SubCategoryServiceImpl implements SubCategoryService {
 
         subCategory.setName(request.name());
         subCategoryRepository.save(subCategory);
+        eventPublisher.publishEvent(new MenuChangedEvent(null));
         return SimpleResponse.builder()
                 .status(HttpStatus.OK)
                 .message(String.format("Sub Category with id: %d successfully UPDATED", subId)).build();
     }
 
     @Override
+    @Transactional
     public SimpleResponse deleteSub(Long categoryId, Long subCategoryId) {
         if (!categoryRepository.existsById(categoryId)){
             throw new NotFoundException(String.format("Category with id: %d doesn't exist", categoryId));
@@ -95,16 +109,15 @@ public class SubCategoryServiceImpl implements SubCategoryService {
             throw new NotFoundException(String.format("Sub Category with id: %d doesn't exist", subCategoryId));
         }
 
-        Category category = categoryRepository.findById(categoryId).orElseThrow(() -> new NotFoundException(
-                String.format("Category with id: %d doesn't exist", categoryId)
+        SubCategory subCategory = subCategoryRepository.findById(subCategoryId).orElseThrow(() -> new NotFoundException(
+                String.format("Sub Category with id: %d doesn't exist", subCategoryId)
         ));
+        if (!subCategory.getCategory().getId().equals(categoryId)) {
+            throw new BadRequestException(String.format("Sub category with id: %d doesn't belong to category with id: %d", subCategoryId, categoryId));
+        }
 
-
-        category.getSubCategories().removeIf(c->c.getId().equals(subCategoryId));
-
-
-
-        subCategoryRepository.deleteById(subCategoryId);
+        subCategoryRepository.delete(subCategory);
+        eventPublisher.publishEvent(new MenuChangedEvent(null));
         return SimpleResponse.builder()
                 .status(HttpStatus.OK)
                 .message(String.format("Sub category with id: %d successfully DELETED", subCategoryId)).build();
@@ -112,8 +125,8 @@ public class SubCategoryServiceImpl implements SubCategoryService {
 
     @Override
     public PaginationResponseSubCategory getSubCategoryPage(int page, int size, Long categoryId) {
-        Pageable pageable = PageRequest.of(page-1, size, Sort.by("name"));
-        Page<SubCategoryResponse> subCategoryResponses = subCategoryRepository.findAllByCategory_Id(categoryId, pageable);
+        Pageable pageable = PageRequest.of(page-1, size);
+        Page<SubCategoryResponse> subCategoryResponses = MenuCatalog.page(menuCatalog.current().subCategoriesOf(categoryId), pageable);
 
         PaginationResponseSubCategory responseSubCategory = new PaginationResponseSubCategory();
         responseSubCategory.setSubCategoryResponses(subCategoryResponses.getContent());
@@ -123,5 +136,11 @@ public class SubCategoryServiceImpl implements SubCategoryService {
         return responseSubCategory;
     }
 
+    @Override
+    public CursorPageResponse<SubCategoryResponse> getSubCategoryCursorPage(Long categoryId, String cursor, int size, boolean withTotal) {
+        return CursorPages.page(menuCatalog.current().subCategoriesOf(categoryId), MenuCatalogSnapshot.NAME_ORDER,
+                s -> new PageCursor(s.name(), s.id()), PageCursor.decode(cursor), size, withTotal);
+    }
+
 }
 
@@ -7,7 +7,10 @@ import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import peaksoft.config.jwt.PrincipalCache;
 import peaksoft.dto.requests.WaiterRequest;
+import peaksoft.dto.responses.CursorPageResponse;
 import peaksoft.dto.responses.PaginationResponseWater;
 import peaksoft.dto.responses.SimpleResponse;
 import peaksoft.dto.responses.WaiterResponse;
@@ -17,6 +20,8 @@ import peaksoft.enums.Role;
 import peaksoft.exeption.BadRequestException;
 import peaksoft.exeption.NotFoundException;
 import peaksoft.exeption.PhoneNumberException;
+import peaksoft.pagination.CursorPages;
+import peaksoft.pagination.PageCursor;
 import peaksoft.repositories.RestaurantRepository;
 import peaksoft.repositories.UserRepository;
 import peaksoft.services.WaiterService;
@@ -35,14 +40,18 @@ public class WaiterServiceImpl implements WaiterService {
     private final UserRepository userRepository;
     private final RestaurantRepository restaurantRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
 
-    public WaiterServiceImpl(UserRepository userRepository, RestaurantRepository restaurantRepository, PasswordEncoder passwordEncoder) {
+    public WaiterServiceImpl(UserRepository userRepository, RestaurantRepository restaurantRepository, PasswordEncoder passwordEncoder,
+                             PrincipalCache principalCache) {
         this.userRepository = userRepository;
         this.restaurantRepository = restaurantRepository;
         this.passwordEncoder = passwordEncoder;
+        this.principalCache = principalCache;
     }
 
     @Override
+    @Transactional
     public SimpleResponse saveWaiter(Long restId, WaiterRequest waiter) {
         if (!restaurantRepository.existsById(restId)){
             throw new NotFoundException(String.format("Restaurant with id: %d doesn't exist", restId));
@@ -62,7 +71,7 @@ public class WaiterServiceImpl implements WaiterService {
         user.setPhoneNumber(waiter.phoneNumber());
         user.setRole(Role.WAITER);
 
-        int count = restaurant.getUsers().size();
+        int count = userRepository.countByRestaurant_Id(restId);
         if (count > 14){
             throw new BadRequestException("Sorry we haven't run out of vacancies");
         }else {
@@ -82,7 +91,6 @@ public class WaiterServiceImpl implements WaiterService {
         }
         user.setExperience(waiter.experience());
 
-        restaurant.addWaiter(user);
         user.setRestaurant(restaurant);
         userRepository.save(user);
         return SimpleResponse.builder()
@@ -92,6 +100,7 @@ public class WaiterServiceImpl implements WaiterService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<WaiterResponse> findAllWaiters(Long restId, Role role) {
         if (!restaurantRepository.existsById(restId)){
             throw new NotFoundException(String.format("Restaurant with id: %d doesnt exist", restId));
@@ -109,6 +118,7 @@ public class WaiterServiceImpl implements WaiterService {
     }
 
     @Override
+    @Transactional
     public SimpleResponse updateWaiter(Long waiterId, WaiterRequest waiter) {
         if (!userRepository.existsById(waiterId)){
             throw new NotFoundException(String.format("Waiter with id: %d doesnt exist", waiterId));
@@ -139,6 +149,7 @@ public class WaiterServiceImpl implements WaiterService {
         user.setExperience(waiter.experience());
 
         userRepository.save(user);
+        principalCache.revoke(waiterId);
         return SimpleResponse.builder()
                 .status(HttpStatus.OK)
                 .message(String.format("Waiter with full name: %s successfully updated",
@@ -147,6 +158,7 @@ public class WaiterServiceImpl implements WaiterService {
     }
 
     @Override
+    @Transactional
     public SimpleResponse deleteWaiter(Long restId, Long waiterId) {
 
         if (!userRepository.existsById(waiterId)) {
@@ -156,14 +168,13 @@ public class WaiterServiceImpl implements WaiterService {
         Restaurant restaurant = restaurantRepository.findById(restId).orElseThrow(() -> new NotFoundException(
                 String.format("Restaurant with id: %d doesn't exist", restId)));
 
-        restaurant.getUsers().removeIf(w->w.getId().equals(waiterId));
+        userRepository.deleteById(waiterId);
+        principalCache.revoke(waiterId);
 
-        int count = restaurant.getUsers().size();
-        restaurant.setNumberOfEmployees(count--);
+        int count = userRepository.countByRestaurant_Id(restId);
+        restaurant.setNumberOfEmployees(count);
         restaurantRepository.save(restaurant);
 
-        userRepository.deleteById(waiterId);
-
         return SimpleResponse.builder()
                 .status(HttpStatus.OK)
                 .message(String.format("Waiter with id: %d is successfully deleted", waiterId))
@@ -171,6 +182,7 @@ public class WaiterServiceImpl implements WaiterService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public PaginationResponseWater getWaiterPagination(int page, int size) {
         Pageable pageable = PageRequest.of(page - 1, size, Sort.by("firstName"));
         Page<WaiterResponse> pageWaiter = userRepository.getAllByRole(Role.WAITER,pageable);
@@ -182,6 +194,18 @@ public class WaiterServiceImpl implements WaiterService {
         return paginationResponse;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<WaiterResponse> getWaiterCursorPage(String cursor, int size, boolean withTotal) {
+        Pageable limit = CursorPages.probe(size);
+        PageCursor after = PageCursor.decode(cursor);
+        List<WaiterResponse> waiters = after == null
+                ? userRepository.findWaitersFirstPage(Role.WAITER, limit)
+                : userRepository.findWaitersAfter(Role.WAITER.name(), after.key(), after.id(), limit);
+        return CursorPages.page(waiters, size, w -> new PageCursor(w.firstName(), w.id()),
+                withTotal ? userRepository.countByRole(Role.WAITER) : null);
+    }
+
     private void phoneValid(String phoneNumber){
         if (phoneNumber == null || phoneNumber.isEmpty()){
             throw new NullPointerException("Phone number is null!!");
@@ -0,0 +1,299 @@
+package peaksoft.stream;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import peaksoft.dto.responses.KitchenMetricsResponse;
+import peaksoft.dto.responses.KitchenTicketLineResponse;
+import peaksoft.dto.responses.KitchenTicketResponse;
+import peaksoft.enums.TicketStatus;
+import peaksoft.event.KitchenTicketChangedEvent;
+import peaksoft.repositories.KitchenTicketRepository;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Per-restaurant kitchen ticket queue pushed to chef screens over server-sent events.
+ * <p>
+ * Tickets are written in the same transaction as their cheque, and a
+ * {@link KitchenTicketChangedEvent} is handed over only after that transaction commits, so
+ * a screen never shows a ticket that was rolled back. A connecting screen first receives a
+ * {@code SNAPSHOT} of the open tickets read from the table, which also covers anything
+ * published while the server was down; after that every change arrives as an event named after
+ * the ticket status, or {@code REMOVED}. The last event for a ticket id wins.
+ * <p>
+ * The committing request thread only records the changed ticket id; the tickets are read back
+ * on a sender thread, several changes with one query, and from then on the sender threads share
+ * nothing but a lock-free queue per screen. A screen that falls {@link #QUEUE_CAPACITY} events
+ * behind is disconnected and reloads the snapshot when it reconnects. The time from a ticket change to its write on a screen is
+ * recorded in milliseconds.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Component
+public class KitchenTicketHub {
+    static final int QUEUE_CAPACITY = 256;
+    private static final Logger log = LoggerFactory.getLogger(KitchenTicketHub.class);
+    private static final int MAX_LOAD = 500;
+    private static final List<TicketStatus> OPEN = List.of(TicketStatus.QUEUED, TicketStatus.COOKING);
+    private static final long EMITTER_TIMEOUT_MILLIS = TimeUnit.HOURS.toMillis(12);
+    private static final long HEARTBEAT_SECONDS = 20;
+
+    private final KitchenTicketRepository kitchenTicketRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, Set<Screen>> screens = new ConcurrentHashMap<>();
+    // ticket id -> restaurant id of changes not read back yet
+    private final Map<Long, Long> changed = new ConcurrentHashMap<>();
+    private final AtomicBoolean loading = new AtomicBoolean();
+    private final ExecutorService senders = Executors.newFixedThreadPool(4, daemonThreads("kitchen-stream-"));
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(daemonThreads("kitchen-stream-heartbeat-"));
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder latencyMillis = new LongAdder();
+    private final AtomicLong maxLatencyMillis = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+
+    public KitchenTicketHub(KitchenTicketRepository kitchenTicketRepository, PlatformTransactionManager transactionManager) {
+        this.kitchenTicketRepository = kitchenTicketRepository;
+        // read-write so the read goes to the primary: the replica may not have the commit yet
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        heartbeat.scheduleAtFixedRate(this::ping, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Opens a chef screen for the restaurant, starting with a snapshot of its open tickets.
+     */
+    public SseEmitter subscribe(Long restId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MILLIS);
+        Screen screen = new Screen(restId, emitter);
+        emitter.onCompletion(screen::detach);
+        emitter.onTimeout(screen::detach);
+        emitter.onError(e -> screen.detach());
+
+        // register before reading so no change committed after the read is missed; changes
+        // committed before it may arrive again after the snapshot, which is harmless
+        screens.computeIfAbsent(restId, id -> ConcurrentHashMap.newKeySet()).add(screen);
+        screen.queue.offerFirst(new Outgoing(SseEmitter.event().name("SNAPSHOT").data(openTickets(restId)), 0));
+        screen.size.incrementAndGet();
+        screen.ready = true;
+        drain(screen);
+        return emitter;
+    }
+
+    public List<KitchenTicketResponse> openTickets(Long restId) {
+        return withLines(kitchenTicketRepository.findRowsByRestaurant(restId, OPEN));
+    }
+
+    @TransactionalEventListener
+    public void onTicketChanged(KitchenTicketChangedEvent event) {
+        Set<Screen> restaurantScreens = screens.get(event.restaurantId());
+        if (restaurantScreens == null || restaurantScreens.isEmpty()) {
+            return;
+        }
+        changed.put(event.ticketId(), event.restaurantId());
+        load();
+    }
+
+    public KitchenMetricsResponse metrics() {
+        long count = delivered.sum();
+        return KitchenMetricsResponse.builder()
+                .delivered(count)
+                .averageLatencyMillis(count == 0 ? 0 : (double) latencyMillis.sum() / count)
+                .maxLatencyMillis(maxLatencyMillis.get())
+                .dropped(dropped.sum())
+                .subscribers(screens.values().stream().mapToInt(Set::size).sum())
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        senders.shutdownNow();
+        screens.values().forEach(set -> set.forEach(screen -> screen.emitter.complete()));
+    }
+
+    private List<KitchenTicketResponse> withLines(List<KitchenTicketRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<KitchenTicketLineResponse>> lines = kitchenTicketRepository
+                .findLineRows(rows.stream().map(KitchenTicketRow::id).toList()).stream()
+                .collect(Collectors.groupingBy(KitchenTicketLineRow::ticketId, Collectors.mapping(
+                        line -> new KitchenTicketLineResponse(line.menuItemId(), line.name(), line.quantity()),
+                        Collectors.toList())));
+        return rows.stream().map(row -> KitchenTicketResponse.builder()
+                .id(row.id())
+                .chequeId(row.chequeId())
+                .restaurantId(row.restaurantId())
+                .status(row.status())
+                .createdAt(row.createdAt())
+                .cookingAt(row.cookingAt())
+                .readyAt(row.readyAt())
+                .lines(lines.getOrDefault(row.id(), List.of()))
+                .build()).toList();
+    }
+
+    private static long changedAtMillis(KitchenTicketResponse ticket) {
+        LocalDateTime changedAt = switch (ticket.status()) {
+            case QUEUED -> ticket.createdAt();
+            case COOKING -> ticket.cookingAt();
+            case READY -> ticket.readyAt();
+        };
+        return changedAt == null ? 0 : changedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private void ping() {
+        Outgoing ping = new Outgoing(SseEmitter.event().comment("ping"), 0);
+        screens.values().forEach(set -> set.forEach(screen -> {
+            screen.offer(ping);
+            drain(screen);
+        }));
+    }
+
+    private void load() {
+        if (!changed.isEmpty() && loading.compareAndSet(false, true)) {
+            try {
+                senders.execute(this::publishChanged);
+            } catch (RejectedExecutionException e) {
+                loading.set(false);
+            }
+        }
+    }
+
+    /**
+     * Reads back the changed tickets and queues them to their restaurant's screens. Only one load
+     * runs at a time and each reads the current state, so a later change of a ticket is never
+     * overtaken by an earlier one.
+     */
+    private void publishChanged() {
+        try {
+            Map<Long, Long> batch = new HashMap<>();
+            for (Iterator<Long> ids = changed.keySet().iterator(); ids.hasNext() && batch.size() < MAX_LOAD; ) {
+                Long ticketId = ids.next();
+                Long restId = changed.remove(ticketId);
+                if (restId != null) {
+                    batch.put(ticketId, restId);
+                }
+            }
+            if (!batch.isEmpty()) {
+                Map<Long, KitchenTicketResponse> tickets = transactionTemplate.execute(status ->
+                                withLines(kitchenTicketRepository.findRowsByIds(batch.keySet()))).stream()
+                        .collect(Collectors.toMap(KitchenTicketResponse::id, ticket -> ticket));
+                batch.forEach((ticketId, restId) -> publish(restId, ticketId, tickets.get(ticketId)));
+            }
+        } catch (RuntimeException e) {
+            // the screens catch up from the snapshot when they reconnect
+            log.warn("Could not read changed kitchen tickets", e);
+        } finally {
+            loading.set(false);
+        }
+        load();
+    }
+
+    private void publish(Long restId, Long ticketId, KitchenTicketResponse ticket) {
+        Set<Screen> restaurantScreens = screens.get(restId);
+        if (restaurantScreens == null) {
+            return;
+        }
+        Outgoing outgoing = ticket != null
+                ? new Outgoing(SseEmitter.event().id(ticketId.toString()).name(ticket.status().name()).data(ticket), changedAtMillis(ticket))
+                : new Outgoing(SseEmitter.event().id(ticketId.toString()).name("REMOVED").data(ticketId), 0);
+        for (Screen screen : restaurantScreens) {
+            screen.offer(outgoing);
+            drain(screen);
+        }
+    }
+
+    private void drain(Screen screen) {
+        if (screen.ready && !screen.queue.isEmpty() && screen.draining.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> send(screen));
+            } catch (RejectedExecutionException e) {
+                screen.draining.set(false);
+            }
+        }
+    }
+
+    private void send(Screen screen) {
+        try {
+            Outgoing outgoing;
+            while ((outgoing = screen.queue.poll()) != null) {
+                screen.size.decrementAndGet();
+                screen.emitter.send(outgoing.event());
+                if (outgoing.changedAtMillis() > 0) {
+                    long latency = Math.max(0, System.currentTimeMillis() - outgoing.changedAtMillis());
+                    delivered.increment();
+                    latencyMillis.add(latency);
+                    maxLatencyMillis.accumulateAndGet(latency, Math::max);
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // the screen went away; the emitter callbacks detach it
+            screen.close();
+        } finally {
+            screen.draining.set(false);
+        }
+        drain(screen);
+    }
+
+    private static CustomizableThreadFactory daemonThreads(String prefix) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix);
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    private record Outgoing(SseEmitter.SseEventBuilder event, long changedAtMillis) {
+    }
+
+    private final class Screen {
+        private final Long restId;
+        private final SseEmitter emitter;
+        private final ConcurrentLinkedDeque<Outgoing> queue = new ConcurrentLinkedDeque<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean ready;
+
+        private Screen(Long restId, SseEmitter emitter) {
+            this.restId = restId;
+            this.emitter = emitter;
+        }
+
+        void offer(Outgoing outgoing) {
+            if (size.incrementAndGet() > QUEUE_CAPACITY) {
+                // slow screen: drop it rather than buffer without limit, it reloads the snapshot
+                dropped.increment();
+                close();
+                return;
+            }
+            queue.offer(outgoing);
+        }
+
+        void detach() {
+            Set<Screen> restaurantScreens = screens.get(restId);
+            if (restaurantScreens != null) {
+                restaurantScreens.remove(this);
+            }
+        }
+
+        void close() {
+            detach();
+            queue.clear();
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package peaksoft.stream;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public record KitchenTicketLineRow(
+        Long ticketId,
+        Long menuItemId,
+        String name,
+        Integer quantity
+) {
+}
@@ -0,0 +1,20 @@
+package peaksoft.stream;
+
+import peaksoft.enums.TicketStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public record KitchenTicketRow(
+        Long id,
+        Long chequeId,
+        Long restaurantId,
+        TicketStatus status,
+        LocalDateTime createdAt,
+        LocalDateTime cookingAt,
+        LocalDateTime readyAt
+) {
+}
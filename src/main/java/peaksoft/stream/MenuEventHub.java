@@ -0,0 +1,215 @@
+package peaksoft.stream;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import peaksoft.cache.MenuCatalog;
+import peaksoft.dto.responses.CatalogItemResponse;
+import peaksoft.dto.responses.MenuStreamEventResponse;
+import peaksoft.enums.MenuChangeType;
+import peaksoft.event.MenuChangedEvent;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes menu availability changes to waiter tablets over server-sent events.
+ * <p>
+ * Every change becomes one event with an id of the form {@code <epoch>-<offset>}; the last
+ * {@link #HISTORY} events are kept in a ring buffer. A client reconnecting with
+ * {@code Last-Event-ID} gets the events it missed, or a {@code RESET} event telling it to reload
+ * the menu when they are no longer buffered or the server restarted in between.
+ * <p>
+ * Each subscriber has a queue of at most {@link #QUEUE_CAPACITY} events drained by a small
+ * sender pool, so a slow tablet never holds up the publisher or the others. A subscriber whose
+ * queue overflows is disconnected and resumes from its last event id.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+@Component
+public class MenuEventHub {
+    static final int HISTORY = 1024;
+    static final int QUEUE_CAPACITY = 256;
+    private static final long EMITTER_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+    private static final long HEARTBEAT_SECONDS = 20;
+
+    private final MenuCatalog menuCatalog;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final MenuStreamEventResponse[] history = new MenuStreamEventResponse[HISTORY];
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newFixedThreadPool(4, daemonThreads("menu-stream-"));
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(daemonThreads("menu-stream-heartbeat-"));
+    private long offset;
+
+    public MenuEventHub(MenuCatalog menuCatalog) {
+        this.menuCatalog = menuCatalog;
+        heartbeat.scheduleAtFixedRate(this::ping, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Opens a stream of the restaurant's changes, first replaying those after {@code lastEventId}.
+     */
+    public SseEmitter subscribe(Long restId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MILLIS);
+        Subscriber subscriber = new Subscriber(restId, emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        synchronized (this) {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                List<MenuStreamEventResponse> missed = missedSince(lastEventId, restId);
+                if (missed == null || missed.size() >= QUEUE_CAPACITY) {
+                    subscriber.offer(SseEmitter.event().name("RESET").id(currentId()).data(currentId()));
+                } else {
+                    missed.forEach(event -> subscriber.offer(toSse(event)));
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        drain(subscriber);
+        return emitter;
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        // runs after MenuCatalog has rebuilt, so the item below already reflects the change
+        CatalogItemResponse item = event.menuItemId() == null || event.type() == MenuChangeType.DELETED
+                ? null : menuCatalog.current().item(event.menuItemId()).orElse(null);
+        synchronized (this) {
+            MenuStreamEventResponse streamEvent = MenuStreamEventResponse.builder()
+                    .id(epoch + '-' + (++offset))
+                    .restaurantId(event.restaurantId())
+                    .type(typeOf(event, item))
+                    .menuItemId(event.menuItemId())
+                    .item(item)
+                    .at(LocalDateTime.now())
+                    .build();
+            history[(int) (offset % HISTORY)] = streamEvent;
+            for (Subscriber subscriber : subscribers) {
+                if (streamEvent.restaurantId() == null || streamEvent.restaurantId().equals(subscriber.restId)) {
+                    subscriber.offer(toSse(streamEvent));
+                }
+            }
+        }
+        subscribers.forEach(this::drain);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private static String typeOf(MenuChangedEvent event, CatalogItemResponse item) {
+        if (event.type() == MenuChangeType.STOP_LIST) {
+            return item != null && item.stopListed() ? "STOP_LISTED" : "BACK_IN_STOCK";
+        }
+        return event.type().name();
+    }
+
+    /**
+     * @return events of the restaurant after the given id, or {@code null} if some are gone
+     */
+    private List<MenuStreamEventResponse> missedSince(String lastEventId, Long restId) {
+        int dash = lastEventId.lastIndexOf('-');
+        long last;
+        try {
+            last = Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (dash < 0 || !epoch.equals(lastEventId.substring(0, dash)) || last > offset || last < offset - HISTORY) {
+            return null;
+        }
+        List<MenuStreamEventResponse> missed = new ArrayList<>();
+        for (long next = last + 1; next <= offset; next++) {
+            MenuStreamEventResponse event = history[(int) (next % HISTORY)];
+            if (event.restaurantId() == null || event.restaurantId().equals(restId)) {
+                missed.add(event);
+            }
+        }
+        return missed;
+    }
+
+    private String currentId() {
+        return epoch + '-' + offset;
+    }
+
+    private static SseEmitter.SseEventBuilder toSse(MenuStreamEventResponse event) {
+        return SseEmitter.event().id(event.id()).name(event.type()).data(event);
+    }
+
+    private void ping() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(SseEmitter.event().comment("ping"));
+            drain(subscriber);
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        if (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> send(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    private void send(Subscriber subscriber) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while ((event = subscriber.queue.poll()) != null) {
+                subscriber.emitter.send(event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // the client went away; the emitter callbacks drop the subscriber
+            subscriber.close();
+        } finally {
+            subscriber.draining.set(false);
+        }
+        drain(subscriber);
+    }
+
+    private static CustomizableThreadFactory daemonThreads(String prefix) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix);
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    private final class Subscriber {
+        private final Long restId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(Long restId, SseEmitter emitter) {
+            this.restId = restId;
+            this.emitter = emitter;
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (!queue.offer(event)) {
+                // slow consumer: drop it rather than buffer without limit, it resumes by event id
+                close();
+            }
+        }
+
+        void close() {
+            subscribers.remove(this);
+            queue.clear();
+            emitter.complete();
+        }
+    }
+}
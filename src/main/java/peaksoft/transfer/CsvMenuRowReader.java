@@ -0,0 +1,171 @@
+package peaksoft.transfer;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Reads RFC 4180 style CSV: comma separated, fields optionally quoted with {@code "},
+ * quotes inside quoted fields doubled. The first record is a header naming the columns of
+ * {@link MenuTransferRow} in any order; {@code image}, {@code description} and
+ * {@code isVegetarian} may be left out.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+class CsvMenuRowReader implements MenuRowReader {
+    private static final int MAX_RECORD_LENGTH = 64 * 1024;
+    private static final List<String> REQUIRED = List.of("category", "subcategory", "name", "price");
+
+    private final Reader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private long rowNumber;
+
+    CsvMenuRowReader(InputStream in) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<String> header = readRecord();
+        if (header == null) {
+            return;
+        }
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i).trim().toLowerCase(Locale.ROOT);
+            if (i == 0 && column.startsWith("\uFEFF")) {
+                column = column.substring(1);
+            }
+            columns.putIfAbsent(column, i);
+        }
+        List<String> missing = REQUIRED.stream().filter(c -> !columns.containsKey(c)).toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("CSV header is missing columns: " + String.join(", ", missing));
+        }
+    }
+
+    @Override
+    public MenuTransferRow next() throws IOException {
+        if (columns.isEmpty()) {
+            return null;
+        }
+        List<String> record = readRecord();
+        if (record == null) {
+            return null;
+        }
+        rowNumber++;
+        return new MenuTransferRow(
+                field(record, "category"),
+                field(record, "subcategory"),
+                field(record, "name"),
+                field(record, "image"),
+                price(field(record, "price")),
+                field(record, "description"),
+                vegetarian(field(record, "isvegetarian")));
+    }
+
+    @Override
+    public long rowNumber() {
+        return rowNumber;
+    }
+
+    @Override
+    public boolean hasColumn(String column) {
+        return columns.containsKey(column.toLowerCase(Locale.ROOT));
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String field(List<String> record, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static BigDecimal price(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Price is not a number: " + value);
+        }
+    }
+
+    private static Boolean vegetarian(String value) {
+        if (value == null) {
+            return null;
+        }
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "true", "yes", "1" -> true;
+            case "false", "no", "0" -> false;
+            default -> throw new IllegalArgumentException("isVegetarian must be true or false: " + value);
+        };
+    }
+
+    /**
+     * @return the fields of the next non-blank record, or {@code null} at the end of the input
+     */
+    private List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean tooLong = false;
+        int length = 0;
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else if (!tooLong) {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                if (!tooLong) {
+                    fields.add(field.toString());
+                }
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                if (fields.isEmpty() && field.length() == 0 && !tooLong) {
+                    continue;
+                }
+                break;
+            } else if (!tooLong) {
+                field.append((char) c);
+            }
+            if (!tooLong && ++length > MAX_RECORD_LENGTH) {
+                // keep consuming up to the end of the record but stop buffering it
+                tooLong = true;
+                fields.clear();
+                field.setLength(0);
+            }
+        }
+        if (c == -1 && fields.isEmpty() && field.length() == 0 && !tooLong) {
+            return null;
+        }
+        if (tooLong) {
+            rowNumber++;
+            throw new IllegalArgumentException("Row is longer than " + MAX_RECORD_LENGTH + " characters");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,114 @@
+package peaksoft.transfer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+
+/**
+ * Reads a JSON array of objects with the fields of {@link MenuTransferRow}. The array is
+ * walked with a streaming parser; only the element being read is turned into a tree.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+class JsonMenuRowReader implements MenuRowReader {
+    private final JsonParser parser;
+    private long rowNumber;
+    private boolean finished;
+    private JsonNode current;
+
+    JsonMenuRowReader(InputStream in, ObjectMapper objectMapper) throws IOException {
+        this.parser = objectMapper.createParser(in);
+        JsonToken first = parser.nextToken();
+        if (first == null) {
+            finished = true;
+        } else if (first != JsonToken.START_ARRAY) {
+            throw new IllegalArgumentException("JSON import must be an array of menu items");
+        }
+    }
+
+    @Override
+    public MenuTransferRow next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        JsonToken token = parser.nextToken();
+        if (token == null || token == JsonToken.END_ARRAY) {
+            finished = true;
+            return null;
+        }
+        rowNumber++;
+        current = null;
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            throw new IllegalArgumentException("Row is not a JSON object");
+        }
+        JsonNode node = parser.readValueAsTree();
+        current = node;
+        return new MenuTransferRow(
+                text(node, "category"),
+                text(node, "subCategory"),
+                text(node, "name"),
+                text(node, "image"),
+                price(node.get("price")),
+                text(node, "description"),
+                vegetarian(node.get("isVegetarian")));
+    }
+
+    @Override
+    public long rowNumber() {
+        return rowNumber;
+    }
+
+    @Override
+    public boolean hasColumn(String column) {
+        return current != null && current.has(column);
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        String text = value.asText().trim();
+        return text.isEmpty() ? null : text;
+    }
+
+    private static BigDecimal price(JsonNode value) {
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        if (value.isNumber()) {
+            return value.decimalValue();
+        }
+        try {
+            return new BigDecimal(value.asText().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Price is not a number: " + value.asText());
+        }
+    }
+
+    private static Boolean vegetarian(JsonNode value) {
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        if (value.isBoolean()) {
+            return value.booleanValue();
+        }
+        return switch (value.asText().trim().toLowerCase()) {
+            case "true", "yes", "1" -> true;
+            case "false", "no", "0" -> false;
+            default -> throw new IllegalArgumentException("isVegetarian must be true or false: " + value.asText());
+        };
+    }
+}
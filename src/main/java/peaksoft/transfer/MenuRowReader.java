@@ -0,0 +1,45 @@
+package peaksoft.transfer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import peaksoft.enums.MenuTransferFormat;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Pulls import rows one at a time, so only the current row is held in memory.
+ * <p>
+ * {@link #next()} throws {@link IllegalArgumentException} for a row that could not be read;
+ * the row is skipped and the caller may carry on. An {@link IOException} means the rest of
+ * the input is unreadable.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public interface MenuRowReader extends Closeable {
+
+    /**
+     * @return the next row, or {@code null} at the end of the input
+     */
+    MenuTransferRow next() throws IOException;
+
+    /**
+     * @return 1-based number of the row last returned or rejected by {@link #next()}
+     */
+    long rowNumber();
+
+    /**
+     * @param column one of the {@link MenuTransferRow} field names, e.g. {@code isVegetarian}
+     * @return whether the row last returned by {@link #next()} was given that column at all,
+     * as opposed to leaving it out
+     */
+    boolean hasColumn(String column);
+
+    static MenuRowReader open(MenuTransferFormat format, InputStream in, ObjectMapper objectMapper) throws IOException {
+        return switch (format) {
+            case CSV -> new CsvMenuRowReader(in);
+            case JSON -> new JsonMenuRowReader(in, objectMapper);
+        };
+    }
+}
@@ -0,0 +1,91 @@
+package peaksoft.transfer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import peaksoft.enums.MenuTransferFormat;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes export rows straight to the response stream in the same shape the import reads.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public abstract class MenuRowWriter implements Closeable {
+
+    public abstract void write(MenuTransferRow row) throws IOException;
+
+    public static MenuRowWriter open(MenuTransferFormat format, OutputStream out, ObjectMapper objectMapper) throws IOException {
+        return switch (format) {
+            case CSV -> new Csv(out);
+            case JSON -> new Json(out, objectMapper);
+        };
+    }
+
+    private static final class Csv extends MenuRowWriter {
+        private final Writer writer;
+
+        private Csv(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write(String.join(",", MenuTransferRow.COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(MenuTransferRow row) throws IOException {
+            writer.write(escape(row.category()));
+            writer.write(',');
+            writer.write(escape(row.subCategory()));
+            writer.write(',');
+            writer.write(escape(row.name()));
+            writer.write(',');
+            writer.write(escape(row.image()));
+            writer.write(',');
+            writer.write(row.price() == null ? "" : row.price().toPlainString());
+            writer.write(',');
+            writer.write(escape(row.description()));
+            writer.write(',');
+            writer.write(row.isVegetarian() == null ? "" : row.isVegetarian().toString());
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+
+        private static String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private static final class Json extends MenuRowWriter {
+        private final JsonGenerator generator;
+
+        private Json(OutputStream out, ObjectMapper objectMapper) throws IOException {
+            this.generator = objectMapper.createGenerator(out);
+            // the servlet container owns the response stream
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+        }
+
+        @Override
+        public void write(MenuTransferRow row) throws IOException {
+            generator.writeObject(row);
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.writeEndArray();
+            generator.close();
+        }
+    }
+}
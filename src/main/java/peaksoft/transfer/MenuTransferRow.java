@@ -0,0 +1,21 @@
+package peaksoft.transfer;
+
+import java.math.BigDecimal;
+
+/**
+ * One menu item as it appears in an import or export file.
+ *
+ * @author :ЛОКИ Kelsivbekov
+ * @created 18.10.2026
+ */
+public record MenuTransferRow(
+        String category,
+        String subCategory,
+        String name,
+        String image,
+        BigDecimal price,
+        String description,
+        Boolean isVegetarian
+) {
+    static final String[] COLUMNS = {"category", "subCategory", "name", "image", "price", "description", "isVegetarian"};
+}
@@ -0,0 +1,11 @@
+-- Runs before Hibernate starts. Entity sequences allocate ids in blocks of 50 (pooled-lo),
+-- so sequences created earlier with increment 1 are widened to match allocationSize.
+-- Pooled-lo hands out [nextval, nextval + 49], which starts above every id already issued.
+ALTER SEQUENCE IF EXISTS category_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS sub_category_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS menu_item_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS stop_list_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS restaurant_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS user_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS cheque_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS cheque_line_seq INCREMENT BY 50;
@@ -0,0 +1,91 @@
+package peaksoft;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import peaksoft.entity.MenuItem;
+import peaksoft.entity.Restaurant;
+import peaksoft.entity.User;
+import peaksoft.enums.RestType;
+import peaksoft.enums.Role;
+import peaksoft.repositories.MenuItemRepository;
+import peaksoft.repositories.RestaurantRepository;
+import peaksoft.repositories.UserRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Base of the tests that need the real schema: one PostgreSQL container shared by every test
+ * class (and so by the cached application context), skipped where there is no Docker. Each test
+ * creates its own restaurant, so tests don't see each other's rows.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresIntegrationTest {
+    protected static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+    @Autowired
+    protected RestaurantRepository restaurantRepository;
+    @Autowired
+    protected UserRepository userRepository;
+    @Autowired
+    protected MenuItemRepository menuItemRepository;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        // started once for the whole run, the context cache outlives any single test class
+        POSTGRES.start();
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+    }
+
+    protected Restaurant restaurant(int service) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setName("Restaurant " + UUID.randomUUID());
+        restaurant.setLocation("Bishkek");
+        restaurant.setRestType(RestType.KOREAN);
+        restaurant.setNumberOfEmployees(0);
+        restaurant.setService(service);
+        return restaurantRepository.save(restaurant);
+    }
+
+    protected User employee(Restaurant restaurant, Role role) {
+        User user = new User();
+        user.setFirstName(role.name().toLowerCase());
+        user.setLastName("Test");
+        user.setEmail(UUID.randomUUID() + "@test.kg");
+        user.setPassword("password");
+        user.setPhoneNumber("+996700000000");
+        user.setRole(role);
+        user.setExperience(3);
+        user.setAcceptOrDelete(true);
+        user.setRestaurant(restaurant);
+        return userRepository.save(user);
+    }
+
+    protected List<MenuItem> menuItems(Restaurant restaurant, int count, BigDecimal price) {
+        List<MenuItem> menuItems = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            MenuItem menuItem = new MenuItem();
+            menuItem.setName("Dish " + i);
+            menuItem.setPrice(price);
+            menuItem.setDescription("Test dish");
+            menuItem.setIsVegetarian(i % 2 == 0);
+            menuItem.setRestaurant(restaurant);
+            menuItems.add(menuItem);
+        }
+        return menuItemRepository.saveAll(menuItems);
+    }
+}
@@ -0,0 +1,80 @@
+package peaksoft.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import peaksoft.PostgresIntegrationTest;
+import peaksoft.enums.Role;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The next-page queries of the keyset pages must seek straight to the cursor in their index: the
+ * whole page condition is an index condition and nothing is left over for a filter. Sequential
+ * scans are switched off for the plan, since the test tables are too small for the planner to
+ * pick an index on its own.
+ */
+class KeysetIndexMigrationTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void nextChefPageIsOneIndexRange() {
+        assertThat(plan("User.findChefsAfter", Role.CHEF.name(), "Anna", 10L))
+                .anyMatch(line -> line.contains("idx_users_role_first_name_key_id"))
+                .anyMatch(line -> line.contains("Index Cond") && line.contains("ROW("))
+                .noneMatch(line -> line.contains("Filter"));
+    }
+
+    @Test
+    void nextWaiterPageIsOneIndexRange() {
+        assertThat(plan("User.findWaitersAfter", Role.WAITER.name(), null, 10L))
+                .anyMatch(line -> line.contains("idx_users_role_first_name_key_id"))
+                .anyMatch(line -> line.contains("Index Cond") && line.contains("ROW("))
+                .noneMatch(line -> line.contains("Filter"));
+    }
+
+    @Test
+    void nextCategoryPageIsOneIndexRange() {
+        assertThat(plan("Category.findPageAfter", "Soups", 10L))
+                .anyMatch(line -> line.contains("idx_categories_name_key_id"))
+                .anyMatch(line -> line.contains("Index Cond") && line.contains("ROW("))
+                .noneMatch(line -> line.contains("Filter"));
+    }
+
+    private List<String> plan(String queryName, Object... parameters) {
+        String sql = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getQueryEngine()
+                .getNamedObjectRepository().getNativeQueryMemento(queryName).getSqlString()
+                .replaceAll("\\?\\d+", "?");
+        return jdbcTemplate.execute((ConnectionCallback<List<String>>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("set enable_seqscan = off");
+            }
+            try (PreparedStatement explain = connection.prepareStatement("explain " + sql + " limit 11")) {
+                for (int i = 0; i < parameters.length; i++) {
+                    explain.setObject(i + 1, parameters[i]);
+                }
+                List<String> lines = new ArrayList<>();
+                try (ResultSet rs = explain.executeQuery()) {
+                    while (rs.next()) {
+                        lines.add(rs.getString(1));
+                    }
+                }
+                return lines;
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("reset enable_seqscan");
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,200 @@
+package peaksoft.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import peaksoft.PostgresIntegrationTest;
+import peaksoft.dto.requests.CategoryRequest;
+import peaksoft.dto.requests.ChefRequest;
+import peaksoft.dto.requests.ChequeRequest;
+import peaksoft.dto.requests.MenuRequest;
+import peaksoft.dto.requests.RestaurantRequest;
+import peaksoft.dto.requests.StopListRequest;
+import peaksoft.dto.requests.SubCategoryRequest;
+import peaksoft.dto.requests.WaiterRequest;
+import peaksoft.dto.responses.RestaurantResponse;
+import peaksoft.entity.Category;
+import peaksoft.entity.MenuItem;
+import peaksoft.entity.Restaurant;
+import peaksoft.entity.SubCategory;
+import peaksoft.entity.User;
+import peaksoft.enums.AnalyticsGranularity;
+import peaksoft.enums.RestType;
+import peaksoft.enums.Role;
+import peaksoft.exeption.BadRequestException;
+import peaksoft.repositories.CategoryRepository;
+import peaksoft.repositories.SubCategoryRepository;
+import peaksoft.services.CategoryService;
+import peaksoft.services.ChefService;
+import peaksoft.services.ChequeService;
+import peaksoft.services.MenuItemService;
+import peaksoft.services.RestaurantService;
+import peaksoft.services.SalesAnalyticsService;
+import peaksoft.services.StatementService;
+import peaksoft.services.StopListService;
+import peaksoft.services.SubCategoryService;
+import peaksoft.services.WaiterService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Write service methods must read what they change from the primary. The replica here is the same
+ * database seen through an empty {@code stale} schema, a replica that has fallen behind by every
+ * row: a write that looked its entity up on it would fail with not found.
+ */
+class ReplicaRoutingTest extends PostgresIntegrationTest {
+    private static final long REPLICA_WAIT_MILLIS = 15_000;
+
+    @Autowired
+    private MenuItemService menuItemService;
+    @Autowired
+    private WaiterService waiterService;
+    @Autowired
+    private ChefService chefService;
+    @Autowired
+    private CategoryService categoryService;
+    @Autowired
+    private SubCategoryService subCategoryService;
+    @Autowired
+    private StopListService stopListService;
+    @Autowired
+    private RestaurantService restaurantService;
+    @Autowired
+    private StatementService statementService;
+    @Autowired
+    private ChequeService chequeService;
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private SubCategoryRepository subCategoryRepository;
+
+    private Restaurant restaurant;
+
+    @DynamicPropertySource
+    static void replica(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.replica.url", () -> POSTGRES.getJdbcUrl() + "&currentSchema=stale");
+    }
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        jdbcTemplate.execute("create schema if not exists stale");
+        for (String table : jdbcTemplate.queryForList(
+                "select tablename from pg_tables where schemaname = 'public'", String.class)) {
+            jdbcTemplate.execute(String.format("create table if not exists stale.%s (like public.%s)", table, table));
+        }
+        restaurant = restaurant(10);
+        awaitReplica();
+    }
+
+    @Test
+    void updatesReadFromThePrimary() {
+        MenuItem menuItem = menuItems(restaurant, 1, new BigDecimal("100.00")).get(0);
+        menuItemService.updateMenu(menuItem.getId(), new MenuRequest("Updated", null, new BigDecimal("120.00"), "Updated", true));
+        assertThat(primary("select name from menu_items where id = ?", menuItem.getId())).isEqualTo("Updated");
+
+        User waiter = employee(restaurant, Role.WAITER);
+        waiterService.updateWaiter(waiter.getId(), new WaiterRequest("Updated", "Waiter", LocalDate.now().minusYears(25),
+                UUID.randomUUID() + "@test.kg", "password", "+996700000001", 2));
+        assertThat(primary("select first_name from users where id = ?", waiter.getId())).isEqualTo("Updated");
+
+        User chef = employee(restaurant, Role.CHEF);
+        chefService.updateChefById(chef.getId(), new ChefRequest("Updated", "Chef", LocalDate.now().minusYears(30),
+                UUID.randomUUID() + "@test.kg", "password", "+996700000002", 3));
+        assertThat(primary("select first_name from users where id = ?", chef.getId())).isEqualTo("Updated");
+
+        restaurantService.updateRestaurant(restaurant.getId(), new RestaurantRequest("Updated", "Osh", RestType.KOREAN, 10));
+        assertThat(primary("select name from restaurant where id = ?", restaurant.getId())).isEqualTo("Updated");
+    }
+
+    @Test
+    void menuStructureChangesReadFromThePrimary() {
+        Category category = new Category();
+        category.setName("Category " + UUID.randomUUID());
+        categoryRepository.save(category);
+        SubCategory subCategory = new SubCategory();
+        subCategory.setName("Sub");
+        subCategory.setCategory(category);
+        subCategoryRepository.save(subCategory);
+
+        categoryService.updateCategory(category.getId(), new CategoryRequest("Updated"));
+        subCategoryService.update(subCategory.getId(), new SubCategoryRequest("Updated"));
+        assertThat(primary("select name from categories where id = ?", category.getId())).isEqualTo("Updated");
+        assertThat(primary("select name from sub_categories where id = ?", subCategory.getId())).isEqualTo("Updated");
+
+        MenuItem menuItem = menuItems(restaurant, 1, new BigDecimal("100.00")).get(0);
+        stopListService.saveStopList(new StopListRequest("Out of stock", null, null, null), menuItem.getId());
+        Long stopListId = jdbcTemplate.queryForObject("select id from stop_lists where menu_item_id = ?", Long.class,
+                menuItem.getId());
+        stopListService.delete(menuItem.getId(), stopListId);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from stop_lists where menu_item_id = ?", Integer.class,
+                menuItem.getId())).isZero();
+    }
+
+    @Test
+    void statementsReadFromThePrimary() {
+        User accepted = applicant(Role.CHEF);
+        statementService.acceptOrDelete(restaurant.getId(), accepted.getId(), true);
+        assertThat(primary("select restaurant_id from users where id = ?", accepted.getId()))
+                .isEqualTo(restaurant.getId().toString());
+
+        User rejected = applicant(Role.WAITER);
+        assertThatThrownBy(() -> statementService.acceptOrDelete(restaurant.getId(), rejected.getId(), false))
+                .isInstanceOf(BadRequestException.class);
+        // the rejection is reported as an error but the applicant is gone
+        assertThat(jdbcTemplate.queryForObject("select count(*) from users where id = ?", Integer.class, rejected.getId()))
+                .isZero();
+    }
+
+    @Test
+    void cachedSalesReportsAreBuiltOnThePrimary() {
+        User waiter = employee(restaurant, Role.WAITER);
+        MenuItem menuItem = menuItems(restaurant, 1, new BigDecimal("100.00")).get(0);
+        chequeService.save(restaurant.getId(), waiter.getId(), new ChequeRequest(List.of(menuItem.getId())));
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        jdbcTemplate.update("update cheques set created_ad = ? where user_id = ?", yesterday, waiter.getId());
+
+        // a closed period is cached for good, so it must not be read from the replica that is behind
+        assertThat(salesAnalyticsService.getSales(restaurant.getId(), yesterday, yesterday, AnalyticsGranularity.DAY, 10)
+                .revenue()).isEqualByComparingTo("100.00");
+    }
+
+    /**
+     * Reads outside any transaction, which always goes to the primary.
+     */
+    private String primary(String sql, Long id) {
+        return jdbcTemplate.queryForObject(sql, String.class, id);
+    }
+
+    private User applicant(Role role) {
+        User user = employee(restaurant, role);
+        user.setRestaurant(null);
+        return userRepository.save(user);
+    }
+
+    /**
+     * Waits for the first lag check to put the replica in use: a read-only call stops seeing the
+     * restaurant created on the primary.
+     */
+    private void awaitReplica() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(REPLICA_WAIT_MILLIS);
+        while (System.nanoTime() < deadline) {
+            List<Long> visible = restaurantService.findAll().stream().map(RestaurantResponse::id).toList();
+            if (!visible.contains(restaurant.getId())) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Replica was not put in use");
+    }
+}
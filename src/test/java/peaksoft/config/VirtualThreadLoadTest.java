@@ -0,0 +1,108 @@
+package peaksoft.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.test.context.TestPropertySource;
+import peaksoft.PostgresIntegrationTest;
+import peaksoft.entity.Restaurant;
+import peaksoft.services.RestaurantService;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput and p99 latency of the same request on Tomcat's default 200 platform threads and on
+ * the virtual thread executor. A request waits {@value #CALL_MILLIS} ms on a slow downstream call
+ * and then reads a restaurant, so platform threads run out long before database connections do,
+ * while on virtual threads the {@link ConcurrencyLimitingDataSource} is the only queue. Needs a
+ * runtime with virtual threads; on Java 17 it is skipped instead of measuring platform threads
+ * twice.
+ */
+@Tag("load")
+@EnabledIf("virtualThreadsAvailable")
+@TestPropertySource(properties = "spring.web.virtual_threads=true")
+class VirtualThreadLoadTest extends PostgresIntegrationTest {
+    private static final int PLATFORM_THREADS = 200;
+    private static final int REQUESTS = 20_000;
+    private static final int WARM_UP = 2_000;
+    private static final long CALL_MILLIS = 50;
+
+    @Autowired
+    private RestaurantService restaurantService;
+    @Autowired
+    private AsyncTaskExecutor applicationTaskExecutor;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private HikariDataSource pool;
+
+    @Test
+    void virtualThreadsServeMoreRequestsWithinTheConnectionLimit() throws Exception {
+        assertThat(dataSource).isInstanceOf(ConcurrencyLimitingDataSource.class);
+        assertThat(dataSource.unwrap(HikariDataSource.class)).isSameAs(pool);
+        Restaurant restaurant = restaurant(10);
+
+        ExecutorService platform = Executors.newFixedThreadPool(PLATFORM_THREADS);
+        try {
+            run(platform, restaurant, WARM_UP);
+            Result platformResult = run(platform, restaurant, REQUESTS);
+            run(applicationTaskExecutor, restaurant, WARM_UP);
+            Result virtualResult = run(applicationTaskExecutor, restaurant, REQUESTS);
+
+            System.out.printf("platform threads: %.0f req/s, p99 %.1f ms%n",
+                    platformResult.perSecond(), platformResult.p99Nanos() / 1e6);
+            System.out.printf("virtual threads:  %.0f req/s, p99 %.1f ms (pool of %d)%n",
+                    virtualResult.perSecond(), virtualResult.p99Nanos() / 1e6, pool.getMaximumPoolSize());
+            assertThat(virtualResult.perSecond()).isGreaterThan(platformResult.perSecond());
+            assertThat(virtualResult.p99Nanos()).isLessThan(platformResult.p99Nanos());
+        } finally {
+            platform.shutdownNow();
+        }
+    }
+
+    private Result run(Executor executor, Restaurant restaurant, int requests) throws InterruptedException, ExecutionException {
+        long[] nanos = new long[requests];
+        List<Future<?>> futures = new ArrayList<>(requests);
+        long started = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            int request = i;
+            long submitted = System.nanoTime();
+            FutureTask<Void> task = new FutureTask<>(() -> {
+                Thread.sleep(CALL_MILLIS);
+                restaurantService.findById(restaurant.getId());
+                // from arrival, so time spent queued for a thread counts too
+                nanos[request] = System.nanoTime() - submitted;
+                return null;
+            });
+            executor.execute(task);
+            futures.add(task);
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - started;
+        Arrays.sort(nanos);
+        return new Result(requests * 1e9 / elapsed, nanos[(int) (requests * 0.99) - 1]);
+    }
+
+    static boolean virtualThreadsAvailable() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    private record Result(double perSecond, long p99Nanos) {
+    }
+}
@@ -0,0 +1,42 @@
+package peaksoft.config.jwt;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import peaksoft.enums.Role;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrincipalCacheTest {
+    private final PrincipalCache cache = new PrincipalCache(300, 100);
+    private final AuthenticatedPrincipal chef = new AuthenticatedPrincipal(1L, "chef@test.kg", Role.CHEF, 1L);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void revokeInTransactionWaitsForCommit() {
+        cache.put(chef, cache.generation());
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.revoke(chef.id());
+        assertThat(cache.get(chef.id())).isEqualTo(chef);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(cache.get(chef.id())).isNull();
+    }
+
+    @Test
+    void lookupStartedBeforeRevokeIsNotCached() {
+        long generation = cache.generation();
+        cache.revoke(chef.id());
+
+        cache.put(chef, generation);
+        assertThat(cache.get(chef.id())).isNull();
+    }
+}
@@ -0,0 +1,124 @@
+package peaksoft.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import peaksoft.PostgresIntegrationTest;
+import peaksoft.exeption.BadRequestException;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Two guards over one {@code idempotency_keys} table stand in for two instances behind a load
+ * balancer.
+ */
+class IdempotencyGuardTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private IdempotencyGuard first;
+    private IdempotencyGuard second;
+
+    @BeforeEach
+    void setUp() {
+        JdbcIdempotencyStore store = new JdbcIdempotencyStore(jdbcTemplate, transactionManager);
+        store.createTable();
+        first = new IdempotencyGuard(store, objectMapper, transactionManager, 86400, 60);
+        second = new IdempotencyGuard(new JdbcIdempotencyStore(jdbcTemplate, transactionManager), objectMapper, transactionManager, 86400, 60);
+    }
+
+    @Test
+    void concurrentRetriesOnTwoInstancesWriteOnce() {
+        String key = UUID.randomUUID().toString();
+        AtomicInteger writes = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+
+        CompletableFuture<String> attempt = CompletableFuture.supplyAsync(() -> first.execute(key, "test", List.of(1), String.class, () -> {
+            started.countDown();
+            sleep(300);
+            return "written " + writes.incrementAndGet();
+        }));
+        await(started);
+        String retry = second.execute(key, "test", List.of(1), String.class, () -> "written " + writes.incrementAndGet());
+
+        assertThat(attempt.join()).isEqualTo("written 1");
+        assertThat(retry).isEqualTo("written 1");
+        assertThat(writes).hasValue(1);
+    }
+
+    @Test
+    void failedAttemptReleasesTheKey() {
+        String key = UUID.randomUUID().toString();
+
+        assertThatThrownBy(() -> first.execute(key, "test", List.of(1), String.class, () -> {
+            throw new BadRequestException("failed");
+        })).isInstanceOf(BadRequestException.class);
+
+        assertThat(second.execute(key, "test", List.of(1), String.class, () -> "written")).isEqualTo("written");
+    }
+
+    @Test
+    void writeThatFailsAtCommitIsNotReplayed() {
+        IdempotencyGuard inMemory = new IdempotencyGuard(new InMemoryIdempotencyStore(100), objectMapper,
+                transactionManager, 86400, 60);
+        for (IdempotencyGuard guard : List.of(first, inMemory)) {
+            String key = UUID.randomUUID().toString();
+
+            assertThatThrownBy(() -> guard.execute(key, "test", List.of(1), String.class, () -> {
+                failCommit();
+                return "lost";
+            })).isInstanceOf(IllegalStateException.class);
+
+            assertThat(guard.execute(key, "test", List.of(1), String.class, () -> "written")).isEqualTo("written");
+        }
+    }
+
+    @Test
+    void keyReusedForAnotherRequestIsRejected() {
+        String key = UUID.randomUUID().toString();
+        first.execute(key, "test", List.of(1), String.class, () -> "written");
+
+        assertThatThrownBy(() -> second.execute(key, "test", List.of(2), String.class, () -> "other"))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    // stands in for a commit-time failure such as a version check on a row the write locked
+    private static void failCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                throw new IllegalStateException("commit failed");
+            }
+        });
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
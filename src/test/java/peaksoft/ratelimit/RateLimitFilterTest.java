@@ -0,0 +1,75 @@
+package peaksoft.ratelimit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import peaksoft.cache.MenuCatalog;
+import peaksoft.config.jwt.AuthenticatedPrincipal;
+import peaksoft.enums.Role;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class RateLimitFilterTest {
+    // one request per bucket, refilled only after a second
+    private final RateLimiter rateLimiter = new RateLimiter(true, 3, 1, 1, 1, 1, false, 50, 10, 200, 500);
+    private final RateLimitFilter filter = new RateLimitFilter(rateLimiter, mock(MenuCatalog.class));
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        rateLimiter.stop();
+    }
+
+    @Test
+    void authenticatedClientIsKeyedByItsOwnRestaurant() throws Exception {
+        AuthenticatedPrincipal waiter = new AuthenticatedPrincipal(7L, "waiter@test.kg", Role.WAITER, 1L);
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                waiter.email(), null, List.of(new SimpleGrantedAuthority(waiter.role().name())));
+        authentication.setDetails(waiter);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        assertThat(get("/api/menu/findAll/1", null)).isEqualTo(HttpStatus.OK.value());
+        assertThat(get("/api/menu/findAll/2", "3")).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(rateLimiter.metrics().keys()).singleElement()
+                .satisfies(key -> assertThat(key.key()).isEqualTo("restaurant:1/user:7"));
+    }
+
+    @Test
+    void anonymousClientCannotPickAFreshRestaurant() throws Exception {
+        assertThat(get("/api/menu/pagination/1", "1")).isEqualTo(HttpStatus.OK.value());
+        assertThat(get("/api/menu/search", "not-a-restaurant")).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+    }
+
+    @Test
+    void newKeyPastTheCapEvictsTheBucketClosestToFull() throws InterruptedException {
+        for (String key : List.of("a", "b", "c")) {
+            rateLimiter.tryAcquire(key, false);
+            Thread.sleep(5);
+        }
+
+        assertThat(rateLimiter.tryAcquire("d", false)).isZero();
+        assertThat(rateLimiter.tryAcquire("e", false)).isZero();
+        assertThat(rateLimiter.metrics().keys()).hasSize(3)
+                .extracting(key -> key.key()).containsExactlyInAnyOrder("c", "d", "e");
+        assertThat(rateLimiter.tryAcquire("c", false)).isPositive();
+    }
+
+    private int get(String path, String restId) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        if (restId != null) {
+            request.setParameter("restId", restId);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,44 @@
+package peaksoft.services.impl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import peaksoft.PostgresIntegrationTest;
+import peaksoft.dto.responses.ChefResponse;
+import peaksoft.dto.responses.CursorPageResponse;
+import peaksoft.entity.Restaurant;
+import peaksoft.entity.User;
+import peaksoft.enums.Role;
+import peaksoft.services.ChefService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChefServiceImplTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ChefService chefService;
+
+    @Test
+    void cursorPagesReachChefsWithoutFirstName() {
+        Restaurant restaurant = restaurant(10);
+        List<Long> unnamed = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            User chef = employee(restaurant, Role.CHEF);
+            chef.setFirstName(null);
+            unnamed.add(userRepository.save(chef).getId());
+        }
+        employee(restaurant, Role.CHEF);
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageResponse<ChefResponse> page = chefService.getChefCursorPage(cursor, 2, false);
+            page.content().forEach(chef -> seen.add(chef.id()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).doesNotHaveDuplicates().containsAll(unnamed);
+    }
+}
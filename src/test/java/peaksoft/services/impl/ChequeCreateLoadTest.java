@@ -0,0 +1,89 @@
+package peaksoft.services.impl;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import peaksoft.PostgresIntegrationTest;
+import peaksoft.dto.requests.ChequeRequest;
+import peaksoft.entity.MenuItem;
+import peaksoft.entity.Restaurant;
+import peaksoft.entity.User;
+import peaksoft.enums.Role;
+import peaksoft.services.ChequeService;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Creating a cheque resolves only the ordered dishes, so its latency must not depend on how many
+ * cheques the restaurant already has. Measures the median create time against a 400-dish menu
+ * with an empty history and again after 100,000 historical cheques (one line each).
+ */
+@Tag("load")
+class ChequeCreateLoadTest extends PostgresIntegrationTest {
+    private static final int WARM_UP = 50;
+    private static final int ORDERS = 200;
+    private static final int HISTORY = 100_000;
+
+    @Autowired
+    private ChequeService chequeService;
+
+    private final Random random = new Random(42);
+
+    @Test
+    void createLatencyStaysFlatAsHistoryGrows() {
+        Restaurant restaurant = restaurant(10);
+        User waiter = employee(restaurant, Role.WAITER);
+        List<Long> menu = menuItems(restaurant, 400, new BigDecimal("250.00")).stream().map(MenuItem::getId).toList();
+
+        createCheques(restaurant, waiter, menu, WARM_UP);
+        long emptyHistory = medianNanos(createCheques(restaurant, waiter, menu, ORDERS));
+
+        addHistory(waiter, menu);
+        long largeHistory = medianNanos(createCheques(restaurant, waiter, menu, ORDERS));
+
+        System.out.printf("cheque create median: %.2f ms empty history, %.2f ms with %d cheques%n",
+                emptyHistory / 1e6, largeHistory / 1e6, HISTORY);
+        assertThat(largeHistory).isLessThan(emptyHistory * 2 + TimeUnit.MILLISECONDS.toNanos(2));
+    }
+
+    private long[] createCheques(Restaurant restaurant, User waiter, List<Long> menu, int count) {
+        long[] nanos = new long[count];
+        for (int i = 0; i < count; i++) {
+            // a typical order: five dishes, one of them twice
+            Long repeated = menu.get(random.nextInt(menu.size()));
+            List<Long> ids = List.of(repeated, repeated, menu.get(random.nextInt(menu.size())),
+                    menu.get(random.nextInt(menu.size())), menu.get(random.nextInt(menu.size())));
+            long started = System.nanoTime();
+            chequeService.save(restaurant.getId(), waiter.getId(), new ChequeRequest(ids));
+            nanos[i] = System.nanoTime() - started;
+        }
+        return nanos;
+    }
+
+    private void addHistory(User waiter, List<Long> menu) {
+        jdbcTemplate.update("""
+                insert into cheques (id, version, price_average, service_charge, grand_total, created_ad, user_id)
+                select nextval('cheque_seq'), 0, 250, 25, 275, current_date - 1 - (g % 730), ?
+                from generate_series(1, ?) g""", waiter.getId(), HISTORY);
+        jdbcTemplate.update("""
+                insert into cheque_lines (id, quantity, unit_price, line_total, cheque_id, menu_item_id)
+                select nextval('cheque_line_seq'), 1, 250, 250, c.id, (?::bigint[])[(1 + c.id % ?)::int]
+                from cheques c
+                where c.user_id = ? and c.created_ad < current_date""",
+                menu.toArray(Long[]::new), menu.size(), waiter.getId());
+        jdbcTemplate.execute("analyze cheques");
+        jdbcTemplate.execute("analyze cheque_lines");
+    }
+
+    private static long medianNanos(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
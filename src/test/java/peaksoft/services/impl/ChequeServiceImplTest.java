@@ -0,0 +1,73 @@
+package peaksoft.services.impl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import peaksoft.PostgresIntegrationTest;
+import peaksoft.dto.requests.ChequeRequest;
+import peaksoft.dto.requests.StopListRequest;
+import peaksoft.entity.MenuItem;
+import peaksoft.entity.Restaurant;
+import peaksoft.entity.User;
+import peaksoft.enums.Role;
+import peaksoft.exeption.BadRequestException;
+import peaksoft.repositories.ChequeRepository;
+import peaksoft.services.ChequeService;
+import peaksoft.services.StopListService;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChequeServiceImplTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ChequeService chequeService;
+    @Autowired
+    private ChequeRepository chequeRepository;
+    @Autowired
+    private StopListService stopListService;
+
+    @Test
+    void saveKeepsRepeatedIdsAsQuantities() {
+        Restaurant restaurant = restaurant(10);
+        User waiter = employee(restaurant, Role.WAITER);
+        List<MenuItem> menu = menuItems(restaurant, 3, new BigDecimal("100.00"));
+
+        chequeService.save(restaurant.getId(), waiter.getId(), new ChequeRequest(
+                List.of(menu.get(0).getId(), menu.get(0).getId(), menu.get(1).getId())));
+
+        assertThat(chequeService.findAll(waiter.getId())).singleElement().satisfies(cheque -> {
+            assertThat(cheque.getChequeLines()).hasSize(2);
+            assertThat(cheque.getGrandTotal()).isEqualByComparingTo("330.00");
+        });
+    }
+
+    @Test
+    void saveRejectsWaiterOfAnotherRestaurant() {
+        Restaurant own = restaurant(10);
+        Restaurant other = restaurant(20);
+        User waiter = employee(own, Role.WAITER);
+        List<MenuItem> otherMenu = menuItems(other, 1, new BigDecimal("100.00"));
+
+        assertThatThrownBy(() -> chequeService.save(other.getId(), waiter.getId(),
+                new ChequeRequest(List.of(otherMenu.get(0).getId()))))
+                .isInstanceOf(BadRequestException.class);
+        assertThat(chequeRepository.findAllByUserId(waiter.getId())).isEmpty();
+    }
+
+    @Test
+    void saveRejectsStoppedMenuItem() {
+        Restaurant restaurant = restaurant(10);
+        User waiter = employee(restaurant, Role.WAITER);
+        List<MenuItem> menu = menuItems(restaurant, 2, new BigDecimal("100.00"));
+        stopListService.saveStopList(new StopListRequest("Out of stock", null, null, null), menu.get(0).getId());
+
+        assertThatThrownBy(() -> chequeService.save(restaurant.getId(), waiter.getId(),
+                new ChequeRequest(List.of(menu.get(0).getId(), menu.get(1).getId()))))
+                .isInstanceOf(BadRequestException.class);
+        chequeService.save(restaurant.getId(), waiter.getId(), new ChequeRequest(List.of(menu.get(1).getId())));
+        assertThat(chequeRepository.findAllByUserId(waiter.getId())).hasSize(1);
+    }
+}
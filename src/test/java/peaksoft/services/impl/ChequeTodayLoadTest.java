@@ -0,0 +1,97 @@
+package peaksoft.services.impl;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import peaksoft.PostgresIntegrationTest;
+import peaksoft.dto.requests.ChequeRequest;
+import peaksoft.dto.responses.PaginationResponseCheque;
+import peaksoft.entity.MenuItem;
+import peaksoft.entity.Restaurant;
+import peaksoft.entity.User;
+import peaksoft.enums.Role;
+import peaksoft.services.ChequeService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The waiter's cheques of today, read from the partitioned table, must cost the same however much
+ * history the waiter has. Measures the median of the paged "today" listing with lines as the
+ * history grows from none to 400,000 cheques over the last three years.
+ */
+@Tag("load")
+@TestPropertySource(properties = "spring.cheques.partitioning.enabled=true")
+class ChequeTodayLoadTest extends PostgresIntegrationTest {
+    private static final int[] HISTORY = {0, 100_000, 400_000};
+    private static final int TODAY = 20;
+    private static final int WARM_UP = 50;
+    private static final int REPEATS = 200;
+
+    @Autowired
+    private ChequeService chequeService;
+
+    @Test
+    void todayStaysFlatAsHistoryGrows() {
+        Restaurant restaurant = restaurant(10);
+        User waiter = employee(restaurant, Role.WAITER);
+        List<Long> menu = menuItems(restaurant, 20, new BigDecimal("150.00")).stream().map(MenuItem::getId).toList();
+        for (int i = 0; i < TODAY; i++) {
+            chequeService.save(restaurant.getId(), waiter.getId(), new ChequeRequest(List.of(menu.get(i), menu.get((i + 1) % 20))));
+        }
+
+        long[] medians = new long[HISTORY.length];
+        int inserted = 0;
+        for (int step = 0; step < HISTORY.length; step++) {
+            addHistory(waiter, menu, HISTORY[step] - inserted);
+            inserted = HISTORY[step];
+            today(waiter, WARM_UP);
+            medians[step] = median(today(waiter, REPEATS));
+            System.out.printf("today's cheques with %d cheques of history: %.2f ms%n", HISTORY[step], medians[step] / 1e6);
+        }
+        assertThat(medians[medians.length - 1]).isLessThan(medians[0] * 2 + TimeUnit.MILLISECONDS.toNanos(2));
+    }
+
+    private long[] today(User waiter, int count) {
+        LocalDate today = LocalDate.now();
+        long[] nanos = new long[count];
+        for (int i = 0; i < count; i++) {
+            long started = System.nanoTime();
+            PaginationResponseCheque page = chequeService.getChequePage(waiter.getId(), today, today, 1, TODAY, true);
+            nanos[i] = System.nanoTime() - started;
+            assertThat(page.getChequeResponses()).hasSize(TODAY);
+        }
+        return nanos;
+    }
+
+    private void addHistory(User waiter, List<Long> menu, int count) {
+        if (count == 0) {
+            return;
+        }
+        jdbcTemplate.update("""
+                insert into cheques (id, version, price_average, service_charge, grand_total, created_ad, user_id)
+                select nextval('cheque_seq'), 0, 150, 15, 165, current_date - 1 - (g % 1095), ?
+                from generate_series(1, ?) g""", waiter.getId(), count);
+        jdbcTemplate.update("""
+                insert into cheque_lines (id, quantity, unit_price, line_total, cheque_id, menu_item_id)
+                select nextval('cheque_line_seq'), 1, 150, 150, c.id, (?::bigint[])[(1 + c.id % ?)::int]
+                from cheques c
+                where c.user_id = ? and c.created_ad < current_date
+                  and not exists (select 1 from cheque_lines l where l.cheque_id = c.id)""",
+                menu.toArray(Long[]::new), menu.size(), waiter.getId());
+        jdbcTemplate.execute("analyze cheques");
+        jdbcTemplate.execute("analyze cheque_lines");
+    }
+
+    private static long median(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,98 @@
+package peaksoft.services.impl;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import peaksoft.PostgresIntegrationTest;
+import peaksoft.dto.requests.ChequeBatchItemRequest;
+import peaksoft.dto.requests.ChequeBatchRequest;
+import peaksoft.dto.responses.ChequeBatchResultResponse;
+import peaksoft.dto.responses.MenuImportResponse;
+import peaksoft.entity.MenuItem;
+import peaksoft.entity.Restaurant;
+import peaksoft.entity.User;
+import peaksoft.enums.ChequeBatchStatus;
+import peaksoft.enums.MenuTransferFormat;
+import peaksoft.enums.Role;
+import peaksoft.services.ChequeService;
+import peaksoft.services.MenuTransferService;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bulk-creates cheques and menu items and checks, through Hibernate statistics, that the rows go
+ * out in JDBC batches with ids allocated in pooled-lo blocks: unbatched, every row would cost an
+ * insert statement and a {@code nextval}.
+ */
+class JdbcBatchingTest extends PostgresIntegrationTest {
+    private static final int CHEQUES = 200;
+    private static final int MENU_ROWS = 500;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ChequeService chequeService;
+    @Autowired
+    private MenuTransferService menuTransferService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void chequeBatchIsInsertedInJdbcBatches() {
+        Restaurant restaurant = restaurant(10);
+        User waiter = employee(restaurant, Role.WAITER);
+        List<Long> menu = menuItems(restaurant, 20, new BigDecimal("80.00")).stream().map(MenuItem::getId).toList();
+        List<ChequeBatchItemRequest> cheques = new ArrayList<>();
+        for (int i = 0; i < CHEQUES; i++) {
+            cheques.add(new ChequeBatchItemRequest(UUID.randomUUID().toString(),
+                    List.of(menu.get(i % 20), menu.get((i + 1) % 20), menu.get((i + 2) % 20))));
+        }
+
+        statistics.clear();
+        List<ChequeBatchResultResponse> results = chequeService.saveBatch(restaurant.getId(), waiter.getId(),
+                new ChequeBatchRequest(cheques));
+
+        assertThat(results).allMatch(result -> result.status() == ChequeBatchStatus.CREATED);
+        long inserted = statistics.getEntityInsertCount();
+        long statements = statistics.getPrepareStatementCount();
+        // cheques, lines and kitchen tickets
+        assertThat(inserted).isEqualTo(CHEQUES * 5L);
+        assertThat(statements).isLessThan(inserted / 10);
+    }
+
+    @Test
+    void menuImportIsInsertedInJdbcBatches() throws IOException {
+        Restaurant restaurant = restaurant(10);
+        String category = "Category " + UUID.randomUUID();
+        StringBuilder csv = new StringBuilder("category,subCategory,name,price\n");
+        for (int i = 0; i < MENU_ROWS; i++) {
+            csv.append(category).append(",Sub ").append(i % 5).append(",Dish ").append(i).append(",").append(100 + i).append('\n');
+        }
+
+        statistics.clear();
+        MenuImportResponse response = menuTransferService.importMenus(restaurant.getId(), MenuTransferFormat.CSV,
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(response.created()).isEqualTo(MENU_ROWS);
+        long inserted = statistics.getEntityInsertCount();
+        long statements = statistics.getPrepareStatementCount();
+        assertThat(inserted).isGreaterThanOrEqualTo(MENU_ROWS);
+        assertThat(statements).isLessThan(inserted / 5);
+    }
+}
@@ -0,0 +1,66 @@
+package peaksoft.services.impl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import peaksoft.PostgresIntegrationTest;
+import peaksoft.dto.responses.MenuImportErrorResponse;
+import peaksoft.dto.responses.MenuImportResponse;
+import peaksoft.entity.MenuItem;
+import peaksoft.entity.Restaurant;
+import peaksoft.enums.MenuTransferFormat;
+import peaksoft.services.MenuTransferService;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MenuTransferServiceImplTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MenuTransferService menuTransferService;
+
+    @Test
+    void columnsLeftOutOfTheFileKeepTheStoredValues() throws IOException {
+        Restaurant restaurant = restaurant(10);
+        MenuItem dish = menuItems(restaurant, 1, new BigDecimal("100.00")).get(0);
+        String category = "Category " + UUID.randomUUID();
+
+        MenuImportResponse csv = importMenus(restaurant, MenuTransferFormat.CSV,
+                "category,subCategory,name,price,description\n" + category + ",Soups," + dish.getName() + ",120,\n");
+        MenuImportResponse json = importMenus(restaurant, MenuTransferFormat.JSON,
+                "[{\"category\":\"" + category + "\",\"subCategory\":\"Soups\",\"name\":\"" + dish.getName()
+                        + "\",\"price\":130,\"image\":\"soup.png\"}]");
+
+        assertThat(csv.updated()).isEqualTo(1);
+        assertThat(json.updated()).isEqualTo(1);
+        MenuItem stored = menuItemRepository.findById(dish.getId()).orElseThrow();
+        assertThat(stored.getPrice()).isEqualByComparingTo("130");
+        assertThat(stored.getImage()).isEqualTo("soup.png");
+        assertThat(stored.getDescription()).isNull();
+        assertThat(stored.getIsVegetarian()).isEqualTo(dish.getIsVegetarian());
+    }
+
+    @Test
+    void overlongRowWithManyCommasOnlyFailsThatRow() throws IOException {
+        Restaurant restaurant = restaurant(10);
+        String category = "Category " + UUID.randomUUID();
+        String csv = "category,subCategory,name,price\n"
+                + ",".repeat(200_000) + "\n"
+                + category + ",Soups,Borsch,120\n";
+
+        MenuImportResponse response = importMenus(restaurant, MenuTransferFormat.CSV, csv);
+
+        assertThat(response.created()).isEqualTo(1);
+        assertThat(response.errors()).extracting(MenuImportErrorResponse::row).containsExactly(1L);
+    }
+
+    private MenuImportResponse importMenus(Restaurant restaurant, MenuTransferFormat format, String content)
+            throws IOException {
+        return menuTransferService.importMenus(restaurant.getId(), format,
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,52 @@
+package peaksoft.services.impl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import peaksoft.PostgresIntegrationTest;
+import peaksoft.dto.requests.ChequeRequest;
+import peaksoft.entity.MenuItem;
+import peaksoft.entity.Restaurant;
+import peaksoft.entity.User;
+import peaksoft.enums.AnalyticsGranularity;
+import peaksoft.enums.Role;
+import peaksoft.repositories.ChequeRepository;
+import peaksoft.services.ChequeService;
+import peaksoft.services.SalesAnalyticsService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SalesAnalyticsServiceImplTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+    @Autowired
+    private ChequeService chequeService;
+    @Autowired
+    private ChequeRepository chequeRepository;
+
+    @Test
+    void closedReportFollowsChangesToPastCheques() {
+        Restaurant restaurant = restaurant(0);
+        User waiter = employee(restaurant, Role.WAITER);
+        List<MenuItem> menu = menuItems(restaurant, 2, new BigDecimal("100.00"));
+        chequeService.save(restaurant.getId(), waiter.getId(), new ChequeRequest(List.of(menu.get(0).getId())));
+        Long chequeId = chequeRepository.findAllByUserId(waiter.getId()).get(0).getId();
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        jdbcTemplate.update("update cheques set created_ad = ? where id = ?", yesterday, chequeId);
+
+        assertThat(salesAnalyticsService.getSales(restaurant.getId(), yesterday, yesterday, AnalyticsGranularity.DAY, 10).revenue())
+                .isEqualByComparingTo("100.00");
+
+        chequeService.update(chequeId, new ChequeRequest(List.of(menu.get(0).getId(), menu.get(1).getId())));
+        assertThat(salesAnalyticsService.getSales(restaurant.getId(), yesterday, yesterday, AnalyticsGranularity.DAY, 10).revenue())
+                .isEqualByComparingTo("200.00");
+
+        chequeService.delete(waiter.getId(), chequeId);
+        assertThat(salesAnalyticsService.getSales(restaurant.getId(), yesterday, yesterday, AnalyticsGranularity.DAY, 10).cheques())
+                .isZero();
+    }
+}
@@ -0,0 +1,204 @@
+package peaksoft.services.impl;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import peaksoft.PostgresIntegrationTest;
+import peaksoft.dto.requests.ChequeRequest;
+import peaksoft.entity.MenuItem;
+import peaksoft.entity.Restaurant;
+import peaksoft.entity.User;
+import peaksoft.enums.Role;
+import peaksoft.dto.requests.StopListRequest;
+import peaksoft.event.MenuChangedEvent;
+import peaksoft.repositories.ChequeRepository;
+import peaksoft.services.CategoryService;
+import peaksoft.services.ChefService;
+import peaksoft.services.ChequeService;
+import peaksoft.services.MenuItemService;
+import peaksoft.services.RestaurantService;
+import peaksoft.services.StatementService;
+import peaksoft.services.StopListService;
+import peaksoft.services.WaiterService;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Number of SQL statements each service call issues, counted by Hibernate statistics. The counts
+ * must not depend on how many rows are involved: an association that turns eager again, or a
+ * lazy one walked in a loop, shows up here as extra statements.
+ */
+class StatementCountTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ChequeService chequeService;
+    @Autowired
+    private ChefService chefService;
+    @Autowired
+    private RestaurantService restaurantService;
+    @Autowired
+    private ChequeRepository chequeRepository;
+    @Autowired
+    private WaiterService waiterService;
+    @Autowired
+    private MenuItemService menuItemService;
+    @Autowired
+    private CategoryService categoryService;
+    @Autowired
+    private StatementService statementService;
+    @Autowired
+    private StopListService stopListService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private Restaurant restaurant;
+    private User waiter;
+    private List<Long> menu;
+
+    @BeforeEach
+    void setUp() {
+        restaurant = restaurant(10);
+        waiter = employee(restaurant, Role.WAITER);
+        menu = menuItems(restaurant, 30, new BigDecimal("120.00")).stream().map(MenuItem::getId).toList();
+        for (int i = 0; i < 3; i++) {
+            chequeService.save(restaurant.getId(), waiter.getId(), new ChequeRequest(menu.subList(i, i + 3)));
+        }
+    }
+
+    @Test
+    void findRestaurant() {
+        assertThat(statements(() -> restaurantService.findById(restaurant.getId()))).isEqualTo(2);
+    }
+
+    @Test
+    void findAllChefs() {
+        for (int i = 0; i < 5; i++) {
+            employee(restaurant, Role.CHEF);
+        }
+        assertThat(statements(() -> chefService.findAllChefs(restaurant.getId(), Role.CHEF))).isEqualTo(2);
+    }
+
+    @Test
+    void findAllWaiters() {
+        for (int i = 0; i < 5; i++) {
+            employee(restaurant, Role.WAITER);
+        }
+        assertThat(statements(() -> waiterService.findAllWaiters(restaurant.getId(), Role.WAITER))).isEqualTo(2);
+    }
+
+    @Test
+    void findChefAndWaiterById() {
+        User chef = employee(restaurant, Role.CHEF);
+        assertThat(statements(() -> chefService.findById(chef.getId(), Role.CHEF))).isEqualTo(1);
+        assertThat(statements(() -> waiterService.findById(waiter.getId(), Role.WAITER))).isEqualTo(1);
+    }
+
+    @Test
+    void staffCursorPages() {
+        for (int i = 0; i < 5; i++) {
+            employee(restaurant, Role.CHEF);
+        }
+        employee(restaurant, Role.WAITER);
+        String chefCursor = chefService.getChefCursorPage(null, 2, false).nextCursor();
+        String waiterCursor = waiterService.getWaiterCursorPage(null, 1, false).nextCursor();
+
+        assertThat(statements(() -> chefService.getChefCursorPage(chefCursor, 2, false))).isEqualTo(1);
+        assertThat(statements(() -> waiterService.getWaiterCursorPage(waiterCursor, 1, false))).isEqualTo(1);
+    }
+
+    @Test
+    void findAllStatementsAndStopLists() {
+        stopListService.saveStopList(new StopListRequest("Out of stock", null, null, null), menu.get(0));
+        stopListService.saveStopList(new StopListRequest("Out of stock", null, null, null), menu.get(1));
+
+        assertThat(statements(() -> statementService.findAll())).isEqualTo(1);
+        assertThat(statements(() -> stopListService.findAll())).isEqualTo(1);
+    }
+
+    @Test
+    void catalogReadsHitNoTablesOnceWarm() {
+        menuItemService.findAllMenus(restaurant.getId(), "ASC", false);
+        categoryService.findAllCategories();
+
+        assertThat(statements(() -> menuItemService.findAllMenus(restaurant.getId(), "ASC", false))).isZero();
+        assertThat(statements(() -> categoryService.findAllCategories())).isZero();
+        // only the restaurant existence check
+        assertThat(statements(() -> menuItemService.getCatalog(restaurant.getId()))).isEqualTo(1);
+    }
+
+    @Test
+    void catalogRebuildDoesNotGrowWithTheMenu() {
+        Restaurant small = restaurant(10);
+        menuItems(small, 2, new BigDecimal("50.00"));
+        Restaurant large = restaurant(10);
+        menuItems(large, 60, new BigDecimal("50.00"));
+
+        long smallRebuild = statements(() -> {
+            eventPublisher.publishEvent(new MenuChangedEvent(small.getId()));
+            menuItemService.findAllMenus(small.getId(), "ASC", false);
+        });
+        long largeRebuild = statements(() -> {
+            eventPublisher.publishEvent(new MenuChangedEvent(large.getId()));
+            menuItemService.findAllMenus(large.getId(), "ASC", false);
+        });
+
+        assertThat(largeRebuild).isEqualTo(smallRebuild);
+    }
+
+    @Test
+    void menuChangeReloadsOnlyItsRestaurant() {
+        menuItemService.findAllMenus(restaurant.getId(), "ASC", false);
+
+        // the restaurant's items; categories and sub-categories only when they change
+        assertThat(statements(() -> eventPublisher.publishEvent(new MenuChangedEvent(restaurant.getId())))).isEqualTo(1);
+        assertThat(statements(() -> eventPublisher.publishEvent(new MenuChangedEvent(null)))).isEqualTo(3);
+    }
+
+    @Test
+    void findAllCheques() {
+        // existence check, then cheques with waiter, restaurant, lines and dishes in one query
+        assertThat(statements(() -> chequeService.findAll(waiter.getId()))).isEqualTo(2);
+    }
+
+    @Test
+    void getChequeById() {
+        Long chequeId = chequeRepository.findAllByUserId(waiter.getId()).get(0).getId();
+        assertThat(statements(() -> chequeService.getById(chequeId))).isEqualTo(1);
+    }
+
+    @Test
+    void getChequePageWithLines() {
+        // existence check, headers, lines of the page; no count query for a partial first page
+        assertThat(statements(() -> chequeService.getChequePage(waiter.getId(), null, null, 1, 10, true)))
+                .isEqualTo(3);
+    }
+
+    @Test
+    void saveChequeDoesNotGrowWithItsLines() {
+        long single = statements(() -> chequeService.save(restaurant.getId(), waiter.getId(),
+                new ChequeRequest(List.of(menu.get(0)))));
+        long many = statements(() -> chequeService.save(restaurant.getId(), waiter.getId(),
+                new ChequeRequest(menu.subList(0, 20))));
+
+        // restaurant, waiter, prices, cheque insert, batched lines insert, revenue upsert, ticket
+        // insert, plus at most one id block per sequence
+        assertThat(single).isBetween(7L, 10L);
+        assertThat(many).isBetween(7L, 10L);
+    }
+
+    private long statements(Runnable call) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
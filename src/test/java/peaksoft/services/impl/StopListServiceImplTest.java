@@ -0,0 +1,80 @@
+package peaksoft.services.impl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import peaksoft.PostgresIntegrationTest;
+import peaksoft.cache.StopListIndex;
+import peaksoft.dto.requests.StopListRequest;
+import peaksoft.dto.responses.StopListResponse;
+import peaksoft.entity.MenuItem;
+import peaksoft.entity.Restaurant;
+import peaksoft.exeption.AlreadyExistException;
+import peaksoft.services.StopListService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StopListServiceImplTest extends PostgresIntegrationTest {
+    private static final LocalDate DAY = LocalDate.now().plusDays(10);
+
+    @Autowired
+    private StopListService stopListService;
+    @Autowired
+    private StopListIndex stopListIndex;
+
+    @Test
+    void windowCrossingMidnightBelongsToBothDays() {
+        Restaurant restaurant = restaurant(10);
+        MenuItem dish = menuItems(restaurant, 1, new BigDecimal("100.00")).get(0);
+        stopListService.saveStopList(window(DAY.atTime(22, 0), DAY.plusDays(1).atTime(2, 0)), dish.getId());
+
+        assertThat(stopListService.findByRestaurantAndDate(restaurant.getId(), DAY.plusDays(1)))
+                .extracting(StopListResponse::menuItemId).containsExactly(dish.getId());
+        assertThat(stopListIndex.isStopped(restaurant.getId(), dish.getId(), DAY.plusDays(1).atTime(1, 0))).isTrue();
+        assertThat(stopListIndex.isStopped(restaurant.getId(), dish.getId(), DAY.plusDays(1).atTime(3, 0))).isFalse();
+    }
+
+    @Test
+    void overlappingWindowsOfOneItemAreRejected() {
+        Restaurant restaurant = restaurant(10);
+        List<MenuItem> menu = menuItems(restaurant, 2, new BigDecimal("100.00"));
+        stopListService.saveStopList(window(DAY.atTime(22, 0), DAY.plusDays(1).atTime(2, 0)), menu.get(0).getId());
+
+        // starts on the next day, so the old per-date unique key let it through
+        assertThatThrownBy(() -> stopListService.saveStopList(
+                window(DAY.plusDays(1).atTime(1, 0), DAY.plusDays(1).atTime(5, 0)), menu.get(0).getId()))
+                .isInstanceOf(AlreadyExistException.class);
+
+        stopListService.saveStopList(window(DAY.plusDays(1).atTime(2, 0), DAY.plusDays(1).atTime(5, 0)), menu.get(0).getId());
+        stopListService.saveStopList(window(DAY.plusDays(1).atTime(1, 0), DAY.plusDays(1).atTime(5, 0)), menu.get(1).getId());
+        assertThat(stopListService.findByRestaurantAndDate(restaurant.getId(), DAY.plusDays(1))).hasSize(3);
+    }
+
+    @Test
+    void overlappingWindowsAreRejectedByTheDatabaseToo() {
+        Restaurant restaurant = restaurant(10);
+        MenuItem dish = menuItems(restaurant, 1, new BigDecimal("100.00")).get(0);
+        stopListService.saveStopList(window(DAY.atTime(22, 0), DAY.plusDays(1).atTime(2, 0)), dish.getId());
+
+        // a writer that skips the service's check
+        assertThatThrownBy(() -> jdbcTemplate.update("""
+                        insert into stop_lists (id, reason, date, starts_at, ends_at, menu_item_id)
+                        values (nextval('stop_list_seq'), 'Out of stock', ?, ?, ?, ?)""",
+                DAY.plusDays(1), DAY.plusDays(1).atTime(1, 0), DAY.plusDays(1).atTime(5, 0), dish.getId()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        jdbcTemplate.update("""
+                        insert into stop_lists (id, reason, date, starts_at, ends_at, menu_item_id)
+                        values (nextval('stop_list_seq'), 'Out of stock', ?, ?, ?, ?)""",
+                DAY.plusDays(1), DAY.plusDays(1).atTime(2, 0), DAY.plusDays(1).atTime(5, 0), dish.getId());
+    }
+
+    private static StopListRequest window(LocalDateTime startsAt, LocalDateTime endsAt) {
+        return new StopListRequest("Out of stock", null, startsAt, endsAt);
+    }
+}